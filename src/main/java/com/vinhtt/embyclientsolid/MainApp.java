@@ -4,13 +4,19 @@ import com.vinhtt.embyclientsolid.core.*;
 import com.vinhtt.embyclientsolid.data.IExternalDataService;
 import com.vinhtt.embyclientsolid.data.IItemRepository;
 import com.vinhtt.embyclientsolid.data.IItemUpdateService;
+import com.vinhtt.embyclientsolid.data.IPersonIndexService;
 import com.vinhtt.embyclientsolid.data.IStaticDataRepository;
+import com.vinhtt.embyclientsolid.data.impl.CachingItemRepository;
+import com.vinhtt.embyclientsolid.data.impl.CachingStaticDataRepository;
 import com.vinhtt.embyclientsolid.data.impl.EmbyItemRepository;
 import com.vinhtt.embyclientsolid.data.impl.EmbyItemUpdateService;
+import com.vinhtt.embyclientsolid.data.impl.EmbyPersonIndexService;
 import com.vinhtt.embyclientsolid.data.impl.EmbyStaticDataRepository;
 import com.vinhtt.embyclientsolid.data.impl.ExternalMovieDataService;
 import com.vinhtt.embyclientsolid.navigation.AppNavigator;
+import com.vinhtt.embyclientsolid.services.BackgroundTaskService;
 import com.vinhtt.embyclientsolid.services.DesktopInteractionService;
+import com.vinhtt.embyclientsolid.services.ImageCacheService;
 import com.vinhtt.embyclientsolid.services.JavaPreferenceService;
 import com.vinhtt.embyclientsolid.services.JsonConfigurationService;
 import com.vinhtt.embyclientsolid.services.NotificationService;
@@ -33,6 +39,11 @@ public class MainApp extends Application {
     private IAppNavigator appNavigator;
     private IEmbySessionService sessionService;
     private IPreferenceService preferenceService;
+    // (Giữ tham chiếu để ghi thống kê khi đóng ứng dụng)
+    private IImageCacheService imageCacheService;
+    private IBackgroundTaskService taskService;
+    private EmbyItemRepository embyItemRepository;
+    private EmbyStaticDataRepository embyStaticDataRepository;
 
     /**
      * Phương thức start, entry point cho JavaFX.
@@ -51,14 +62,25 @@ public class MainApp extends Application {
         this.sessionService = new EmbySessionService(preferenceService, configService);
         ILocalInteractionService localInteractionService = new DesktopInteractionService(configService);
         INotificationService notificationService = new NotificationService(configService);
+        // (Cache ảnh dùng chung cho lưới, chi tiết và gallery Backdrop)
+        this.imageCacheService = new ImageCacheService(sessionService, configService);
+        // (Chạy tác vụ nền của mọi ViewModel trên virtual thread, giới hạn theo loại tác vụ)
+        this.taskService = new BackgroundTaskService(configService);
 
         // 2. Khởi tạo các Repository (Giai đoạn 3)
         // (Lưu ý: Các repo cần sessionService)
-        IItemRepository itemRepository = new EmbyItemRepository(sessionService, configService);
-        IStaticDataRepository staticDataRepository = new EmbyStaticDataRepository(sessionService);
+        // (Bọc Repository gốc bằng cache chi tiết item: bộ nhớ + ổ đĩa)
+        this.embyItemRepository = new EmbyItemRepository(sessionService, configService);
+        IItemRepository itemRepository = new CachingItemRepository(embyItemRepository, sessionService);
+        // (Bọc Repository gợi ý bằng cache stale-while-revalidate: bộ nhớ + ổ đĩa)
+        this.embyStaticDataRepository = new EmbyStaticDataRepository(sessionService);
+        IStaticDataRepository staticDataRepository = new CachingStaticDataRepository(embyStaticDataRepository, sessionService);
+        // (Chỉ mục tên People, dựa trên danh sách gợi ý đã cache)
+        IPersonIndexService personIndexService = new EmbyPersonIndexService(
+                sessionService, staticDataRepository, itemRepository);
         IExternalDataService externalDataService = new ExternalMovieDataService();
         // (Lưu ý: EmbyItemUpdateService cần IItemRepository để đọc DTOs khi clone)
-        IItemUpdateService itemUpdateService = new EmbyItemUpdateService(sessionService, itemRepository);
+        IItemUpdateService itemUpdateService = new EmbyItemUpdateService(sessionService, itemRepository, taskService);
 
         // 3. Khởi tạo Navigator (Giai đoạn 5) và tiêm MỌI THỨ
         this.appNavigator = new AppNavigator(
@@ -68,8 +90,11 @@ public class MainApp extends Application {
                 preferenceService,
                 notificationService,
                 localInteractionService,
+                imageCacheService,
+                taskService,
                 itemRepository,
                 staticDataRepository,
+                personIndexService,
                 itemUpdateService,
                 externalDataService
         );
@@ -110,7 +135,7 @@ public class MainApp extends Application {
             preferenceService.putDouble("windowWidth", primaryStage.getWidth());
             preferenceService.putDouble("windowHeight", primaryStage.getHeight());
             preferenceService.flush();
-            // (Chúng ta có thể thêm logic shutdown hook cho các service ở đây nếu cần)
+            logStats();
             // Khi cửa sổ chính đóng, cũng phải đóng
             // cửa sổ pop-out (nếu nó đang mở).
             if (appNavigator != null) {
@@ -119,6 +144,20 @@ public class MainApp extends Application {
         });
     }
 
+    /**
+     * Ghi thống kê cache, gộp request và tác vụ nền ra System.err (khi đóng ứng dụng),
+     * để đánh giá hiệu quả của các cache/giới hạn trên dữ liệu thật.
+     */
+    private void logStats() {
+        System.err.println(imageCacheService.getStats());
+        System.err.println(taskService.getStats());
+        System.err.println("ItemRepository single-flight: " + embyItemRepository.getSingleFlightStats());
+        System.err.println("StaticDataRepository single-flight: " + embyStaticDataRepository.getSingleFlightStats());
+        if (appNavigator != null) {
+            appNavigator.logStats();
+        }
+    }
+
     /**
      * Main method, entry point của ứng dụng.
      *
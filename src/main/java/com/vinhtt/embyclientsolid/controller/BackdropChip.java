@@ -2,6 +2,8 @@ package com.vinhtt.embyclientsolid.view.controls;
 
 import com.vinhtt.embyclientsolid.core.IEmbySessionService;
 import embyclient.model.ImageInfo;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.WeakChangeListener;
 import javafx.geometry.Pos;
 import javafx.scene.control.Button;
 import javafx.scene.control.ProgressIndicator;
@@ -18,16 +20,21 @@ import java.util.function.Consumer;
  */
 public class BackdropChip extends StackPane {
 
-    private static final double THUMBNAIL_HEIGHT = 100;
+    public static final double THUMBNAIL_HEIGHT = 100;
+
+    // Giữ tham chiếu mạnh đến listener: ảnh được dùng chung (cache) nên chỉ gắn listener yếu,
+    // để ảnh trong cache không giữ lại các chip cũ
+    private ChangeListener<Number> progressListener;
+    private ChangeListener<Boolean> errorListener;
 
     /**
      * Khởi tạo một BackdropChip (ảnh thumbnail trong gallery).
      *
      * @param imageInfo   Thông tin ảnh (ImageInfo) từ Emby, chứa index.
-     * @param imageUrl    URL đầy đủ của ảnh (đã được ViewModel build).
+     * @param image       Ảnh (lấy từ cache ảnh qua ViewModel, có thể đang tải nền), hoặc null.
      * @param onDelete    Hàm callback (sự kiện) được gọi khi nhấn nút Xóa.
      */
-    public BackdropChip(ImageInfo imageInfo, String imageUrl, Consumer<ImageInfo> onDelete) {
+    public BackdropChip(ImageInfo imageInfo, Image image, Consumer<ImageInfo> onDelete) {
         setPrefHeight(THUMBNAIL_HEIGHT);
         getStyleClass().add("backdrop-view");
 
@@ -50,25 +57,27 @@ public class BackdropChip extends StackPane {
 
         getChildren().addAll(loading, imageView, deleteButton);
 
-        // 4. Tải ảnh (nền)
-        if (imageUrl != null) {
-            Image image = new Image(imageUrl, true); // true = tải nền
+        // 4. Hiển thị ảnh (có thể đã được tải xong từ cache)
+        if (image != null) {
             imageView.setImage(image);
 
             // Ẩn/hiện vòng xoay loading dựa trên tiến trình tải ảnh
-            image.progressProperty().addListener((obs, oldVal, newVal) -> {
+            loading.setVisible(image.getProgress() < 1.0 && !image.isError());
+            progressListener = (obs, oldVal, newVal) -> {
                 loading.setVisible(newVal.doubleValue() < 1.0);
-            });
+            };
+            image.progressProperty().addListener(new WeakChangeListener<>(progressListener));
 
             // Xử lý lỗi tải ảnh
-            image.errorProperty().addListener((obs, wasError, isError) -> {
+            errorListener = (obs, wasError, isError) -> {
                 if(isError) {
-                    System.err.println("Lỗi tải backdrop: " + imageUrl);
+                    System.err.println("Lỗi tải backdrop: " + image.getUrl());
                     loading.setVisible(false);
                 }
-            });
+            };
+            image.errorProperty().addListener(new WeakChangeListener<>(errorListener));
         } else {
-            // Không có URL, ẩn loading
+            // Không có ảnh, ẩn loading
             loading.setVisible(false);
         }
     }
@@ -20,6 +20,7 @@ import javafx.collections.ObservableList;
 import javafx.scene.control.ScrollPane;
 import javafx.scene.control.TextArea;
 import javafx.scene.control.TextField;
+import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.input.Dragboard;
 import javafx.scene.input.TransferMode;
@@ -177,6 +178,13 @@ public class ItemDetailController {
         // 4. Binding các FlowPane (UR-34, UR-41)
         bindFlowPanes();
 
+        // Yêu cầu ảnh Primary/Backdrop theo kích thước hiển thị nhân hệ số DPI của màn hình
+        OutputScaleWatcher.watch(rootPane, scale -> {
+            if (viewModel.setImageDisplaySize(primaryImageView.getFitHeight(), BackdropChip.THUMBNAIL_HEIGHT, scale)) {
+                updateImageGallery();
+            }
+        });
+
         // 5. Cài đặt các nút Rating (UR-32, UR-33)
         setupCriticRatingButtons();
 
@@ -422,10 +430,10 @@ public class ItemDetailController {
             if (viewModel == null) return;
 
             for (ImageInfo imageInfo : viewModel.getBackdropImages()) {
-                // Lấy URL ảnh đã build từ VM
-                String imageUrl = viewModel.getBackdropUrl(imageInfo);
+                // Lấy ảnh từ VM (cache ảnh dùng chung, tải nền nếu chưa có)
+                Image image = viewModel.getBackdropImage(imageInfo);
                 // Tạo BackdropChip (custom control)
-                BackdropChip chip = new BackdropChip(imageInfo, imageUrl,
+                BackdropChip chip = new BackdropChip(imageInfo, image,
                         (img) -> viewModel.deleteBackdropCommand(img) // Callback OnDelete
                 );
                 imageGalleryPane.getChildren().add(chip);
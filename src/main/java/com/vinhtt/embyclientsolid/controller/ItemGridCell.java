@@ -0,0 +1,150 @@
+package com.vinhtt.embyclientsolid.view.controls;
+
+import embyclient.model.BaseItemDto;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.ContextMenu;
+import javafx.scene.control.Label;
+import javafx.scene.control.MenuItem;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.input.Clipboard;
+import javafx.scene.input.ClipboardContent;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.StackPane;
+import javafx.scene.layout.VBox;
+import javafx.scene.text.TextAlignment;
+
+import java.util.function.Consumer;
+
+/**
+ * Custom Control (View Component) đại diện cho một ô (cell) trong lưới item (Cột 2)
+ * (UR-25, 26, 27, 28).
+ * Ô được tạo MỘT lần và tái sử dụng (gán lại item bằng {@link #bind}) khi người dùng cuộn,
+ * xem {@link VirtualItemGrid}.
+ */
+public class ItemGridCell extends StackPane {
+
+    private static final String SELECTED_STYLE_CLASS = "item-cell-selected";
+
+    private final ImageView imageView = new ImageView();
+    private final Label titleLabel = new Label();
+    private final Label ratingLabel = new Label();
+
+    // Item đang được hiển thị (thay đổi mỗi lần bind)
+    private BaseItemDto item;
+
+    /**
+     * Khởi tạo một ô (chưa gán item).
+     *
+     * @param width       Chiều rộng cố định của ô.
+     * @param height      Chiều cao cố định của ô (cũng là chiều cao ảnh).
+     * @param copyIdText  Nhãn của menu "Copy ID" (I18n).
+     * @param onSelect    Callback khi click chọn item.
+     * @param onPlay      Callback khi double-click (phát) item.
+     */
+    public ItemGridCell(double width, double height, String copyIdText,
+                        Consumer<BaseItemDto> onSelect, Consumer<BaseItemDto> onPlay) {
+        setPrefSize(width, height);
+        setMinSize(Region.USE_PREF_SIZE, Region.USE_PREF_SIZE);
+        setMaxSize(Region.USE_PREF_SIZE, Region.USE_PREF_SIZE);
+        getStyleClass().add("item-cell");
+
+        // Ảnh thumbnail (UR-25)
+        imageView.setFitWidth(width);
+        imageView.setFitHeight(height);
+        imageView.setPreserveRatio(false);
+        imageView.setSmooth(true);
+        imageView.getStyleClass().add("item-image");
+
+        // Lớp phủ (overlay) chứa tiêu đề
+        VBox overlay = new VBox();
+        overlay.setAlignment(Pos.BOTTOM_LEFT);
+        overlay.setPadding(new Insets(8));
+        overlay.getStyleClass().add("item-title-overlay");
+        titleLabel.setWrapText(true);
+        titleLabel.setTextAlignment(TextAlignment.LEFT);
+        titleLabel.getStyleClass().add("item-title-label");
+        overlay.getChildren().add(titleLabel);
+
+        // Badge Critic Rating (UR-25), ẩn nếu item không có điểm
+        ratingLabel.getStyleClass().add("parental-rating-badge");
+        StackPane.setAlignment(ratingLabel, Pos.TOP_RIGHT);
+        StackPane.setMargin(ratingLabel, new Insets(8, 8, 8, 8));
+
+        getChildren().addAll(imageView, overlay, ratingLabel);
+
+        // (UR-26: Click chọn, UR-27: Double-click phát)
+        setOnMouseClicked(event -> {
+            if (item == null) return;
+            onSelect.accept(item);
+            if (event.getClickCount() == 2) {
+                onPlay.accept(item);
+            }
+        });
+
+        // (UR-28: Copy ID)
+        ContextMenu contextMenu = new ContextMenu();
+        MenuItem copyIdItem = new MenuItem(copyIdText);
+        copyIdItem.setOnAction(e -> {
+            if (item != null && item.getId() != null) {
+                ClipboardContent content = new ClipboardContent();
+                content.putString(item.getId());
+                Clipboard.getSystemClipboard().setContent(content);
+            }
+        });
+        contextMenu.getItems().add(copyIdItem);
+        setOnContextMenuRequested(event -> {
+            contextMenu.show(this, event.getScreenX(), event.getScreenY());
+            event.consume();
+        });
+    }
+
+    /**
+     * Gán (hoặc gán lại) item cho ô này.
+     *
+     * @param item  DTO của item cần hiển thị.
+     * @param image Ảnh thumbnail (có thể đang tải nền), có thể null.
+     */
+    public void bind(BaseItemDto item, Image image) {
+        this.item = item;
+        // Lưu DTO vào cell (giống như trước đây, để các code khác có thể đọc)
+        setUserData(item);
+        titleLabel.setText(item.getName());
+        imageView.setImage(image);
+
+        Float criticRating = item.getCriticRating();
+        boolean hasRating = criticRating != null && criticRating > 0;
+        ratingLabel.setText(hasRating ? String.format("%.0f", criticRating) : "");
+        ratingLabel.setVisible(hasRating);
+    }
+
+    /**
+     * Gỡ item khỏi ô (khi ô được đưa về pool), để không giữ tham chiếu đến ảnh/DTO cũ.
+     */
+    public void unbind() {
+        this.item = null;
+        setUserData(null);
+        imageView.setImage(null);
+        setSelected(false);
+    }
+
+    /**
+     * @return Item đang hiển thị (hoặc null nếu ô đang ở trong pool).
+     */
+    public BaseItemDto getItem() {
+        return item;
+    }
+
+    /**
+     * Áp dụng/xóa style "đang được chọn" (UR-26).
+     */
+    public void setSelected(boolean selected) {
+        boolean hasStyle = getStyleClass().contains(SELECTED_STYLE_CLASS);
+        if (selected && !hasStyle) {
+            getStyleClass().add(SELECTED_STYLE_CLASS);
+        } else if (!selected && hasStyle) {
+            getStyleClass().remove(SELECTED_STYLE_CLASS);
+        }
+    }
+}
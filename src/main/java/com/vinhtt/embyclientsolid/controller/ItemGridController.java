@@ -3,42 +3,36 @@ package com.vinhtt.embyclientsolid.controller;
 import com.vinhtt.embyclientsolid.core.IConfigurationService;
 import com.vinhtt.embyclientsolid.core.INotificationService;
 import com.vinhtt.embyclientsolid.model.GridNavigationState;
+import com.vinhtt.embyclientsolid.view.controls.ItemGridCell;
+import com.vinhtt.embyclientsolid.view.controls.VirtualItemGrid;
 import com.vinhtt.embyclientsolid.viewmodel.IItemGridViewModel;
 import embyclient.model.BaseItemDto;
 import javafx.application.Platform;
 import javafx.collections.ListChangeListener;
 import javafx.fxml.FXML;
 import javafx.geometry.Insets;
-import javafx.geometry.Pos;
-import javafx.scene.Node;
-import javafx.scene.control.ContextMenu;
 import javafx.scene.control.Label;
-import javafx.scene.control.MenuItem;
 import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.ScrollPane;
 import javafx.scene.image.Image;
-import javafx.scene.image.ImageView;
-import javafx.scene.input.Clipboard;
-import javafx.scene.input.ClipboardContent;
-import javafx.scene.layout.FlowPane;
-import javafx.scene.layout.Region;
 import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
-import javafx.scene.text.TextAlignment;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
  * Controller (View) cho ItemGridView.fxml (Cột 2).
  * Lớp này chỉ chịu trách nhiệm binding UI components với ItemGridViewModel,
- * tạo các cell (ô) item, và ủy thác (delegate) các hành động (cuộn, click) cho ViewModel.
+ * hiển thị lưới item (ảo hóa, xem {@link VirtualItemGrid}), và ủy thác (delegate) các hành động (cuộn, click) cho ViewModel.
  */
 public class ItemGridController {
 
     // --- FXML UI Components ---
     @FXML private StackPane rootPane;
     @FXML private ScrollPane gridScrollPane;
-    @FXML private FlowPane itemFlowPane;
     @FXML private ProgressIndicator loadingIndicator;
     @FXML private Label statusLabel;
     @FXML private VBox statusContainer; // Container cho (Loading + Status Label)
@@ -47,6 +41,11 @@ public class ItemGridController {
     private INotificationService notificationService;
     private IConfigurationService configService;
 
+    // Lưới ảo hóa (nội dung của gridScrollPane), tạo khi có ViewModel
+    private VirtualItemGrid itemGrid;
+    // Cache ảnh placeholder (theo URL), dùng chung cho các item cùng loại
+    private final Map<String, Image> placeholderImages = new HashMap<>();
+
     // Cờ để bỏ qua sự kiện cuộn do code gây ra (ví dụ: khi chuyển trang)
     private boolean ignoreNextScrollEvent = false;
 
@@ -54,6 +53,9 @@ public class ItemGridController {
     private static final double CELL_HEIGHT = 320;
     private static final double CELL_WIDTH = CELL_HEIGHT * 16 / 9;
     private static final double IMAGE_HEIGHT = CELL_HEIGHT;
+    private static final double CELL_GAP = 20;
+    private static final Insets GRID_PADDING = new Insets(20);
+    private static final String PLACEHOLDER_BASE_URL = "https://placehold.co/";
 
     /**
      * Khởi tạo Controller.
@@ -63,11 +65,6 @@ public class ItemGridController {
 
     @FXML
     public void initialize() {
-        // Cấu hình layout cơ bản cho FlowPane
-        itemFlowPane.setPadding(new Insets(20));
-        itemFlowPane.setHgap(20);
-        itemFlowPane.setVgap(20);
-        itemFlowPane.setAlignment(Pos.CENTER);
         gridScrollPane.setFitToWidth(true);
     }
 
@@ -84,6 +81,26 @@ public class ItemGridController {
         this.notificationService = notificationService;
         this.configService = configService;
 
+        // Tạo lưới ảo hóa: chỉ tạo đủ ô cho vùng nhìn thấy, tái sử dụng khi cuộn
+        String copyIdText = configService.getString("contextMenu", "copyId");
+        itemGrid = new VirtualItemGrid(gridScrollPane, CELL_WIDTH, CELL_HEIGHT, CELL_GAP, GRID_PADDING,
+                () -> new ItemGridCell(CELL_WIDTH, IMAGE_HEIGHT, copyIdText,
+                        // (UR-26: Click chọn) Báo cho VM biết item nào được chọn
+                        item -> viewModel.selectedItemProperty().set(item),
+                        // (UR-27: Double-click) Gọi command Play trong VM
+                        item -> viewModel.playItemCommand(item)),
+                this::getItemImage,
+                // Ô bị tái sử dụng: ngừng tải ảnh của item không còn hiển thị
+                item -> viewModel.cancelImageLoad(item));
+        gridScrollPane.setContent(itemGrid);
+
+        // Yêu cầu ảnh thumbnail theo kích thước ô nhân hệ số DPI của màn hình đang hiển thị cửa sổ
+        OutputScaleWatcher.watch(gridScrollPane, scale -> {
+            if (viewModel.setThumbnailDisplaySize(CELL_WIDTH, IMAGE_HEIGHT, scale)) {
+                itemGrid.refresh();
+            }
+        });
+
         // 1. Binding UI
         // Liên kết indicator loading
         loadingIndicator.visibleProperty().bind(viewModel.loadingProperty());
@@ -99,15 +116,32 @@ public class ItemGridController {
         gridScrollPane.managedProperty().bind(gridScrollPane.visibleProperty());
 
         // 2. Lắng nghe thay đổi danh sách items từ VM
-        // Khi danh sách items trong VM thay đổi, vẽ lại toàn bộ lưới
+        // Khi danh sách items trong VM thay đổi, gán lại các ô đang hiển thị
+        // (trừ khi chỉ thay thế một vài item: khi đó chỉ gán lại các ô đó)
         viewModel.getItems().addListener((ListChangeListener<BaseItemDto>) c -> {
-            Platform.runLater(this::updateItemGrid);
+            List<Integer> replacedIndexes = new ArrayList<>();
+            boolean onlyReplaced = true;
+            while (c.next()) {
+                if (c.wasReplaced() && c.getAddedSize() == c.getRemovedSize()) {
+                    for (int i = c.getFrom(); i < c.getTo(); i++) replacedIndexes.add(i);
+                } else {
+                    onlyReplaced = false;
+                }
+            }
+            if (onlyReplaced) {
+                Platform.runLater(() -> itemGrid.refreshItems(replacedIndexes));
+            } else {
+                Platform.runLater(itemGrid::refresh);
+            }
         });
+        itemGrid.setItems(viewModel.getItems());
+        BaseItemDto initialSelection = viewModel.selectedItemProperty().get();
+        itemGrid.setSelectedItemId(initialSelection != null ? initialSelection.getId() : null);
 
         // 3. Lắng nghe thay đổi item được chọn từ VM
-        // Khi item được chọn thay đổi, cập nhật style CSS
+        // Khi item được chọn thay đổi, cập nhật style CSS (tra ô theo ID, không duyệt lưới)
         viewModel.selectedItemProperty().addListener((obs, oldItem, newItem) -> {
-            Platform.runLater(() -> updateCellSelection(oldItem, newItem));
+            Platform.runLater(() -> itemGrid.setSelectedItemId(newItem != null ? newItem.getId() : null));
         });
 
         // 4. Lắng nghe yêu cầu cuộn (Scroll Action) từ VM
@@ -185,138 +219,23 @@ public class ItemGridController {
     }
 
     /**
-     * Vẽ lại toàn bộ lưới item.
-     * Được gọi khi viewModel.getItems() thay đổi.
-     */
-    private void updateItemGrid() {
-        itemFlowPane.getChildren().clear();
-        String selectedId = (viewModel.selectedItemProperty().get() != null)
-                ? viewModel.selectedItemProperty().get().getId() : null;
-
-        // Tạo lại tất cả các cell
-        for (BaseItemDto item : viewModel.getItems()) {
-            StackPane cell = createItemCell(item);
-            // Áp dụng style "selected" nếu item này đang được chọn
-            if (selectedId != null && item.getId() != null && item.getId().equals(selectedId)) {
-                cell.getStyleClass().add("item-cell-selected");
-            }
-            itemFlowPane.getChildren().add(cell);
-        }
-    }
-
-    /**
-     * Cập nhật CSS cho cell được chọn/bỏ chọn (UR-26).
-     * Tối ưu hơn updateItemGrid(), chỉ thay đổi CSS thay vì vẽ lại.
+     * Lấy ảnh thumbnail cho một ô (UR-25).
+     * Ưu tiên ảnh từ ViewModel (có thể đã được tải trước), nếu không có thì dùng URL/placeholder.
      *
-     * @param oldItem Item cũ (cần xóa style).
-     * @param newItem Item mới (cần thêm style).
+     * @param item DTO của item.
+     * @return Ảnh (tải nền).
      */
-    private void updateCellSelection(BaseItemDto oldItem, BaseItemDto newItem) {
-        String oldId = (oldItem != null) ? oldItem.getId() : null;
-        String newId = (newItem != null) ? newItem.getId() : null;
-
-        // Duyệt qua các cell đang hiển thị
-        for (Node node : itemFlowPane.getChildren()) {
-            if (node.getUserData() instanceof BaseItemDto) {
-                String cellItemId = ((BaseItemDto) node.getUserData()).getId();
-                if (cellItemId == null) continue;
-
-                // Xóa style khỏi cell cũ
-                if (cellItemId.equals(oldId)) {
-                    node.getStyleClass().remove("item-cell-selected");
-                }
-                // Thêm style cho cell mới
-                if (cellItemId.equals(newId)) {
-                    if (!node.getStyleClass().contains("item-cell-selected")) {
-                        node.getStyleClass().add("item-cell-selected");
-                    }
-                }
-            }
+    private Image getItemImage(BaseItemDto item) {
+        Image image = (viewModel != null) ? viewModel.getPrimaryImage(item) : null;
+        if (image != null) {
+            return image;
         }
-    }
-
-    /**
-     * Tạo một ô (cell) đại diện cho item (UR-25, 26, 27, 28).
-     *
-     * @param item DTO của item cần hiển thị.
-     * @return Một StackPane chứa ảnh, tiêu đề, và badge.
-     */
-    private StackPane createItemCell(BaseItemDto item) {
-        // Container chính của cell
-        StackPane cellContainer = new StackPane();
-        cellContainer.setPrefSize(CELL_WIDTH, CELL_HEIGHT);
-        cellContainer.setMinSize(Region.USE_PREF_SIZE, Region.USE_PREF_SIZE);
-        cellContainer.setMaxSize(Region.USE_PREF_SIZE, Region.USE_PREF_SIZE);
-        cellContainer.getStyleClass().add("item-cell");
-        // Lưu DTO vào cell để dùng khi click hoặc update style
-        cellContainer.setUserData(item);
-
-        // Ảnh thumbnail
-        ImageView imageView = new ImageView();
-        imageView.setFitWidth(CELL_WIDTH);
-        imageView.setFitHeight(IMAGE_HEIGHT);
-        imageView.setPreserveRatio(false);
-        imageView.setSmooth(true);
-        imageView.getStyleClass().add("item-image");
-
-        // (UR-25: Thumbnail) Lấy URL ảnh từ ViewModel
-        String imageUrl = getImageUrl(item);
-
-        Image image = new Image(imageUrl, true); // true = tải nền
-        imageView.setImage(image);
-
-        // Lớp phủ (overlay) chứa tiêu đề
-        VBox overlay = new VBox();
-        overlay.setAlignment(Pos.BOTTOM_LEFT);
-        overlay.setPadding(new Insets(8));
-        overlay.getStyleClass().add("item-title-overlay");
-        Label titleLabel = new Label(item.getName());
-        titleLabel.setWrapText(true);
-        titleLabel.setTextAlignment(TextAlignment.LEFT);
-        titleLabel.getStyleClass().add("item-title-label");
-        overlay.getChildren().add(titleLabel);
-
-        cellContainer.getChildren().addAll(imageView, overlay);
-
-        // (UR-25: Badge) Hiển thị Critic Rating
-        Float criticRating = item.getCriticRating();
-        if (criticRating != null && criticRating > 0) {
-            Label ratingLabel = new Label(String.format("%.0f", criticRating));
-            ratingLabel.getStyleClass().add("parental-rating-badge"); // Style CSS
-            StackPane.setAlignment(ratingLabel, Pos.TOP_RIGHT);
-            StackPane.setMargin(ratingLabel, new Insets(8, 8, 8, 8));
-            cellContainer.getChildren().add(ratingLabel);
+        String url = getImageUrl(item);
+        if (url.startsWith(PLACEHOLDER_BASE_URL)) {
+            // Placeholder chỉ phụ thuộc vào loại item: tải một lần, dùng lại
+            return placeholderImages.computeIfAbsent(url, u -> new Image(u, true));
         }
-
-        // (UR-26: Click chọn)
-        cellContainer.setOnMouseClicked(event -> {
-            // Báo cho VM biết item nào được chọn
-            viewModel.selectedItemProperty().set(item);
-            // (UR-27: Double-click)
-            if (event.getClickCount() == 2) {
-                // Gọi command Play trong VM
-                viewModel.playItemCommand(item);
-            }
-        });
-
-        // (UR-28: Copy ID)
-        final ContextMenu contextMenu = new ContextMenu();
-        final MenuItem copyIdItem = new MenuItem(configService.getString("contextMenu", "copyId"));
-        copyIdItem.setOnAction(e -> {
-            if (item.getId() != null) {
-                final Clipboard clipboard = Clipboard.getSystemClipboard();
-                final ClipboardContent content = new ClipboardContent();
-                content.putString(item.getId());
-                clipboard.setContent(content);
-            }
-        });
-        contextMenu.getItems().add(copyIdItem);
-        cellContainer.setOnContextMenuRequested(event -> {
-            contextMenu.show(cellContainer, event.getScreenX(), event.getScreenY());
-            event.consume();
-        });
-
-        return cellContainer;
+        return new Image(url, true); // true = tải nền
     }
 
     /**
@@ -335,7 +254,7 @@ public class ItemGridController {
         }
         // Fallback (ảnh placeholder)
         String placeholderText = (item.getType() != null ? item.getType() : configService.getString("itemGridView", "placeholderItem"));
-        return "https://placehold.co/" + (int)CELL_WIDTH + "x" + (int)IMAGE_HEIGHT + "/333/999?text=" + placeholderText;
+        return PLACEHOLDER_BASE_URL + (int)CELL_WIDTH + "x" + (int)IMAGE_HEIGHT + "/333/999?text=" + placeholderText;
     }
 
     /**
@@ -18,6 +18,7 @@ import javafx.beans.binding.BooleanBinding;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
+import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Node;
@@ -27,6 +28,7 @@ import javafx.scene.control.Label;
 import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.SplitPane;
 import javafx.scene.control.TextField;
+import javafx.scene.control.Tooltip;
 import javafx.scene.control.ToggleButton;
 import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyEvent;
@@ -51,6 +53,7 @@ public class MainController {
     @FXML private Button homeButton;
     @FXML private Button logoutButton;
     @FXML private Label statusLabel;
+    @FXML private Label backgroundTaskLabel;
     @FXML private ProgressIndicator statusProgressIndicator;
     @FXML private SplitPane mainSplitPane;
     @FXML private AnchorPane leftPaneContainer;
@@ -220,6 +223,16 @@ public class MainController {
         viewModel.loadingProperty().bind(combinedLoading);
         statusProgressIndicator.visibleProperty().bind(viewModel.loadingProperty());
 
+        // Số tác vụ nền đang chờ/chạy (chỉ hiện khi > 0), tooltip hiển thị thống kê theo loại
+        backgroundTaskLabel.textProperty().bind(Bindings.createStringBinding(
+                () -> configService.getString("mainView", "statusBackgroundTasks", viewModel.backgroundTaskCountProperty().get()),
+                viewModel.backgroundTaskCountProperty()));
+        backgroundTaskLabel.visibleProperty().bind(viewModel.backgroundTaskCountProperty().greaterThan(0));
+        backgroundTaskLabel.managedProperty().bind(backgroundTaskLabel.visibleProperty());
+        Tooltip backgroundTaskTooltip = new Tooltip();
+        backgroundTaskTooltip.setOnShowing(e -> backgroundTaskTooltip.setText(viewModel.getBackgroundTaskStats()));
+        backgroundTaskLabel.setTooltip(backgroundTaskTooltip);
+
         // Liên kết các nút Toolbar
         homeButton.setOnAction(e -> handleHomeButtonAction());
         logoutButton.setOnAction(e -> viewModel.logoutCommand());
@@ -268,6 +281,10 @@ public class MainController {
                     // Chỉ gọi hàm "Tải"
                     itemDetailViewModel.loadItem(newVal);
                 }
+
+                // 2. Tải trước chi tiết các item lân cận (duyệt bằng phím)
+                ObservableList<BaseItemDto> gridItems = itemGridViewModel.getItems();
+                itemDetailViewModel.prefetchNeighbors(gridItems, (newVal != null) ? gridItems.indexOf(newVal) : -1);
             }
         });
 
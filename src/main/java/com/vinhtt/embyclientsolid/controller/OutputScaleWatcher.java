@@ -0,0 +1,61 @@
+package com.vinhtt.embyclientsolid.controller;
+
+import javafx.beans.value.ChangeListener;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.stage.Window;
+
+import java.util.function.DoubleConsumer;
+
+/**
+ * Helper (cho các Controller) theo dõi hệ số DPI (output scale) của cửa sổ chứa một node.
+ * Hệ số thay đổi khi node được gắn vào cửa sổ, hoặc khi cửa sổ được kéo sang màn hình có DPI khác.
+ * Dùng để yêu cầu ảnh đúng kích thước pixel thật trên màn hình.
+ */
+final class OutputScaleWatcher {
+
+    private OutputScaleWatcher() {
+    }
+
+    /**
+     * Gọi {@code onScaleChanged} với hệ số DPI hiện tại (nếu node đã nằm trong cửa sổ)
+     * và mỗi khi hệ số thay đổi.
+     *
+     * @param node           Node cần theo dõi.
+     * @param onScaleChanged Callback nhận hệ số DPI mới (lớn nhất của hai chiều X/Y).
+     */
+    static void watch(Node node, DoubleConsumer onScaleChanged) {
+        ChangeListener<Number> scaleListener = (obs, oldScale, newScale) -> {
+            Window window = (node.getScene() != null) ? node.getScene().getWindow() : null;
+            if (window != null) onScaleChanged.accept(scaleOf(window));
+        };
+        ChangeListener<Window> windowListener = (obs, oldWindow, newWindow) -> {
+            if (oldWindow != null) {
+                oldWindow.outputScaleXProperty().removeListener(scaleListener);
+                oldWindow.outputScaleYProperty().removeListener(scaleListener);
+            }
+            if (newWindow != null) {
+                newWindow.outputScaleXProperty().addListener(scaleListener);
+                newWindow.outputScaleYProperty().addListener(scaleListener);
+                onScaleChanged.accept(scaleOf(newWindow));
+            }
+        };
+        ChangeListener<Scene> sceneListener = (obs, oldScene, newScene) -> {
+            if (oldScene != null) {
+                oldScene.windowProperty().removeListener(windowListener);
+                windowListener.changed(null, oldScene.getWindow(), null);
+            }
+            if (newScene != null) {
+                newScene.windowProperty().addListener(windowListener);
+                windowListener.changed(null, null, newScene.getWindow());
+            }
+        };
+
+        node.sceneProperty().addListener(sceneListener);
+        sceneListener.changed(null, null, node.getScene());
+    }
+
+    private static double scaleOf(Window window) {
+        return Math.max(window.getOutputScaleX(), window.getOutputScaleY());
+    }
+}
@@ -0,0 +1,278 @@
+package com.vinhtt.embyclientsolid.view.controls;
+
+import embyclient.model.BaseItemDto;
+import javafx.geometry.Bounds;
+import javafx.geometry.Insets;
+import javafx.scene.control.ScrollPane;
+import javafx.scene.image.Image;
+import javafx.scene.layout.Pane;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Custom Control (View Component) hiển thị lưới item (Cột 2) theo kiểu "ảo hóa" (virtualized).
+ *
+ * Thay vì tạo một {@link ItemGridCell} cho MỖI item (như FlowPane trước đây),
+ * control chỉ tạo đủ số ô cho vùng đang nhìn thấy (viewport) cộng thêm một vài hàng đệm,
+ * và tái sử dụng (gán lại item cho) các ô đó khi người dùng cuộn.
+ * Chiều cao của control vẫn bằng chiều cao của toàn bộ lưới, nên thanh cuộn
+ * của {@link ScrollPane} (và các ngưỡng chuyển trang) hoạt động như cũ.
+ *
+ * Bố cục giống FlowPane (Pos.CENTER): các ô có kích thước cố định, mỗi hàng được căn giữa.
+ * Việc cập nhật style "được chọn" dùng bảng tra ID -> ô, không duyệt toàn bộ các ô.
+ * Khi một ô được tái sử dụng cho item khác, item cũ được báo qua {@code onItemRecycled}
+ * (để ngừng tải ảnh không còn hiển thị).
+ */
+public class VirtualItemGrid extends Pane {
+
+    // Số hàng đệm (trên và dưới viewport) được giữ sẵn để cuộn mượt
+    private static final int BUFFER_ROWS = 1;
+
+    private final ScrollPane scrollPane;
+    private final double cellWidth;
+    private final double cellHeight;
+    private final double gap;
+    private final Insets contentPadding;
+    private final Supplier<ItemGridCell> cellFactory;
+    private final Function<BaseItemDto, Image> imageProvider;
+    private final Consumer<BaseItemDto> onItemRecycled;
+
+    private List<BaseItemDto> items = Collections.emptyList();
+    private String selectedItemId;
+
+    // Vị trí item -> ô đang hiển thị item đó
+    private final Map<Integer, ItemGridCell> activeCells = new HashMap<>();
+    // ID item -> ô đang hiển thị item đó (để cập nhật style "được chọn")
+    private final Map<String, ItemGridCell> activeCellsById = new HashMap<>();
+    // Các ô đã tạo nhưng chưa được dùng (ẩn, chờ tái sử dụng)
+    private final Deque<ItemGridCell> cellPool = new ArrayDeque<>();
+
+    /**
+     * Khởi tạo lưới.
+     *
+     * @param scrollPane     ScrollPane chứa lưới (dùng để biết vùng đang nhìn thấy).
+     * @param cellWidth      Chiều rộng cố định của một ô.
+     * @param cellHeight     Chiều cao cố định của một ô.
+     * @param gap            Khoảng cách giữa các ô (ngang và dọc).
+     * @param contentPadding Lề xung quanh lưới.
+     * @param cellFactory    Hàm tạo một ô mới (chỉ được gọi khi pool rỗng).
+     * @param imageProvider  Hàm lấy ảnh thumbnail cho một item.
+     * @param onItemRecycled Callback khi một item không còn được ô nào hiển thị.
+     */
+    public VirtualItemGrid(ScrollPane scrollPane, double cellWidth, double cellHeight, double gap, Insets contentPadding,
+                           Supplier<ItemGridCell> cellFactory, Function<BaseItemDto, Image> imageProvider,
+                           Consumer<BaseItemDto> onItemRecycled) {
+        this.scrollPane = scrollPane;
+        this.cellWidth = cellWidth;
+        this.cellHeight = cellHeight;
+        this.gap = gap;
+        this.contentPadding = contentPadding;
+        this.cellFactory = cellFactory;
+        this.imageProvider = imageProvider;
+        this.onItemRecycled = onItemRecycled;
+
+        // Kích thước viewport thay đổi (resize cửa sổ) -> số cột/hàng hiển thị thay đổi
+        scrollPane.viewportBoundsProperty().addListener((obs, oldBounds, newBounds) -> updateVisibleCells(false));
+        // Cuộn -> gán lại các ô cho các item mới lọt vào viewport
+        scrollPane.vvalueProperty().addListener((obs, oldVal, newVal) -> updateVisibleCells(false));
+    }
+
+    /**
+     * Đặt danh sách item (thường là danh sách của ViewModel) và vẽ lại toàn bộ.
+     *
+     * @param items Danh sách item (control chỉ đọc, không giữ bản sao).
+     */
+    public void setItems(List<BaseItemDto> items) {
+        this.items = (items != null) ? items : Collections.emptyList();
+        refresh();
+    }
+
+    /**
+     * Gán lại TẤT CẢ các ô đang hiển thị (khi danh sách item thay đổi nhiều).
+     * Các ô được tái sử dụng, không tạo mới.
+     */
+    public void refresh() {
+        updateVisibleCells(true);
+    }
+
+    /**
+     * Chỉ gán lại các ô ở các vị trí đã cho (khi ViewModel chỉ thay thế vài item).
+     * Các vị trí đang không hiển thị được bỏ qua (sẽ được gán khi cuộn tới).
+     *
+     * @param indexes Vị trí các item đã bị thay thế.
+     */
+    public void refreshItems(Collection<Integer> indexes) {
+        for (int index : indexes) {
+            ItemGridCell cell = activeCells.get(index);
+            if (cell != null && index < items.size()) {
+                BaseItemDto oldItem = cell.getItem();
+                unmapId(cell);
+                bindCell(cell, items.get(index));
+                notifyIfRecycled(oldItem);
+            }
+        }
+    }
+
+    /**
+     * Cập nhật style "được chọn" (UR-26): chỉ chạm vào ô cũ và ô mới.
+     *
+     * @param itemId ID của item được chọn (hoặc null).
+     */
+    public void setSelectedItemId(String itemId) {
+        if (selectedItemId != null) {
+            ItemGridCell oldCell = activeCellsById.get(selectedItemId);
+            if (oldCell != null) oldCell.setSelected(false);
+        }
+        selectedItemId = itemId;
+        if (itemId != null) {
+            ItemGridCell newCell = activeCellsById.get(itemId);
+            if (newCell != null) newCell.setSelected(true);
+        }
+    }
+
+    /**
+     * Tính lại vùng đang nhìn thấy, trả các ô ra ngoài vùng về pool
+     * và gán item cho các ô mới lọt vào vùng.
+     *
+     * @param rebindAll true để gán lại cả các ô vẫn còn trong vùng (danh sách item đã thay đổi).
+     */
+    private void updateVisibleCells(boolean rebindAll) {
+        Bounds viewport = scrollPane.getViewportBounds();
+        double viewportWidth = viewport.getWidth();
+        double viewportHeight = viewport.getHeight();
+
+        int itemCount = items.size();
+        int columns = columnsFor(viewportWidth);
+        int rows = (itemCount + columns - 1) / columns;
+        double contentHeight = (rows == 0) ? 0
+                : contentPadding.getTop() + contentPadding.getBottom() + rows * cellHeight + (rows - 1) * gap;
+        setPrefHeight(contentHeight);
+        setMinHeight(contentHeight);
+
+        // Vùng (theo hàng) đang nhìn thấy, cộng thêm hàng đệm
+        int fromIndex = 0;
+        int toIndex = 0;
+        if (rows > 0 && viewportHeight > 0) {
+            double scrollTop = scrollPane.getVvalue() * Math.max(0, contentHeight - viewportHeight);
+            double rowStride = cellHeight + gap;
+            int firstRow = Math.max(0, (int) Math.floor((scrollTop - contentPadding.getTop()) / rowStride) - BUFFER_ROWS);
+            int lastRow = Math.min(rows - 1,
+                    (int) Math.floor((scrollTop + viewportHeight - contentPadding.getTop()) / rowStride) + BUFFER_ROWS);
+            fromIndex = firstRow * columns;
+            toIndex = Math.min(itemCount, (lastRow + 1) * columns);
+        }
+
+        // 1. Trả các ô không còn cần về pool
+        List<BaseItemDto> releasedItems = new ArrayList<>();
+        Iterator<Map.Entry<Integer, ItemGridCell>> iterator = activeCells.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Integer, ItemGridCell> entry = iterator.next();
+            int index = entry.getKey();
+            if (rebindAll || index < fromIndex || index >= toIndex) {
+                BaseItemDto releasedItem = releaseCell(entry.getValue());
+                if (releasedItem != null) releasedItems.add(releasedItem);
+                iterator.remove();
+            }
+        }
+
+        // 2. Gán item cho các vị trí mới và đặt vị trí cho mọi ô đang hiển thị
+        for (int index = fromIndex; index < toIndex; index++) {
+            ItemGridCell cell = activeCells.get(index);
+            if (cell == null) {
+                cell = acquireCell();
+                bindCell(cell, items.get(index));
+                activeCells.put(index, cell);
+            }
+            positionCell(cell, index, columns, itemCount, viewportWidth);
+        }
+
+        // 3. Báo các item không còn hiển thị (sau khi gán lại, vì item có thể vẫn nằm trong vùng)
+        for (BaseItemDto releasedItem : releasedItems) {
+            notifyIfRecycled(releasedItem);
+        }
+    }
+
+    /**
+     * Số cột vừa với chiều rộng đã cho (tối thiểu 1).
+     */
+    private int columnsFor(double width) {
+        double innerWidth = width - contentPadding.getLeft() - contentPadding.getRight();
+        return Math.max(1, (int) Math.floor((innerWidth + gap) / (cellWidth + gap)));
+    }
+
+    /**
+     * Đặt vị trí của ô theo chỉ số item (mỗi hàng được căn giữa như FlowPane Pos.CENTER).
+     */
+    private void positionCell(ItemGridCell cell, int index, int columns, int itemCount, double width) {
+        int row = index / columns;
+        int column = index % columns;
+        int itemsInRow = Math.min(columns, itemCount - row * columns);
+        double rowWidth = itemsInRow * cellWidth + (itemsInRow - 1) * gap;
+        double innerWidth = width - contentPadding.getLeft() - contentPadding.getRight();
+        double rowStart = contentPadding.getLeft() + Math.max(0, (innerWidth - rowWidth) / 2);
+        cell.relocate(rowStart + column * (cellWidth + gap), contentPadding.getTop() + row * (cellHeight + gap));
+    }
+
+    private void bindCell(ItemGridCell cell, BaseItemDto item) {
+        cell.bind(item, imageProvider.apply(item));
+        String itemId = item.getId();
+        cell.setSelected(itemId != null && itemId.equals(selectedItemId));
+        if (itemId != null) {
+            activeCellsById.put(itemId, cell);
+        }
+    }
+
+    private ItemGridCell acquireCell() {
+        ItemGridCell cell = cellPool.poll();
+        if (cell == null) {
+            cell = cellFactory.get();
+            getChildren().add(cell);
+        }
+        cell.setVisible(true);
+        return cell;
+    }
+
+    /**
+     * Trả ô về pool.
+     *
+     * @return Item mà ô vừa hiển thị (hoặc null).
+     */
+    private BaseItemDto releaseCell(ItemGridCell cell) {
+        BaseItemDto item = cell.getItem();
+        unmapId(cell);
+        cell.unbind();
+        cell.setVisible(false);
+        cellPool.push(cell);
+        return item;
+    }
+
+    /**
+     * Báo item cũ cho {@code onItemRecycled} nếu không còn ô nào hiển thị nó.
+     */
+    private void notifyIfRecycled(BaseItemDto item) {
+        if (item == null) return;
+        if (item.getId() != null && activeCellsById.containsKey(item.getId())) return;
+        onItemRecycled.accept(item);
+    }
+
+    /**
+     * Xóa ánh xạ ID -> ô (chỉ khi ánh xạ vẫn trỏ đến đúng ô này).
+     */
+    private void unmapId(ItemGridCell cell) {
+        BaseItemDto item = cell.getItem();
+        if (item != null && item.getId() != null) {
+            activeCellsById.remove(item.getId(), cell);
+        }
+    }
+}
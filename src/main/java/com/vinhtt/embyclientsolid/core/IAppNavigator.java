@@ -48,6 +48,11 @@ public interface IAppNavigator {
      */
     void closePopOutDetail();
 
+    /**
+     * Ghi thống kê của các ViewModel màn hình chính (cache trang, tải trước item lân cận) ra System.err.
+     */
+    void logStats();
+
     /**
      * Hiển thị cửa sổ chi tiết (Cột 3) dưới dạng "pop-out" (cửa sổ riêng).
      *
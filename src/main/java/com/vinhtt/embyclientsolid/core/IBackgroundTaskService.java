@@ -0,0 +1,83 @@
+package com.vinhtt.embyclientsolid.core;
+
+import javafx.beans.property.ReadOnlyIntegerProperty;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Interface trừu tượng hóa việc chạy các tác vụ nền (gọi API, đọc/ghi file) của các ViewModel.
+ * Thay cho việc mỗi hành động tự tạo một {@code new Thread(...)}: tác vụ được đặt tên,
+ * bị giới hạn số lượng chạy đồng thời theo từng loại ({@link Category}),
+ * có thể hủy (qua {@link Future}) và có thể quan sát số tác vụ đang chạy.
+ */
+public interface IBackgroundTaskService {
+
+    /**
+     * Loại tác vụ. Mỗi loại có giới hạn số tác vụ chạy đồng thời riêng,
+     * nên tác vụ tải trước (prefetch) hay tác vụ hàng loạt không làm chậm thao tác của người dùng.
+     */
+    enum Category {
+        /** Tác vụ người dùng đang chờ (tải trang, tải chi tiết, lưu...). */
+        INTERACTIVE,
+        /** Tác vụ tải trước / kiểm tra lại ở nền (người dùng không chờ). */
+        PREFETCH,
+        /** Tác vụ hàng loạt, chạy lâu (clone thuộc tính, quét nhiều item...). */
+        BULK
+    }
+
+    /**
+     * Chạy một tác vụ ở nền. Tác vụ tự cập nhật UI (qua {@code Platform.runLater}) nếu cần.
+     *
+     * @param category Loại tác vụ.
+     * @param name     Tên tác vụ (dùng để đặt tên luồng, cho việc debug).
+     * @param task     Tác vụ cần chạy.
+     * @return Future để hủy tác vụ ({@code cancel(true)} sẽ ngắt (interrupt) tác vụ đang chạy).
+     */
+    Future<?> submit(Category category, String name, Runnable task);
+
+    /**
+     * Chạy một tác vụ ở nền và trả kết quả (hoặc lỗi) về luồng FX.
+     * Nếu tác vụ bị hủy, không callback nào được gọi.
+     *
+     * @param category  Loại tác vụ.
+     * @param name      Tên tác vụ (dùng để đặt tên luồng, cho việc debug).
+     * @param task      Tác vụ cần chạy (ví dụ: gọi Repository).
+     * @param onSuccess Callback (trên luồng FX) nhận kết quả, hoặc null.
+     * @param onError   Callback (trên luồng FX) nhận lỗi, hoặc null (lỗi chỉ được ghi log).
+     * @param <T>       Kiểu kết quả.
+     * @return Future để hủy tác vụ.
+     */
+    <T> Future<T> submit(Category category, String name, Callable<T> task,
+                         Consumer<T> onSuccess, Consumer<Exception> onError);
+
+    /**
+     * Chạy một tác vụ con của tác vụ đang chạy (ví dụ: các luồng của pipeline clone).
+     * Tác vụ con được tính vào số tác vụ đang chạy và thống kê của loại, nhưng không chờ chỗ
+     * trong giới hạn của loại: tác vụ cha (cùng loại) đã giữ chỗ, và các tác vụ con của một pipeline
+     * chờ lẫn nhau (qua hàng đợi) nên sẽ bị treo nếu chỉ một phần trong số chúng được chạy.
+     * Chỉ được gọi từ bên trong một tác vụ đang chạy.
+     *
+     * @param category Loại tác vụ (của tác vụ cha).
+     * @param name     Tên tác vụ (dùng để đặt tên luồng, cho việc debug).
+     * @param task     Tác vụ cần chạy.
+     * @param <T>      Kiểu kết quả.
+     * @return Future để chờ kết quả ({@code get()}) hoặc hủy tác vụ.
+     */
+    <T> Future<T> submitSubtask(Category category, String name, Callable<T> task);
+
+    /**
+     * Số tác vụ đang chờ hoặc đang chạy (mọi loại), được cập nhật trên luồng FX.
+     *
+     * @return Property (chỉ đọc).
+     */
+    ReadOnlyIntegerProperty inFlightCountProperty();
+
+    /**
+     * Thống kê (số tác vụ đang chạy, đã xong, lỗi, bị hủy theo từng loại).
+     *
+     * @return Chuỗi mô tả thống kê.
+     */
+    String getStats();
+}
@@ -1,6 +1,7 @@
 package com.vinhtt.embyclientsolid.core;
 
 import com.squareup.okhttp.Interceptor;
+import com.squareup.okhttp.OkHttpClient;
 import embyclient.ApiClient;
 import embyclient.ApiException;
 import javafx.beans.property.ReadOnlyBooleanProperty;
@@ -53,6 +54,15 @@ public interface IEmbySessionService {
      */
     Interceptor getAuthHeaderInterceptor();
 
+    /**
+     * Lấy OkHttpClient dùng chung cho các request tùy chỉnh (ví dụ: upload ảnh).
+     * Client này đã có Interceptor xác thực và dùng chung connection pool
+     * (kết nối keep-alive) với ApiClient, nên KHÔNG được tạo client mới cho mỗi request.
+     *
+     * @return OkHttpClient dùng chung.
+     */
+    OkHttpClient getUploadHttpClient();
+
     /**
      * Lấy thuộc tính (Property) JavaFX cho biết trạng thái đăng nhập.
      * Dùng để binding (liên kết) trong UI.
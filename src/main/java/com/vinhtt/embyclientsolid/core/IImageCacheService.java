@@ -0,0 +1,52 @@
+package com.vinhtt.embyclientsolid.core;
+
+import com.vinhtt.embyclientsolid.model.ImageRequest;
+import javafx.scene.image.Image;
+
+/**
+ * Interface trừu tượng hóa bộ nhớ đệm (cache) ảnh của item trên Emby
+ * (thumbnail Cột 2, ảnh Primary và Backdrop của Cột 3).
+ * Ảnh đã giải mã được giữ lại trong giới hạn bộ nhớ, nên việc quay lại trang cũ,
+ * đổi sắp xếp hoặc chọn lại item không phải tải và giải mã lại ảnh.
+ */
+public interface IImageCacheService {
+
+    /**
+     * Lấy ảnh từ cache, hoặc bắt đầu tải (nền) nếu chưa có.
+     *
+     * @param request Ảnh cần lấy.
+     * @return Image (có thể đang tải), hoặc null nếu request là null.
+     */
+    Image getImage(ImageRequest request);
+
+    /**
+     * Xây dựng URL đầy đủ của ảnh trên server.
+     *
+     * @param request Ảnh cần lấy.
+     * @return Chuỗi URL.
+     */
+    String getImageUrl(ImageRequest request);
+
+    /**
+     * Hủy việc tải ảnh (nếu ảnh còn đang tải) và bỏ nó khỏi cache,
+     * để các lượt tải không còn cần (ô đã bị tái sử dụng, trang đã rời đi)
+     * không chiếm băng thông. Ảnh đã tải xong được giữ nguyên.
+     *
+     * @param request Ảnh cần hủy.
+     */
+    void cancelLoad(ImageRequest request);
+
+    /**
+     * Bỏ mọi ảnh của một item khỏi cache (sau khi upload/xóa ảnh).
+     *
+     * @param itemId ID của item.
+     */
+    void invalidateItem(String itemId);
+
+    /**
+     * Thống kê cache (số ảnh, bộ nhớ, hit/miss, tỉ lệ hit, số ảnh bị loại/hủy).
+     *
+     * @return Chuỗi mô tả thống kê.
+     */
+    String getStats();
+}
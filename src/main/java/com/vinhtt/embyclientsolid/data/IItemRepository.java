@@ -6,6 +6,7 @@ import embyclient.model.BaseItemDto;
 import embyclient.model.ImageInfo;
 import embyclient.model.QueryResultBaseItemDto;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -86,6 +87,34 @@ public interface IItemRepository {
      */
     BaseItemDto getFullItemDetails(String itemId) throws ApiException;
 
+    /**
+     * Lấy chi tiết đầy đủ của một item TỪ SERVER (bỏ qua mọi bản cache).
+     * Dùng làm nền cho các lệnh GHI (DTO được gửi lại nguyên vẹn, nên không được cũ)
+     * và để làm mới dữ liệu đang hiển thị. Repository có cache sẽ cập nhật cache bằng bản mới.
+     * Mặc định gọi {@link #getFullItemDetails(String)} (dành cho các Repository không có cache).
+     *
+     * @param itemId ID của item.
+     * @return BaseItemDto mới nhất từ server.
+     * @throws ApiException Nếu API call thất bại.
+     */
+    default BaseItemDto getFreshItemDetails(String itemId) throws ApiException {
+        return getFullItemDetails(itemId);
+    }
+
+    /**
+     * Lấy thông tin chi tiết đầy đủ của NHIỀU item cùng lúc (theo lô).
+     * Dùng cho các thao tác hàng loạt (clone, sao chép theo ID...) thay vì gọi
+     * {@link #getFullItemDetails(String)} cho từng item.
+     * Chỉ để ĐỌC: DTO trả về có thể chỉ chứa Tags, Studios, People, Genres (và Etag), không được gửi lại
+     * qua API update (dùng {@link #getFreshItemDetails(String)} làm nền để ghi).
+     *
+     * @param itemIds Danh sách ID của các item (ID trùng lặp sẽ bị bỏ qua).
+     * @return Danh sách BaseItemDto theo đúng thứ tự của itemIds.
+     *         Item không tồn tại (hoặc user không có quyền) sẽ không có trong kết quả.
+     * @throws ApiException Nếu API call thất bại.
+     */
+    List<BaseItemDto> getFullItemDetails(Collection<String> itemIds) throws ApiException;
+
     /**
      * Lấy danh sách thông tin (ImageInfo) về các ảnh (Backdrop, Primary, v.v.)
      * của một item.
@@ -95,4 +124,37 @@ public interface IItemRepository {
      * @throws ApiException Nếu API call thất bại.
      */
     List<ImageInfo> getItemImages(String itemId) throws ApiException;
+
+    /**
+     * Báo cho Repository biết dữ liệu của một item vừa bị thay đổi (ví dụ: sau khi GHI),
+     * để loại bỏ mọi bản cache cũ của item đó.
+     * Mặc định không làm gì (dành cho các Repository không có cache).
+     *
+     * @param itemId ID của item vừa thay đổi.
+     */
+    default void invalidateItem(String itemId) {
+    }
+
+    /**
+     * Lấy chi tiết đầy đủ của item NẾU đã có sẵn trong cache bộ nhớ
+     * (không gọi API, không đọc ổ đĩa), để hiển thị ngay khi người dùng chọn item.
+     * Mặc định trả về null (dành cho các Repository không có cache).
+     *
+     * @param itemId ID của item.
+     * @return Bản sao DTO, hoặc null nếu chưa có trong cache.
+     */
+    default BaseItemDto getCachedItemDetails(String itemId) {
+        return null;
+    }
+
+    /**
+     * Lấy danh sách ảnh của item NẾU đã có sẵn trong cache bộ nhớ (không gọi API).
+     * Mặc định trả về null (dành cho các Repository không có cache).
+     *
+     * @param itemId ID của item.
+     * @return Danh sách ImageInfo, hoặc null nếu chưa có trong cache.
+     */
+    default List<ImageInfo> getCachedItemImages(String itemId) {
+        return null;
+    }
 }
\ No newline at end of file
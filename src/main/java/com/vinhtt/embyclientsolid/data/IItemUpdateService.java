@@ -1,11 +1,15 @@
 package com.vinhtt.embyclientsolid.data;
 
+import com.vinhtt.embyclientsolid.model.CloneProgress;
 import com.vinhtt.embyclientsolid.model.Tag;
 import embyclient.ApiException;
 import embyclient.model.BaseItemDto;
 import embyclient.model.ImageType;
 import java.io.File;
 import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
 
 /**
  * Interface trừu tượng hóa các hành động GHI (Command) dữ liệu liên quan đến Item.
@@ -31,7 +35,22 @@ public interface IItemUpdateService {
      * @param imageFile File ảnh trên máy.
      * @throws Exception Nếu upload thất bại (ví dụ: lỗi IO, lỗi API).
      */
-    void uploadImage(String itemId, ImageType imageType, File imageFile) throws Exception;
+    default void uploadImage(String itemId, ImageType imageType, File imageFile) throws Exception {
+        uploadImage(itemId, imageType, imageFile, null);
+    }
+
+    /**
+     * Tải (upload) một file ảnh lên server, có báo cáo tiến trình.
+     * File được đọc và mã hóa theo từng phần (streaming), không nạp toàn bộ vào bộ nhớ.
+     *
+     * @param itemId ID của item.
+     * @param imageType Loại ảnh (Primary, Backdrop, v.v.).
+     * @param imageFile File ảnh trên máy.
+     * @param progressCallback Callback (số byte đã gửi, tổng số byte), có thể null.
+     *                         Được gọi trên luồng nền đang upload.
+     * @throws Exception Nếu upload thất bại (ví dụ: lỗi IO, lỗi API).
+     */
+    void uploadImage(String itemId, ImageType imageType, File imageFile, BiConsumer<Long, Long> progressCallback) throws Exception;
 
     /**
      * Xóa một ảnh (dựa trên loại và chỉ số index) khỏi một item.
@@ -49,10 +68,14 @@ public interface IItemUpdateService {
      *
      * @param sourceItemId ID của item nguồn (để lấy tags).
      * @param targetParentId ID của item cha (để tìm các item đích).
-     * @return Số lượng item con đã được cập nhật.
-     * @throws ApiException Nếu API call thất bại.
+     * @param progressCallback Callback tiến trình (gọi từ luồng nền), có thể null.
+     * @param cancelled Trả về true khi người dùng yêu cầu hủy, có thể null.
+     * @return Kết quả: số item con đã cập nhật, không thay đổi (bỏ qua, không ghi) và bị lỗi
+     *         (tính đến lúc hoàn tất hoặc bị hủy).
+     * @throws ApiException Nếu không thể đọc item nguồn hoặc danh sách item con.
      */
-    int cloneTags(String sourceItemId, String targetParentId) throws ApiException;
+    CloneProgress cloneTags(String sourceItemId, String targetParentId,
+            Consumer<CloneProgress> progressCallback, BooleanSupplier cancelled) throws ApiException;
 
     /**
      * Nhân bản (sao chép và merge) thuộc tính Studios từ item nguồn
@@ -60,10 +83,14 @@ public interface IItemUpdateService {
      *
      * @param sourceItemId ID của item nguồn.
      * @param targetParentId ID của item cha.
-     * @return Số lượng item con đã được cập nhật.
-     * @throws ApiException Nếu API call thất bại.
+     * @param progressCallback Callback tiến trình (gọi từ luồng nền), có thể null.
+     * @param cancelled Trả về true khi người dùng yêu cầu hủy, có thể null.
+     * @return Kết quả: số item con đã cập nhật, không thay đổi (bỏ qua, không ghi) và bị lỗi
+     *         (tính đến lúc hoàn tất hoặc bị hủy).
+     * @throws ApiException Nếu không thể đọc item nguồn hoặc danh sách item con.
      */
-    int cloneStudios(String sourceItemId, String targetParentId) throws ApiException;
+    CloneProgress cloneStudios(String sourceItemId, String targetParentId,
+            Consumer<CloneProgress> progressCallback, BooleanSupplier cancelled) throws ApiException;
 
     /**
      * Nhân bản (sao chép và merge) thuộc tính People từ item nguồn
@@ -71,10 +98,14 @@ public interface IItemUpdateService {
      *
      * @param sourceItemId ID của item nguồn.
      * @param targetParentId ID của item cha.
-     * @return Số lượng item con đã được cập nhật.
-     * @throws ApiException Nếu API call thất bại.
+     * @param progressCallback Callback tiến trình (gọi từ luồng nền), có thể null.
+     * @param cancelled Trả về true khi người dùng yêu cầu hủy, có thể null.
+     * @return Kết quả: số item con đã cập nhật, không thay đổi (bỏ qua, không ghi) và bị lỗi
+     *         (tính đến lúc hoàn tất hoặc bị hủy).
+     * @throws ApiException Nếu không thể đọc item nguồn hoặc danh sách item con.
      */
-    int clonePeople(String sourceItemId, String targetParentId) throws ApiException;
+    CloneProgress clonePeople(String sourceItemId, String targetParentId,
+            Consumer<CloneProgress> progressCallback, BooleanSupplier cancelled) throws ApiException;
 
     /**
      * Nhân bản (sao chép và merge) thuộc tính Genres từ item nguồn
@@ -82,8 +113,12 @@ public interface IItemUpdateService {
      *
      * @param sourceItemId ID của item nguồn.
      * @param targetParentId ID của item cha.
-     * @return Số lượng item con đã được cập nhật.
-     * @throws ApiException Nếu API call thất bại.
+     * @param progressCallback Callback tiến trình (gọi từ luồng nền), có thể null.
+     * @param cancelled Trả về true khi người dùng yêu cầu hủy, có thể null.
+     * @return Kết quả: số item con đã cập nhật, không thay đổi (bỏ qua, không ghi) và bị lỗi
+     *         (tính đến lúc hoàn tất hoặc bị hủy).
+     * @throws ApiException Nếu không thể đọc item nguồn hoặc danh sách item con.
      */
-    int cloneGenres(String sourceItemId, String targetParentId) throws ApiException;
+    CloneProgress cloneGenres(String sourceItemId, String targetParentId,
+            Consumer<CloneProgress> progressCallback, BooleanSupplier cancelled) throws ApiException;
 }
\ No newline at end of file
@@ -0,0 +1,39 @@
+package com.vinhtt.embyclientsolid.data;
+
+import com.vinhtt.embyclientsolid.model.Tag;
+import embyclient.ApiException;
+
+import java.util.List;
+
+/**
+ * Interface trừu tượng hóa việc tra cứu nhanh một người (People) theo tên
+ * và danh sách Tags của người đó.
+ * Dùng cho lệnh lấy ngày phát hành (UR-38) để gán diễn viên và Tags của họ vào item.
+ */
+public interface IPersonIndexService {
+
+    /**
+     * Tìm một người theo tên (không phân biệt hoa/thường và dấu).
+     *
+     * @param name Tên cần tìm (ví dụ: tên diễn viên từ API bên ngoài).
+     * @return Tag của người đó (có ID), hoặc null nếu không tồn tại trên server.
+     * @throws ApiException Nếu API call thất bại.
+     */
+    Tag findPersonByName(String name) throws ApiException;
+
+    /**
+     * Lấy danh sách Tags của một người.
+     *
+     * @param personId ID của người (item People).
+     * @return Danh sách Tag (đã parse), rỗng nếu không có.
+     * @throws ApiException Nếu API call thất bại.
+     */
+    List<Tag> getPersonTags(String personId) throws ApiException;
+
+    /**
+     * Xóa Tags đã cache của một item (nếu item đó là một người) sau khi item được GHI.
+     *
+     * @param itemId ID của item vừa thay đổi.
+     */
+    void invalidatePerson(String itemId);
+}
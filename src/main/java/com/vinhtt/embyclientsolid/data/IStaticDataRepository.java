@@ -1,9 +1,11 @@
 package com.vinhtt.embyclientsolid.data;
 
+import com.vinhtt.embyclientsolid.model.SuggestionContext;
 import com.vinhtt.embyclientsolid.model.SuggestionItem;
 import com.vinhtt.embyclientsolid.model.Tag;
 import embyclient.ApiException;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -48,4 +50,16 @@ public interface IStaticDataRepository {
      * @throws ApiException Nếu API call thất bại.
      */
     List<Tag> getPeopleSuggestions() throws ApiException;
-}
\ No newline at end of file
+
+    /**
+     * Báo cho Repository biết các giá trị vừa được GHI lên server từ ứng dụng
+     * (ví dụ: tag/studio/người mới khi lưu item), để cập nhật danh sách gợi ý
+     * đang được cache mà không cần tải lại toàn bộ.
+     * Mặc định không làm gì (dành cho các Repository không có cache).
+     *
+     * @param context Loại dữ liệu (Tag, Studio, People, Genre).
+     * @param tags    Các giá trị vừa được lưu.
+     */
+    default void recordLocalAdditions(SuggestionContext context, Collection<Tag> tags) {
+    }
+}
@@ -0,0 +1,97 @@
+package com.vinhtt.embyclientsolid.data.impl;
+
+import com.squareup.okhttp.MediaType;
+import com.squareup.okhttp.RequestBody;
+import okio.BufferedSink;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.function.BiConsumer;
+
+/**
+ * {@link RequestBody} mã hóa Base64 một file ảnh theo kiểu "streaming":
+ * đọc file qua {@link FileChannel} theo từng chunk cố định, mã hóa và ghi thẳng
+ * vào socket. Bộ nhớ dùng cho mỗi lần upload là hằng số (2 buffer),
+ * không phụ thuộc kích thước file (khác với {@code Files.readAllBytes} + {@code encodeToString}).
+ */
+public class Base64FileRequestBody extends RequestBody {
+
+    // Bội số của 3 để mỗi chunk (trừ chunk cuối) mã hóa Base64 không sinh padding "="
+    private static final int CHUNK_SIZE = 3 * 16 * 1024;
+
+    private final File file;
+    private final MediaType mediaType;
+    private final BiConsumer<Long, Long> progressCallback;
+
+    /**
+     * Khởi tạo RequestBody.
+     *
+     * @param file             File ảnh cần upload.
+     * @param mediaType        MediaType (ví dụ: "image/jpeg").
+     * @param progressCallback Callback tiến trình (số byte đã gửi, tổng số byte của file), có thể null.
+     *                         Được gọi trên luồng đang upload.
+     */
+    public Base64FileRequestBody(File file, MediaType mediaType, BiConsumer<Long, Long> progressCallback) {
+        this.file = file;
+        this.mediaType = mediaType;
+        this.progressCallback = progressCallback;
+    }
+
+    @Override
+    public MediaType contentType() {
+        return mediaType;
+    }
+
+    /**
+     * Độ dài chuỗi Base64 (có padding) = 4 * ceil(n / 3).
+     */
+    @Override
+    public long contentLength() {
+        return 4 * ((file.length() + 2) / 3);
+    }
+
+    @Override
+    public void writeTo(BufferedSink sink) throws IOException {
+        long totalBytes = file.length();
+        long sentBytes = 0;
+
+        byte[] raw = new byte[CHUNK_SIZE];
+        byte[] encoded = new byte[CHUNK_SIZE / 3 * 4];
+        ByteBuffer buffer = ByteBuffer.wrap(raw);
+        Base64.Encoder encoder = Base64.getEncoder();
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            while (true) {
+                // Đọc ĐẦY chunk (channel.read có thể trả về ít hơn yêu cầu)
+                buffer.clear();
+                while (buffer.hasRemaining() && channel.read(buffer) != -1) {
+                    // tiếp tục đọc
+                }
+                int read = buffer.position();
+                if (read == 0) {
+                    break;
+                }
+
+                // Chunk cuối (không đầy) mới được phép có padding
+                int encodedLength = (read == CHUNK_SIZE)
+                        ? encoder.encode(raw, encoded)
+                        : encoder.encode(Arrays.copyOf(raw, read), encoded);
+                sink.write(encoded, 0, encodedLength);
+
+                sentBytes += read;
+                if (progressCallback != null) {
+                    progressCallback.accept(sentBytes, totalBytes);
+                }
+
+                if (read < CHUNK_SIZE) {
+                    break; // Đã hết file
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,538 @@
+package com.vinhtt.embyclientsolid.data.impl;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.vinhtt.embyclientsolid.core.IEmbySessionService;
+import com.vinhtt.embyclientsolid.data.IItemRepository;
+import com.vinhtt.embyclientsolid.model.BaseItemDtoCopier;
+import com.vinhtt.embyclientsolid.model.Tag;
+import embyclient.ApiException;
+import embyclient.JSON;
+import embyclient.model.BaseItemDto;
+import embyclient.model.ImageInfo;
+import embyclient.model.QueryResultBaseItemDto;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Decorator (lớp bọc) của {@link IItemRepository} bổ sung bộ nhớ đệm (cache)
+ * cho chi tiết item ({@link #getFullItemDetails(String)}) và danh sách ảnh
+ * ({@link #getItemImages(String)}).
+ *
+ * Cache gồm 2 tầng:
+ * 1. Bộ nhớ (LRU) - trả về gần như tức thì khi xem lại một item.
+ * 2. Ổ đĩa (mỗi item một file JSON) - giữ lại dữ liệu giữa các lần mở ứng dụng.
+ *
+ * Khi trả về từ cache, lớp này sẽ kiểm tra lại (revalidate) ở luồng nền
+ * bằng cách so sánh Etag/DateLastSaved với bản mới trên server.
+ * Bản cache chỉ dùng để HIỂN THỊ nhanh: nền cho các lệnh GHI và dữ liệu cuối cùng
+ * của Cột 3 luôn lấy qua {@link #getFreshItemDetails(String)}.
+ * Các lệnh GHI (IItemUpdateService) phải gọi {@link #invalidateItem(String)}
+ * để xóa bản cache cũ.
+ *
+ * Các truy vấn danh sách (phân trang, tìm kiếm, chip) được chuyển thẳng
+ * cho Repository gốc.
+ */
+public class CachingItemRepository implements IItemRepository {
+
+    // Số item tối đa giữ trong bộ nhớ
+    private static final int MEMORY_CAPACITY = 500;
+    // Số file tối đa giữ trên ổ đĩa (file cũ nhất sẽ bị xóa)
+    private static final int DISK_CAPACITY = 20000;
+    // Sau bao nhiêu lần ghi đĩa thì dọn dẹp một lần
+    private static final int DISK_PRUNE_INTERVAL = 200;
+    // Trong khoảng này (ms) kể từ lần kiểm tra cuối, không cần kiểm tra lại với server
+    private static final long REVALIDATE_INTERVAL_MS = 30_000;
+
+    private final IItemRepository delegate;
+    private final IEmbySessionService sessionService;
+    private final Gson gson;
+    private final Path cacheRoot;
+
+    // LRU (accessOrder = true), truy cập phải được đồng bộ (synchronized)
+    private final Map<String, CachedItem> itemCache = createLruMap();
+    private final Map<String, List<ImageInfo>> imageCache = createLruMap();
+
+    // Các key đang được kiểm tra lại ở luồng nền (tránh gửi trùng request)
+    private final Set<String> refreshingKeys = ConcurrentHashMap.newKeySet();
+    // Tăng mỗi lần invalidate; luồng nền sẽ bỏ kết quả nếu epoch đã thay đổi
+    private final AtomicLong invalidationEpoch = new AtomicLong();
+    private final AtomicInteger diskWritesSincePrune = new AtomicInteger();
+    private final ExecutorService backgroundExecutor;
+
+    /**
+     * Một entry trong cache bộ nhớ: DTO và thời điểm kiểm tra (validate) cuối cùng.
+     */
+    private static final class CachedItem {
+        final BaseItemDto dto;
+        final long validatedAt;
+
+        CachedItem(BaseItemDto dto, long validatedAt) {
+            this.dto = dto;
+            this.validatedAt = validatedAt;
+        }
+    }
+
+    /**
+     * Khởi tạo Repository có cache.
+     *
+     * @param delegate       Repository gốc (gọi API thật).
+     * @param sessionService Service Session (DI) để lấy UserId và URL server (dùng làm khóa cache).
+     */
+    public CachingItemRepository(IItemRepository delegate, IEmbySessionService sessionService) {
+        this.delegate = delegate;
+        this.sessionService = sessionService;
+        this.gson = new GsonBuilder()
+                .registerTypeAdapter(OffsetDateTime.class, new JSON.OffsetDateTimeTypeAdapter())
+                .create();
+        this.cacheRoot = Paths.get(System.getProperty("user.home"), ".embyclientsolid", "cache", "items");
+        this.backgroundExecutor = Executors.newFixedThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "item-cache-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // --- Các truy vấn danh sách: chuyển thẳng cho Repository gốc ---
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<BaseItemDto> getRootViews() throws ApiException {
+        return delegate.getRootViews();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<BaseItemDto> getItemsByParentId(String parentId) throws ApiException {
+        return delegate.getItemsByParentId(parentId);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public QueryResultBaseItemDto getItemsPaginated(String parentId, int startIndex, int limit, String sortOrder, String sortBy) throws ApiException {
+        return delegate.getItemsPaginated(parentId, startIndex, limit, sortOrder, sortBy);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public QueryResultBaseItemDto searchItemsPaginated(String keywords, int startIndex, int limit, String sortOrder, String sortBy) throws ApiException {
+        return delegate.searchItemsPaginated(keywords, startIndex, limit, sortOrder, sortBy);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public QueryResultBaseItemDto getItemsByChip(Tag chip, String chipType, Integer startIndex, Integer limit, boolean recursive, String sortOrder, String sortBy) throws ApiException {
+        return delegate.getItemsByChip(chip, chipType, startIndex, limit, recursive, sortOrder, sortBy);
+    }
+
+    // --- Các truy vấn có cache ---
+
+    /**
+     * {@inheritDoc}
+     *
+     * Trả về bản cache (bộ nhớ, rồi đến ổ đĩa) nếu có, đồng thời kiểm tra lại
+     * với server ở luồng nền. Nếu chưa có trong cache, gọi API và lưu lại.
+     * Luôn trả về một BẢN SAO để người gọi có thể sửa đổi DTO mà không làm hỏng cache.
+     */
+    @Override
+    public BaseItemDto getFullItemDetails(String itemId) throws ApiException {
+        String key = cacheKey(itemId);
+        if (key == null) {
+            // Chưa đăng nhập, để Repository gốc xử lý (ném lỗi)
+            return delegate.getFullItemDetails(itemId);
+        }
+
+        CachedItem cached = getFromMemory(key);
+        if (cached == null) {
+            BaseItemDto fromDisk = readFromDisk(key);
+            if (fromDisk != null) {
+                // Bản trên đĩa chưa được kiểm tra trong phiên này (validatedAt = 0)
+                cached = new CachedItem(fromDisk, 0);
+                putInMemory(key, cached);
+            }
+        }
+
+        if (cached != null) {
+            if (System.currentTimeMillis() - cached.validatedAt > REVALIDATE_INTERVAL_MS) {
+                scheduleRevalidation(itemId, key);
+            }
+            return copyOf(cached.dto);
+        }
+
+        // Cache miss: gọi API
+        long epoch = invalidationEpoch.get();
+        BaseItemDto fresh = delegate.getFullItemDetails(itemId);
+        if (fresh == null) {
+            return null;
+        }
+        store(key, fresh, epoch);
+        return copyOf(fresh);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Luôn gọi API; bản mới thay thế bản cache (bộ nhớ và ổ đĩa). Nếu item đã thay đổi
+     * so với bản cache, danh sách ảnh đã cache cũng bị xóa.
+     */
+    @Override
+    public BaseItemDto getFreshItemDetails(String itemId) throws ApiException {
+        String key = cacheKey(itemId);
+        if (key == null) {
+            return delegate.getFullItemDetails(itemId);
+        }
+
+        long epoch = invalidationEpoch.get();
+        BaseItemDto fresh = delegate.getFullItemDetails(itemId);
+        if (fresh == null) {
+            return null;
+        }
+        CachedItem current = getFromMemory(key);
+        if (current != null && !isSameVersion(current.dto, fresh)) {
+            synchronized (imageCache) {
+                imageCache.remove(key);
+            }
+        }
+        store(key, fresh, epoch);
+        return copyOf(fresh);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Không dùng cache: các thao tác hàng loạt luôn cần dữ liệu mới nhất
+     * từ server, và một request theo lô đã rẻ hơn nhiều so với đọc từng item.
+     */
+    @Override
+    public List<BaseItemDto> getFullItemDetails(Collection<String> itemIds) throws ApiException {
+        return delegate.getFullItemDetails(itemIds);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Danh sách ảnh chỉ được cache trong bộ nhớ và bị xóa khi item thay đổi
+     * (Etag/DateLastSaved khác) hoặc khi bị invalidate.
+     */
+    @Override
+    public List<ImageInfo> getItemImages(String itemId) throws ApiException {
+        String key = cacheKey(itemId);
+        if (key == null) {
+            return delegate.getItemImages(itemId);
+        }
+
+        List<ImageInfo> cached;
+        synchronized (imageCache) {
+            cached = imageCache.get(key);
+        }
+        if (cached != null) {
+            return new ArrayList<>(cached);
+        }
+
+        long epoch = invalidationEpoch.get();
+        List<ImageInfo> images = delegate.getItemImages(itemId);
+        if (invalidationEpoch.get() == epoch) {
+            synchronized (imageCache) {
+                imageCache.put(key, new ArrayList<>(images));
+            }
+        }
+        return new ArrayList<>(images);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Chỉ đọc cache bộ nhớ (an toàn khi gọi trên luồng FX). Nếu bản cache đã cũ,
+     * lên lịch kiểm tra lại với server ở luồng nền (như {@link #getFullItemDetails(String)}).
+     */
+    @Override
+    public BaseItemDto getCachedItemDetails(String itemId) {
+        String key = cacheKey(itemId);
+        if (key == null) return null;
+
+        CachedItem cached = getFromMemory(key);
+        if (cached == null) return null;
+        if (System.currentTimeMillis() - cached.validatedAt > REVALIDATE_INTERVAL_MS) {
+            scheduleRevalidation(itemId, key);
+        }
+        return copyOf(cached.dto);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<ImageInfo> getCachedItemImages(String itemId) {
+        String key = cacheKey(itemId);
+        if (key == null) return null;
+
+        synchronized (imageCache) {
+            List<ImageInfo> cached = imageCache.get(key);
+            return (cached != null) ? new ArrayList<>(cached) : null;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Xóa item khỏi cả cache bộ nhớ, cache ảnh và cache ổ đĩa.
+     */
+    @Override
+    public void invalidateItem(String itemId) {
+        String key = cacheKey(itemId);
+        if (key == null) return;
+
+        invalidationEpoch.incrementAndGet();
+        synchronized (itemCache) {
+            itemCache.remove(key);
+        }
+        synchronized (imageCache) {
+            imageCache.remove(key);
+        }
+        try {
+            Files.deleteIfExists(diskPath(key));
+        } catch (IOException e) {
+            System.err.println("Lỗi xóa cache item " + itemId + ": " + e.getMessage());
+        }
+    }
+
+    // --- Logic kiểm tra lại (revalidate) ở luồng nền ---
+
+    /**
+     * Lên lịch kiểm tra lại một item với server (nếu chưa có yêu cầu nào đang chạy).
+     * Nếu Etag/DateLastSaved khác, bản cache (và danh sách ảnh) sẽ được thay thế.
+     */
+    private void scheduleRevalidation(String itemId, String key) {
+        if (!refreshingKeys.add(key)) {
+            return;
+        }
+        backgroundExecutor.submit(() -> {
+            try {
+                long epoch = invalidationEpoch.get();
+                BaseItemDto fresh = delegate.getFullItemDetails(itemId);
+                if (fresh == null) return;
+
+                CachedItem current = getFromMemory(key);
+                if (current != null && isSameVersion(current.dto, fresh)) {
+                    // Không đổi: chỉ cập nhật thời điểm kiểm tra, không cần ghi đĩa
+                    if (invalidationEpoch.get() == epoch) {
+                        putInMemory(key, new CachedItem(current.dto, System.currentTimeMillis()));
+                    }
+                } else {
+                    // Item đã thay đổi trên server -> ảnh cũng có thể đã thay đổi
+                    synchronized (imageCache) {
+                        imageCache.remove(key);
+                    }
+                    store(key, fresh, epoch);
+                }
+            } catch (ApiException e) {
+                if (e.getCode() == 404) {
+                    // Item đã bị xóa trên server
+                    invalidateItem(itemId);
+                } else {
+                    System.err.println("Lỗi kiểm tra lại cache item " + itemId + ": " + e.getMessage());
+                }
+            } catch (Exception e) {
+                System.err.println("Lỗi kiểm tra lại cache item " + itemId + ": " + e.getMessage());
+            } finally {
+                refreshingKeys.remove(key);
+            }
+        });
+    }
+
+    /**
+     * So sánh phiên bản của 2 DTO: ưu tiên Etag, nếu không có thì dùng DateLastSaved.
+     * Nếu không có thông tin phiên bản nào, coi như đã thay đổi.
+     */
+    private boolean isSameVersion(BaseItemDto cached, BaseItemDto fresh) {
+        if (cached.getEtag() != null && fresh.getEtag() != null) {
+            return cached.getEtag().equals(fresh.getEtag());
+        }
+        if (cached.getDateLastSaved() != null && fresh.getDateLastSaved() != null) {
+            return Objects.equals(cached.getDateLastSaved(), fresh.getDateLastSaved());
+        }
+        return false;
+    }
+
+    // --- Helpers cache bộ nhớ ---
+
+    private CachedItem getFromMemory(String key) {
+        synchronized (itemCache) {
+            return itemCache.get(key);
+        }
+    }
+
+    private void putInMemory(String key, CachedItem item) {
+        synchronized (itemCache) {
+            itemCache.put(key, item);
+        }
+    }
+
+    /**
+     * Lưu một DTO mới vào bộ nhớ và ổ đĩa, trừ khi có lệnh invalidate
+     * xảy ra trong lúc đang tải (tránh ghi đè dữ liệu cũ lên bản vừa bị xóa).
+     */
+    private void store(String key, BaseItemDto dto, long epochAtFetch) {
+        if (invalidationEpoch.get() != epochAtFetch) {
+            return;
+        }
+        putInMemory(key, new CachedItem(dto, System.currentTimeMillis()));
+        String json = gson.toJson(dto);
+        backgroundExecutor.submit(() -> writeToDisk(key, json));
+    }
+
+    /**
+     * Tạo bản sao sâu (deep copy) của DTO để trả về cho người gọi.
+     */
+    private BaseItemDto copyOf(BaseItemDto dto) {
+        return BaseItemDtoCopier.copy(dto);
+    }
+
+    /**
+     * Tạo khóa cache gồm (server, user, item) để không lẫn dữ liệu giữa các tài khoản.
+     *
+     * @return Khóa cache, hoặc null nếu chưa đăng nhập.
+     */
+    private String cacheKey(String itemId) {
+        String userId = sessionService.getCurrentUserId();
+        if (userId == null || itemId == null) {
+            return null;
+        }
+        String basePath = sessionService.getApiClient().getBasePath();
+        return sha1(basePath + "|" + userId) + "/" + itemId;
+    }
+
+    private static <V> Map<String, V> createLruMap() {
+        return new LinkedHashMap<String, V>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+                return size() > MEMORY_CAPACITY;
+            }
+        };
+    }
+
+    // --- Helpers cache ổ đĩa ---
+
+    private Path diskPath(String key) {
+        return cacheRoot.resolve(key + ".json");
+    }
+
+    private BaseItemDto readFromDisk(String key) {
+        Path file = diskPath(key);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            BaseItemDto dto = gson.fromJson(reader, BaseItemDto.class);
+            // Cập nhật thời gian sửa đổi để việc dọn dẹp hoạt động theo kiểu LRU
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return dto;
+        } catch (Exception e) {
+            System.err.println("Lỗi đọc cache item (" + file + "): " + e.getMessage());
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ignored) {
+                // Bỏ qua
+            }
+            return null;
+        }
+    }
+
+    private void writeToDisk(String key, String json) {
+        Path file = diskPath(key);
+        try {
+            Files.createDirectories(file.getParent());
+            // Ghi ra file tạm rồi đổi tên để tránh file cache bị hỏng giữa chừng
+            Path temp = Files.createTempFile(file.getParent(), "item", ".tmp");
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                writer.write(json);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Lỗi ghi cache item (" + file + "): " + e.getMessage());
+            return;
+        }
+
+        if (diskWritesSincePrune.incrementAndGet() >= DISK_PRUNE_INTERVAL) {
+            diskWritesSincePrune.set(0);
+            pruneDisk(file.getParent());
+        }
+    }
+
+    /**
+     * Xóa các file cache ít được dùng nhất khi số file vượt quá giới hạn.
+     */
+    private void pruneDisk(Path directory) {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> entries = files
+                    .filter(p -> p.getFileName().toString().endsWith(".json"))
+                    .sorted(Comparator.comparingLong(this::lastModifiedMillis))
+                    .collect(Collectors.toList());
+            int excess = entries.size() - DISK_CAPACITY;
+            for (int i = 0; i < excess; i++) {
+                Files.deleteIfExists(entries.get(i));
+            }
+        } catch (IOException e) {
+            System.err.println("Lỗi dọn dẹp cache item: " + e.getMessage());
+        }
+    }
+
+    private long lastModifiedMillis(Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+
+    private static String sha1(String input) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            byte[] hash = digest.digest(input.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder();
+            for (byte b : hash) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-1 luôn có sẵn trong JDK
+            return Integer.toHexString(input.hashCode());
+        }
+    }
+}
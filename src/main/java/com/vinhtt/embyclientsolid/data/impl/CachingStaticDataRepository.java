@@ -0,0 +1,393 @@
+package com.vinhtt.embyclientsolid.data.impl;
+
+import com.google.gson.Gson;
+import com.vinhtt.embyclientsolid.core.IEmbySessionService;
+import com.vinhtt.embyclientsolid.data.IStaticDataRepository;
+import com.vinhtt.embyclientsolid.model.SuggestionContext;
+import com.vinhtt.embyclientsolid.model.Tag;
+import embyclient.ApiException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Decorator (lớp bọc) của {@link IStaticDataRepository} bổ sung bộ nhớ đệm (cache)
+ * cho các danh sách gợi ý (Tags, Genres, Studios, People).
+ *
+ * Các danh sách này rất lớn (People có thể tới hàng chục nghìn phần tử) và thay đổi chậm,
+ * nên lớp này áp dụng chiến lược "stale-while-revalidate":
+ * 1. Trả về ngay bản trong bộ nhớ (hoặc trên ổ đĩa, giữ giữa các lần mở ứng dụng).
+ * 2. Nếu bản cache đã quá {@link #FRESH_TTL_MS}, tải lại ở luồng nền
+ *    (lần mở dialog kế tiếp sẽ thấy dữ liệu mới).
+ * Chỉ khi chưa có cache nào, lời gọi mới phải chờ API.
+ *
+ * Các giá trị mới được lưu từ ứng dụng ({@link #recordLocalAdditions}) được thêm
+ * trực tiếp vào cache, và được giữ lại nếu lần tải lại đang chạy chưa thấy chúng.
+ */
+public class CachingStaticDataRepository implements IStaticDataRepository {
+
+    // Trong khoảng này (ms) kể từ lần tải cuối, không cần tải lại từ server
+    private static final long FRESH_TTL_MS = 5 * 60_000;
+
+    private static final String KIND_TAGS = "tags";
+    private static final String KIND_GENRES = "genres";
+    private static final String KIND_STUDIOS = "studios";
+    private static final String KIND_PEOPLE = "people";
+
+    private final IStaticDataRepository delegate;
+    private final IEmbySessionService sessionService;
+    private final Gson gson = new Gson();
+    private final Path cacheRoot;
+
+    // Khóa: "<server/user>/<loại>"
+    private final Map<String, CachedList> memoryCache = new ConcurrentHashMap<>();
+    // Các giá trị thêm cục bộ, chờ xác nhận bởi lần tải lại kế tiếp (khóa như memoryCache)
+    private final Map<String, List<LocalAddition>> pendingAdditions = new ConcurrentHashMap<>();
+    // Các khóa đang được tải lại ở luồng nền (tránh gửi trùng request)
+    private final Set<String> refreshingKeys = ConcurrentHashMap.newKeySet();
+    private final ExecutorService backgroundExecutor;
+
+    /**
+     * Một danh sách trong cache: các Tag (không thể sửa đổi) và thời điểm tải từ server.
+     */
+    private static final class CachedList {
+        final List<Tag> tags;
+        final long fetchedAt;
+
+        CachedList(List<Tag> tags, long fetchedAt) {
+            this.tags = Collections.unmodifiableList(tags);
+            this.fetchedAt = fetchedAt;
+        }
+    }
+
+    /**
+     * Một giá trị được thêm cục bộ và thời điểm thêm.
+     */
+    private static final class LocalAddition {
+        final Tag tag;
+        final long addedAt;
+
+        LocalAddition(Tag tag, long addedAt) {
+            this.tag = tag;
+            this.addedAt = addedAt;
+        }
+    }
+
+    /**
+     * Định dạng lưu trên ổ đĩa (chuỗi thô đã serialize + ID, parse lại khi đọc).
+     */
+    private static final class DiskList {
+        long fetchedAt;
+        List<DiskTag> tags;
+    }
+
+    private static final class DiskTag {
+        String name;
+        String id;
+    }
+
+    /**
+     * Hàm tải một danh sách từ Repository gốc.
+     */
+    private interface Loader {
+        List<Tag> load() throws ApiException;
+    }
+
+    /**
+     * Khởi tạo Repository có cache.
+     *
+     * @param delegate       Repository gốc (gọi API thật).
+     * @param sessionService Service Session (DI) để lấy UserId và URL server (dùng làm khóa cache).
+     */
+    public CachingStaticDataRepository(IStaticDataRepository delegate, IEmbySessionService sessionService) {
+        this.delegate = delegate;
+        this.sessionService = sessionService;
+        this.cacheRoot = Paths.get(System.getProperty("user.home"), ".embyclientsolid", "cache", "suggestions");
+        this.backgroundExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "static-data-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Tag> getAllUsedTags() throws ApiException {
+        return getCached(KIND_TAGS, delegate::getAllUsedTags);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Tag> getGenreSuggestions() throws ApiException {
+        return getCached(KIND_GENRES, delegate::getGenreSuggestions);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Tag> getStudioSuggestions() throws ApiException {
+        return getCached(KIND_STUDIOS, delegate::getStudioSuggestions);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Tag> getPeopleSuggestions() throws ApiException {
+        return getCached(KIND_PEOPLE, delegate::getPeopleSuggestions);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Thêm các giá trị chưa có vào danh sách đang cache (bộ nhớ và ổ đĩa).
+     * Nếu danh sách chưa từng được tải, không làm gì (lần tải đầu tiên sẽ lấy từ server).
+     */
+    @Override
+    public void recordLocalAdditions(SuggestionContext context, Collection<Tag> tags) {
+        if (context == null || tags == null || tags.isEmpty()) return;
+        String key = cacheKey(kindOf(context));
+        if (key == null) return;
+
+        long now = System.currentTimeMillis();
+        List<LocalAddition> pending = pendingAdditions.computeIfAbsent(key, k -> new ArrayList<>());
+        synchronized (pending) {
+            for (Tag tag : tags) {
+                if (tag != null) pending.add(new LocalAddition(tag, now));
+            }
+        }
+
+        CachedList updated = memoryCache.computeIfPresent(key, (k, current) -> {
+            List<Tag> merged = mergeMissing(current.tags, tags);
+            return (merged == null) ? current : new CachedList(merged, current.fetchedAt);
+        });
+        if (updated != null) {
+            backgroundExecutor.submit(() -> writeToDisk(key, updated));
+        }
+    }
+
+    // --- Logic cache (stale-while-revalidate) ---
+
+    /**
+     * Trả về danh sách từ cache (bộ nhớ, rồi đến ổ đĩa), tải lại ở luồng nền nếu đã cũ.
+     * Nếu chưa có cache, gọi API và lưu lại.
+     * Luôn trả về một BẢN SAO để người gọi có thể sửa đổi danh sách.
+     */
+    private List<Tag> getCached(String kind, Loader loader) throws ApiException {
+        String key = cacheKey(kind);
+        if (key == null) {
+            // Chưa đăng nhập, để Repository gốc xử lý
+            return loader.load();
+        }
+
+        CachedList cached = memoryCache.get(key);
+        if (cached == null) {
+            cached = readFromDisk(key);
+            if (cached != null) {
+                CachedList fromDisk = cached;
+                cached = memoryCache.computeIfAbsent(key, k -> fromDisk);
+            }
+        }
+
+        if (cached != null) {
+            if (System.currentTimeMillis() - cached.fetchedAt > FRESH_TTL_MS) {
+                scheduleRefresh(key, loader);
+            }
+            return new ArrayList<>(cached.tags);
+        }
+
+        // Cache miss: gọi API (chặn)
+        return new ArrayList<>(refresh(key, loader).tags);
+    }
+
+    /**
+     * Lên lịch tải lại một danh sách ở luồng nền (nếu chưa có yêu cầu nào đang chạy).
+     */
+    private void scheduleRefresh(String key, Loader loader) {
+        if (!refreshingKeys.add(key)) {
+            return;
+        }
+        backgroundExecutor.submit(() -> {
+            try {
+                refresh(key, loader);
+            } catch (Exception e) {
+                // Giữ lại bản cache cũ, thử lại ở lần gọi sau
+                System.err.println("Lỗi tải lại cache gợi ý (" + key + "): " + e.getMessage());
+            } finally {
+                refreshingKeys.remove(key);
+            }
+        });
+    }
+
+    /**
+     * Tải danh sách từ server, bổ sung các giá trị thêm cục bộ trong lúc đang tải
+     * (server có thể chưa kịp trả về), rồi lưu vào bộ nhớ và ổ đĩa.
+     */
+    private CachedList refresh(String key, Loader loader) throws ApiException {
+        long startedAt = System.currentTimeMillis();
+        List<Tag> fresh = new ArrayList<>(loader.load());
+
+        // Gộp trong compute() để không mất giá trị được recordLocalAdditions thêm cùng lúc
+        CachedList entry = memoryCache.compute(key, (k, current) -> {
+            List<Tag> localTags = new ArrayList<>();
+            List<LocalAddition> pending = pendingAdditions.get(key);
+            if (pending != null) {
+                synchronized (pending) {
+                    // Giá trị thêm TRƯỚC khi bắt đầu tải đã được server phản ánh (hoặc đã bị xóa)
+                    pending.removeIf(addition -> addition.addedAt < startedAt);
+                    for (LocalAddition addition : pending) {
+                        localTags.add(addition.tag);
+                    }
+                }
+            }
+            List<Tag> merged = mergeMissing(fresh, localTags);
+            return new CachedList(merged != null ? merged : fresh, startedAt);
+        });
+        backgroundExecutor.submit(() -> writeToDisk(key, entry));
+        return entry;
+    }
+
+    /**
+     * Thêm vào cuối danh sách các Tag chưa có (so sánh theo chuỗi đã serialize, bỏ qua ID).
+     *
+     * @return Danh sách mới, hoặc null nếu không có gì cần thêm.
+     */
+    private List<Tag> mergeMissing(List<Tag> current, Collection<Tag> additions) {
+        Set<String> existingNames = new HashSet<>();
+        for (Tag tag : current) {
+            existingNames.add(tag.serialize());
+        }
+        List<Tag> merged = null;
+        for (Tag tag : additions) {
+            if (tag == null || !existingNames.add(tag.serialize())) continue;
+            if (merged == null) {
+                merged = new ArrayList<>(current);
+            }
+            merged.add(tag);
+        }
+        return merged;
+    }
+
+    private String kindOf(SuggestionContext context) {
+        switch (context) {
+            case STUDIO: return KIND_STUDIOS;
+            case PEOPLE: return KIND_PEOPLE;
+            case GENRE: return KIND_GENRES;
+            case TAG:
+            default: return KIND_TAGS;
+        }
+    }
+
+    /**
+     * Tạo khóa cache gồm (server, user, loại) để không lẫn dữ liệu giữa các tài khoản.
+     *
+     * @return Khóa cache, hoặc null nếu chưa đăng nhập.
+     */
+    private String cacheKey(String kind) {
+        String userId = sessionService.getCurrentUserId();
+        if (userId == null) {
+            return null;
+        }
+        String basePath = sessionService.getApiClient().getBasePath();
+        return sha1(basePath + "|" + userId) + "/" + kind;
+    }
+
+    // --- Helpers cache ổ đĩa ---
+
+    private Path diskPath(String key) {
+        return cacheRoot.resolve(key + ".json");
+    }
+
+    private CachedList readFromDisk(String key) {
+        Path file = diskPath(key);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            DiskList diskList = gson.fromJson(reader, DiskList.class);
+            if (diskList == null || diskList.tags == null) {
+                return null;
+            }
+            List<Tag> tags = new ArrayList<>(diskList.tags.size());
+            for (DiskTag diskTag : diskList.tags) {
+                tags.add(Tag.parse(diskTag.name, diskTag.id));
+            }
+            return new CachedList(tags, diskList.fetchedAt);
+        } catch (Exception e) {
+            System.err.println("Lỗi đọc cache gợi ý (" + file + "): " + e.getMessage());
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ignored) {
+                // Bỏ qua
+            }
+            return null;
+        }
+    }
+
+    private void writeToDisk(String key, CachedList entry) {
+        // Bỏ qua nếu đã có bản mới hơn trong bộ nhớ (bản đó sẽ tự ghi)
+        if (memoryCache.get(key) != entry) {
+            return;
+        }
+        DiskList diskList = new DiskList();
+        diskList.fetchedAt = entry.fetchedAt;
+        diskList.tags = new ArrayList<>(entry.tags.size());
+        for (Tag tag : entry.tags) {
+            DiskTag diskTag = new DiskTag();
+            diskTag.name = tag.serialize();
+            diskTag.id = tag.getId();
+            diskList.tags.add(diskTag);
+        }
+
+        Path file = diskPath(key);
+        try {
+            Files.createDirectories(file.getParent());
+            // Ghi ra file tạm rồi đổi tên để tránh file cache bị hỏng giữa chừng
+            Path temp = Files.createTempFile(file.getParent(), "suggestions", ".tmp");
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                gson.toJson(diskList, writer);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Lỗi ghi cache gợi ý (" + file + "): " + e.getMessage());
+        }
+    }
+
+    private static String sha1(String input) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            byte[] hash = digest.digest(input.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder();
+            for (byte b : hash) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-1 luôn có sẵn trong JDK
+            return Integer.toHexString(input.hashCode());
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package com.vinhtt.embyclientsolid.data.impl;
+
+import com.vinhtt.embyclientsolid.core.IBackgroundTaskService;
+import com.vinhtt.embyclientsolid.data.IItemRepository;
+import com.vinhtt.embyclientsolid.model.CloneProgress;
+import embyclient.ApiException;
+import embyclient.model.BaseItemDto;
+import embyclient.model.QueryResultBaseItemDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Helper thực thi logic nhân bản (clone) thuộc tính sang các item con
+ * theo kiểu "pipeline" gồm 3 giai đoạn chạy song song:
+ * 1. Liệt kê (1 luồng): lấy ID các item con theo từng trang (không giới hạn cứng số lượng)
+ *    và gom thành từng lô.
+ * 2. Đọc (nhiều luồng): lấy DTO (projection) của cả lô bằng một request và thử áp dụng hàm merge.
+ *    Item không thay đổi sau khi merge sẽ được bỏ qua (không ghi lại).
+ * 3. Ghi (nhiều luồng): với item cần ghi, lấy DTO ĐẦY ĐỦ (API chi tiết một item),
+ *    merge lại trên DTO đó rồi gửi lên server. DTO theo lô chỉ chứa một số trường,
+ *    nếu ghi lại nó thì các trường còn thiếu sẽ bị xóa trên server.
+ *
+ * Các giai đoạn nối với nhau bằng hàng đợi có giới hạn (bounded queue),
+ * nên giai đoạn trước sẽ tự chờ (backpressure) khi giai đoạn sau bị chậm.
+ * Các luồng của pipeline là tác vụ con loại BULK của {@link IBackgroundTaskService}
+ * (chạy trong chỗ của tác vụ clone đang gọi {@link #run}, và được tính vào số tác vụ đang chạy).
+ * Được dùng bởi {@link EmbyItemUpdateService}.
+ */
+class CloneEngine {
+
+    /**
+     * Hàm ghi một item (thường là {@code IItemUpdateService::updateItem}).
+     */
+    interface ItemWriter {
+        void write(String itemId, BaseItemDto item) throws ApiException;
+    }
+
+    private static final int PAGE_SIZE = 200;
+    // Số ID trong một lô Đọc (một request /Items?Ids=...)
+    private static final int FETCH_BATCH_SIZE = 50;
+    private static final int FETCH_PARALLELISM = 3;
+    private static final int WRITE_PARALLELISM = 4;
+    private static final int QUEUE_CAPACITY = 64;
+    private static final int BATCH_QUEUE_CAPACITY = 4;
+    // Chu kỳ (ms) kiểm tra cờ hủy khi đang chờ pipeline
+    private static final long CANCEL_POLL_MS = 200;
+
+    // Phần tử đánh dấu kết thúc hàng đợi (so sánh bằng tham chiếu)
+    private static final List<String> END_OF_IDS = new ArrayList<>();
+    private static final BaseItemDto END_OF_ITEMS = new BaseItemDto();
+
+    private final IItemRepository itemRepository;
+    private final IBackgroundTaskService taskService;
+    private final ItemWriter writer;
+
+    /**
+     * Khởi tạo engine.
+     *
+     * @param itemRepository Repository Đọc (để liệt kê và lấy DTO).
+     * @param taskService    Service chạy tác vụ nền (cho các luồng của pipeline).
+     * @param writer         Hàm ghi item lên server.
+     */
+    CloneEngine(IItemRepository itemRepository, IBackgroundTaskService taskService, ItemWriter writer) {
+        this.itemRepository = itemRepository;
+        this.taskService = taskService;
+        this.writer = writer;
+    }
+
+    /**
+     * Chạy pipeline nhân bản cho tất cả item con của một thư mục.
+     * Phải được gọi từ bên trong một tác vụ BULK đang chạy.
+     *
+     * @param targetParentId   ID thư mục cha (đích).
+     * @param excludedItemId   ID item cần bỏ qua (thường là item nguồn), có thể null.
+     * @param merge            Hàm merge thuộc tính nguồn vào DTO đích (sửa trực tiếp DTO),
+     *                         trả về true nếu DTO thực sự thay đổi (cần ghi).
+     * @param progressCallback Callback tiến trình (gọi từ các luồng nền), có thể null.
+     * @param cancelled        Trả về true nếu người dùng đã yêu cầu hủy, có thể null.
+     * @return Kết quả (số item đã cập nhật / không đổi / lỗi) tính đến lúc hoàn tất hoặc bị hủy.
+     * @throws ApiException Nếu không thể liệt kê danh sách item con.
+     */
+    CloneProgress run(String targetParentId, String excludedItemId, Predicate<BaseItemDto> merge,
+            Consumer<CloneProgress> progressCallback, BooleanSupplier cancelled) throws ApiException {
+
+        BlockingQueue<List<String>> idQueue = new ArrayBlockingQueue<>(BATCH_QUEUE_CAPACITY);
+        BlockingQueue<BaseItemDto> writeQueue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+
+        AtomicInteger total = new AtomicInteger();
+        AtomicInteger processed = new AtomicInteger();
+        AtomicInteger updated = new AtomicInteger();
+        AtomicInteger unchanged = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        AtomicInteger activeFetchers = new AtomicInteger(FETCH_PARALLELISM);
+        AtomicBoolean aborted = new AtomicBoolean(false);
+        AtomicReference<ApiException> enumerationError = new AtomicReference<>();
+
+        Supplier<CloneProgress> snapshot = () ->
+                new CloneProgress(total.get(), processed.get(), updated.get(), unchanged.get(), failed.get());
+        Runnable report = () -> {
+            if (progressCallback != null) {
+                progressCallback.accept(snapshot.get());
+            }
+        };
+
+        List<Future<?>> futures = new ArrayList<>();
+
+        try {
+            // --- Giai đoạn 1: Liệt kê item con theo trang ---
+            futures.add(taskService.submitSubtask(IBackgroundTaskService.Category.BULK, "clone-enumerate", () -> {
+                try {
+                    int startIndex = 0;
+                    while (true) {
+                        QueryResultBaseItemDto page = itemRepository.getItemsPaginated(targetParentId, startIndex, PAGE_SIZE, "Ascending", "SortName");
+                        List<BaseItemDto> children = page.getItems();
+                        if (startIndex == 0 && page.getTotalRecordCount() != null) {
+                            total.set(page.getTotalRecordCount());
+                            report.run();
+                        }
+                        if (children == null || children.isEmpty()) break;
+
+                        List<String> batch = new ArrayList<>(FETCH_BATCH_SIZE);
+                        for (BaseItemDto child : children) {
+                            if (child.getId() == null || child.getId().equals(excludedItemId)) {
+                                total.updateAndGet(t -> Math.max(0, t - 1)); // Bỏ qua, không tính vào tổng
+                                continue;
+                            }
+                            batch.add(child.getId());
+                            if (batch.size() == FETCH_BATCH_SIZE) {
+                                idQueue.put(batch); // Chờ nếu giai đoạn Đọc đang bận
+                                batch = new ArrayList<>(FETCH_BATCH_SIZE);
+                            }
+                        }
+                        if (!batch.isEmpty()) {
+                            idQueue.put(batch);
+                        }
+
+                        startIndex += children.size();
+                        if (page.getTotalRecordCount() != null && startIndex >= page.getTotalRecordCount()) break;
+                    }
+                } catch (ApiException e) {
+                    enumerationError.set(e);
+                    aborted.set(true);
+                } catch (RuntimeException e) {
+                    // (Ví dụ: trang null, lỗi parse của SDK) cũng là lỗi liệt kê
+                    enumerationError.set(new ApiException(e));
+                    aborted.set(true);
+                } finally {
+                    // Luôn báo hiệu cho tất cả luồng Đọc là đã hết item (kể cả khi liệt kê lỗi)
+                    for (int i = 0; i < FETCH_PARALLELISM; i++) {
+                        idQueue.put(END_OF_IDS);
+                    }
+                }
+                return null;
+            }));
+
+            // --- Giai đoạn 2: Đọc DTO đầy đủ và merge ---
+            for (int i = 0; i < FETCH_PARALLELISM; i++) {
+                futures.add(taskService.submitSubtask(IBackgroundTaskService.Category.BULK, "clone-fetch", () -> {
+                    try {
+                        while (true) {
+                            List<String> batch = idQueue.take();
+                            if (batch == END_OF_IDS) break;
+                            if (aborted.get()) continue; // Chỉ rút cạn hàng đợi
+
+                            List<BaseItemDto> items;
+                            try {
+                                items = itemRepository.getFullItemDetails(batch);
+                            } catch (ApiException | RuntimeException e) {
+                                System.err.println("Lỗi đọc lô " + batch.size() + " item khi nhân bản: " + e.getMessage());
+                                failed.addAndGet(batch.size());
+                                processed.addAndGet(batch.size());
+                                report.run();
+                                continue;
+                            }
+
+                            // Item không còn tồn tại trên server: coi như đã xử lý
+                            if (items.size() < batch.size()) {
+                                processed.addAndGet(batch.size() - items.size());
+                                report.run();
+                            }
+
+                            for (BaseItemDto item : items) {
+                                try {
+                                    if (!merge.test(item)) {
+                                        // Đã có sẵn mọi giá trị nguồn -> không cần ghi lại
+                                        unchanged.incrementAndGet();
+                                        processed.incrementAndGet();
+                                        report.run();
+                                        continue;
+                                    }
+                                } catch (RuntimeException e) {
+                                    System.err.println("Lỗi merge item khi nhân bản (" + item.getId() + "): " + e.getMessage());
+                                    failed.incrementAndGet();
+                                    processed.incrementAndGet();
+                                    report.run();
+                                    continue;
+                                }
+                                writeQueue.put(item); // Chờ nếu giai đoạn Ghi đang bận
+                            }
+                        }
+                    } finally {
+                        // Luồng Đọc cuối cùng báo hiệu cho tất cả luồng Ghi
+                        if (activeFetchers.decrementAndGet() == 0) {
+                            for (int w = 0; w < WRITE_PARALLELISM; w++) {
+                                writeQueue.put(END_OF_ITEMS);
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+
+            // --- Giai đoạn 3: Ghi lên server ---
+            for (int i = 0; i < WRITE_PARALLELISM; i++) {
+                futures.add(taskService.submitSubtask(IBackgroundTaskService.Category.BULK, "clone-write", () -> {
+                    while (true) {
+                        BaseItemDto item = writeQueue.take();
+                        if (item == END_OF_ITEMS) break;
+                        try {
+                            // Nền để ghi: DTO đầy đủ, mới nhất từ server
+                            BaseItemDto target = itemRepository.getFreshItemDetails(item.getId());
+                            if (target == null) {
+                                // Item không còn tồn tại trên server: coi như đã xử lý
+                            } else if (merge.test(target)) {
+                                writer.write(target.getId(), target);
+                                updated.incrementAndGet();
+                            } else {
+                                unchanged.incrementAndGet(); // Đã có sẵn mọi giá trị nguồn
+                            }
+                        } catch (ApiException | RuntimeException e) {
+                            System.err.println("Lỗi ghi item khi nhân bản (" + item.getId() + "): " + e.getMessage());
+                            failed.incrementAndGet();
+                        }
+                        processed.incrementAndGet();
+                        report.run();
+                    }
+                    return null;
+                }));
+            }
+
+            // Chờ pipeline hoàn tất, đồng thời kiểm tra cờ hủy
+            for (Future<?> future : futures) {
+                while (true) {
+                    try {
+                        future.get(CANCEL_POLL_MS, TimeUnit.MILLISECONDS);
+                        break;
+                    } catch (TimeoutException e) {
+                        if (cancelled != null && cancelled.getAsBoolean()) {
+                            return snapshot.get(); // finally sẽ ngắt (interrupt) mọi luồng
+                        }
+                    } catch (ExecutionException e) {
+                        System.err.println("Lỗi luồng nhân bản: " + e.getCause());
+                        break;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return snapshot.get();
+        } finally {
+            // Ngắt (interrupt) mọi luồng còn chạy (khi bị hủy hoặc lỗi); luồng đã xong không bị ảnh hưởng
+            for (Future<?> future : futures) {
+                future.cancel(true);
+            }
+        }
+
+        if (enumerationError.get() != null) {
+            throw enumerationError.get();
+        }
+        return snapshot.get();
+    }
+}
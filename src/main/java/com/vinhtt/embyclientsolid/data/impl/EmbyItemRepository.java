@@ -13,8 +13,17 @@ import embyclient.model.BaseItemDto;
 import embyclient.model.ImageInfo;
 import embyclient.model.QueryResultBaseItemDto;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Triển khai (Implementation) của IItemRepository.
@@ -23,9 +32,22 @@ import java.util.List;
  */
 public class EmbyItemRepository implements IItemRepository {
 
+    // Độ dài tối đa (ký tự) của tham số "ids" trong một request (giữ URL dưới ~2KB)
+    private static final int MAX_IDS_PARAM_LENGTH = 1500;
+    // Dấu phẩy sau khi URL-encode ("%2C")
+    private static final int ENCODED_SEPARATOR_LENGTH = 3;
+    // Số lô được gọi song song khi lấy chi tiết theo lô
+    private static final int BATCH_PARALLELISM = 4;
+
     private final IEmbySessionService sessionService;
     private final ApiClient apiClient;
     private final IConfigurationService configService;
+    private final ExecutorService batchExecutor;
+
+    // Gộp các request trùng lặp đang chạy đồng thời (ví dụ: Cột 3 và dialog pop-out cùng tải một item)
+    private final SingleFlight<String, BaseItemDto> itemDetailsFlight = new SingleFlight<>("getFullItemDetails");
+    private final SingleFlight<String, List<ImageInfo>> itemImagesFlight = new SingleFlight<>("getItemImages");
+    private final SingleFlight<String, QueryResultBaseItemDto> paginatedFlight = new SingleFlight<>("getItemsPaginated");
 
     /**
      * Khởi tạo Repository.
@@ -37,6 +59,11 @@ public class EmbyItemRepository implements IItemRepository {
         this.sessionService = sessionService;
         this.apiClient = sessionService.getApiClient();
         this.configService = configService;
+        this.batchExecutor = Executors.newFixedThreadPool(BATCH_PARALLELISM, runnable -> {
+            Thread thread = new Thread(runnable, "item-batch-fetch");
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     // --- Helpers để lấy các API service cụ thể từ ApiClient ---
@@ -78,15 +105,19 @@ public class EmbyItemRepository implements IItemRepository {
     public List<BaseItemDto> getItemsByParentId(String parentId) throws ApiException {
         // Gọi API lấy item con, không đệ quy (recursive=null/false)
         // và sắp xếp theo SortName (dùng cho Cột 1 - Tree).
-        QueryResultBaseItemDto result = getItemsService().getItems(null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
-                null,
-                null,
-                "Ascending",
-                parentId,
-                null,
+        QueryResultBaseItemDto result = getItemsService().getItems(
+                null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+                "Ascending", // sortOrder
+                parentId, // parentId
+                ItemFieldProfile.TREE_NODE.getFields(), // fields
                 null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
-                "SortName",
-                null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null);
+                "SortName", // sortBy
+                null, null, null, null, null, null,
+                ItemFieldProfile.TREE_NODE.getEnableImages(), // enableImages
+                ItemFieldProfile.TREE_NODE.getEnableUserData(), // enableUserData
+                ItemFieldProfile.TREE_NODE.getImageTypeLimit(), // imageTypeLimit
+                ItemFieldProfile.TREE_NODE.getEnableImageTypes(), // enableImageTypes
+                null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null);
         if (result != null && result.getItems() != null) {
             return result.getItems();
         }
@@ -98,9 +129,35 @@ public class EmbyItemRepository implements IItemRepository {
      */
     @Override
     public QueryResultBaseItemDto getItemsPaginated(String parentId, int startIndex, int limit, String sortOrder, String sortBy) throws ApiException {
+        String key = parentId + "|" + startIndex + "|" + limit + "|" + sortOrder + "|" + sortBy;
+        return paginatedFlight.execute(key, () -> fetchItemsPaginated(parentId, startIndex, limit, sortOrder, sortBy));
+    }
+
+    /**
+     * Gọi API thật cho {@link #getItemsPaginated}.
+     */
+    private QueryResultBaseItemDto fetchItemsPaginated(String parentId, int startIndex, int limit, String sortOrder, String sortBy) throws ApiException {
         // Gọi API lấy item con, CÓ đệ quy (recursive=true)
         // và chỉ lấy loại "Movie" (dùng cho Cột 2 - Grid).
-        QueryResultBaseItemDto result = getItemsService().getItems(null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, startIndex, limit, true, null, sortOrder, parentId, "OfficialRating,CriticRating", null, "Movie", null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, sortBy, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null);
+        QueryResultBaseItemDto result = getItemsService().getItems(
+                null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+                startIndex, // startIndex
+                limit, // limit
+                true, // recursive
+                null,
+                sortOrder, // sortOrder
+                parentId, // parentId
+                ItemFieldProfile.GRID_CARD.getFields(), // fields
+                null,
+                "Movie", // includeItemTypes
+                null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+                sortBy, // sortBy
+                null, null, null, null, null, null,
+                ItemFieldProfile.GRID_CARD.getEnableImages(), // enableImages
+                ItemFieldProfile.GRID_CARD.getEnableUserData(), // enableUserData
+                ItemFieldProfile.GRID_CARD.getImageTypeLimit(), // imageTypeLimit
+                ItemFieldProfile.GRID_CARD.getEnableImageTypes(), // enableImageTypes
+                null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null);
 
         if (result != null) {
             return result;
@@ -124,9 +181,16 @@ public class EmbyItemRepository implements IItemRepository {
                 true, // recursive: true
                 keywords, // searchTerm
                 sortOrder, // sortOrder
-                null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+                null,
+                ItemFieldProfile.GRID_CARD.getFields(), // fields
+                null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
                 sortBy, // sortBy
-                null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null);
+                null, null, null, null, null, null,
+                ItemFieldProfile.GRID_CARD.getEnableImages(), // enableImages
+                ItemFieldProfile.GRID_CARD.getEnableUserData(), // enableUserData
+                ItemFieldProfile.GRID_CARD.getImageTypeLimit(), // imageTypeLimit
+                ItemFieldProfile.GRID_CARD.getEnableImageTypes(), // enableImageTypes
+                null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null);
 
         if (result != null) {
             return result;
@@ -191,7 +255,7 @@ public class EmbyItemRepository implements IItemRepository {
                             null,    //searchTerm
                             sortOrder,    //sortOrder
                             null,    //parentId
-                            null,    //fields
+                            ItemFieldProfile.GRID_CARD.getFields(),    //fields
                             null,    //excludeItemTypes
                             "Movie,Series,Video,Game",    //includeItemTypes
                             null,    //anyProviderIdEquals
@@ -217,10 +281,10 @@ public class EmbyItemRepository implements IItemRepository {
                             tagsName,    //tags
                             null,    //excludeTags
                             null,    //years
-                            null,    //enableImages
-                            null,    //enableUserData
-                            null,    //imageTypeLimit
-                            null,    //enableImageTypes
+                            ItemFieldProfile.GRID_CARD.getEnableImages(),    //enableImages
+                            ItemFieldProfile.GRID_CARD.getEnableUserData(),    //enableUserData
+                            ItemFieldProfile.GRID_CARD.getImageTypeLimit(),    //imageTypeLimit
+                            ItemFieldProfile.GRID_CARD.getEnableImageTypes(),    //enableImageTypes
                             null,    //person
                             null,    //personIds
                             null,    //personTypes
@@ -302,7 +366,7 @@ public class EmbyItemRepository implements IItemRepository {
                             null,    //searchTerm
                             sortOrder,    //sortOrder
                             null,    //parentId
-                            null,    //fields
+                            ItemFieldProfile.GRID_CARD.getFields(),    //fields
                             null,    //excludeItemTypes
                             "Movie,Series,Video,Game",    //includeItemTypes
                             null,    //anyProviderIdEquals
@@ -328,10 +392,10 @@ public class EmbyItemRepository implements IItemRepository {
                             null,    //tags
                             null,    //excludeTags
                             null,    //years
-                            null,    //enableImages
-                            null,    //enableUserData
-                            null,    //imageTypeLimit
-                            null,    //enableImageTypes
+                            ItemFieldProfile.GRID_CARD.getEnableImages(),    //enableImages
+                            ItemFieldProfile.GRID_CARD.getEnableUserData(),    //enableUserData
+                            ItemFieldProfile.GRID_CARD.getImageTypeLimit(),    //imageTypeLimit
+                            ItemFieldProfile.GRID_CARD.getEnableImageTypes(),    //enableImageTypes
                             null,    //person
                             null,    //personIds
                             null,    //personTypes
@@ -414,7 +478,7 @@ public class EmbyItemRepository implements IItemRepository {
                             null,    //searchTerm
                             sortOrder,    //sortOrder
                             null,    //parentId
-                            null,    //fields
+                            ItemFieldProfile.GRID_CARD.getFields(),    //fields
                             null,    //excludeItemTypes
                             "Movie,Series,Video,Game",    //includeItemTypes
                             null,    //anyProviderIdEquals
@@ -440,10 +504,10 @@ public class EmbyItemRepository implements IItemRepository {
                             null,    //tags
                             null,    //excludeTags
                             null,    //years
-                            null,    //enableImages
-                            null,    //enableUserData
-                            null,    //imageTypeLimit
-                            null,    //enableImageTypes
+                            ItemFieldProfile.GRID_CARD.getEnableImages(),    //enableImages
+                            ItemFieldProfile.GRID_CARD.getEnableUserData(),    //enableUserData
+                            ItemFieldProfile.GRID_CARD.getImageTypeLimit(),    //imageTypeLimit
+                            ItemFieldProfile.GRID_CARD.getEnableImageTypes(),    //enableImageTypes
                             null,    //person
                             peopleID,    //personIds
                             null,    //personTypes
@@ -524,7 +588,7 @@ public class EmbyItemRepository implements IItemRepository {
                             null,    //searchTerm
                             sortOrder,    //sortOrder
                             null,    //parentId
-                            null,    //fields
+                            ItemFieldProfile.GRID_CARD.getFields(),    //fields
                             null,    //excludeItemTypes
                             "Movie, Series, Video, Game, MusicAlbum",    //includeItemTypes
                             null,    //anyProviderIdEquals
@@ -550,10 +614,10 @@ public class EmbyItemRepository implements IItemRepository {
                             null,    //tags
                             null,    //excludeTags
                             null,    //years
-                            null,    //enableImages
-                            null,    //enableUserData
-                            null,    //imageTypeLimit
-                            null,    //enableImageTypes
+                            ItemFieldProfile.GRID_CARD.getEnableImages(),    //enableImages
+                            ItemFieldProfile.GRID_CARD.getEnableUserData(),    //enableUserData
+                            ItemFieldProfile.GRID_CARD.getImageTypeLimit(),    //imageTypeLimit
+                            ItemFieldProfile.GRID_CARD.getEnableImageTypes(),    //enableImageTypes
                             null,    //person
                             null,    //personIds
                             null,    //personTypes
@@ -611,7 +675,190 @@ public class EmbyItemRepository implements IItemRepository {
             throw new IllegalStateException(configService.getString("exceptions", "notLoggedIn"));
         }
         // Gọi API lấy chi tiết item của user (để lấy được UserData)
-        return getUserLibraryServiceApi().getUsersByUseridItemsById(userId, itemId);
+        return itemDetailsFlight.execute(userId + "|" + itemId,
+                () -> getUserLibraryServiceApi().getUsersByUseridItemsById(userId, itemId));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Dùng tham số {@code ids} + {@code fields} của API {@code /Items}:
+     * danh sách ID được chia thành nhiều lô (theo độ dài URL an toàn),
+     * các lô được gọi song song.
+     */
+    @Override
+    public List<BaseItemDto> getFullItemDetails(Collection<String> itemIds) throws ApiException {
+        String userId = sessionService.getCurrentUserId();
+        if (userId == null) {
+            throw new IllegalStateException(configService.getString("exceptions", "notLoggedIn"));
+        }
+        if (itemIds == null || itemIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        // 1. Chia ID (đã bỏ trùng) thành các lô theo độ dài chuỗi "ids"
+        List<String> uniqueIds = new ArrayList<>(new LinkedHashSet<>(itemIds));
+        List<String> batches = new ArrayList<>();
+        StringBuilder batch = new StringBuilder();
+        for (String id : uniqueIds) {
+            if (id == null || id.isEmpty()) continue;
+            if (batch.length() > 0 && batch.length() + ENCODED_SEPARATOR_LENGTH + id.length() > MAX_IDS_PARAM_LENGTH) {
+                batches.add(batch.toString());
+                batch.setLength(0);
+            }
+            if (batch.length() > 0) batch.append(',');
+            batch.append(id);
+        }
+        if (batch.length() > 0) {
+            batches.add(batch.toString());
+        }
+
+        // 2. Gọi song song các lô (lô đầu tiên chạy ngay trên luồng hiện tại)
+        Map<String, BaseItemDto> itemsById = new HashMap<>();
+        List<Future<List<BaseItemDto>>> futures = new ArrayList<>();
+        for (int i = 1; i < batches.size(); i++) {
+            String ids = batches.get(i);
+            futures.add(batchExecutor.submit(() -> queryItemsByIds(ids, userId)));
+        }
+        try {
+            for (BaseItemDto item : queryItemsByIds(batches.get(0), userId)) {
+                itemsById.put(item.getId(), item);
+            }
+            for (Future<List<BaseItemDto>> future : futures) {
+                for (BaseItemDto item : future.get()) {
+                    itemsById.put(item.getId(), item);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApiException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ApiException) {
+                throw (ApiException) e.getCause();
+            }
+            throw new ApiException(e.getCause());
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+
+        // 3. Trả về theo đúng thứ tự yêu cầu
+        List<BaseItemDto> result = new ArrayList<>(itemsById.size());
+        for (String id : uniqueIds) {
+            BaseItemDto item = itemsById.get(id);
+            if (item != null) result.add(item);
+        }
+        return result;
+    }
+
+    /**
+     * Gọi API {@code /Items} cho một lô ID (đã nối bằng dấu phẩy).
+     */
+    private List<BaseItemDto> queryItemsByIds(String ids, String userId) throws ApiException {
+        QueryResultBaseItemDto result = getItemsService().getItems(
+                    null,    //artistType
+                    null,    //maxOfficialRating
+                    null,    //hasThemeSong
+                    null,    //hasThemeVideo
+                    null,    //hasSubtitles
+                    null,    //hasSpecialFeature
+                    null,    //hasTrailer
+                    null,    //isSpecialSeason
+                    null,    //adjacentTo
+                    null,    //startItemId
+                    null,    //minIndexNumber
+                    null,    //minStartDate
+                    null,    //maxStartDate
+                    null,    //minEndDate
+                    null,    //maxEndDate
+                    null,    //minPlayers
+                    null,    //maxPlayers
+                    null,    //parentIndexNumber
+                    null,    //hasParentalRating
+                    null,    //isHD
+                    null,    //isUnaired
+                    null,    //minCommunityRating
+                    null,    //minCriticRating
+                    null,    //airedDuringSeason
+                    null,    //minPremiereDate
+                    null,    //minDateLastSaved
+                    null,    //minDateLastSavedForUser
+                    null,    //maxPremiereDate
+                    null,    //hasOverview
+                    null,    //hasImdbId
+                    null,    //hasTmdbId
+                    null,    //hasTvdbId
+                    null,    //excludeItemIds
+                    null,    //startIndex
+                    null,    //limit
+                    null,    //recursive
+                    null,    //searchTerm
+                    null,    //sortOrder
+                    null,    //parentId
+                    ItemFieldProfile.BULK_EDIT.getFields(),    //fields
+                    null,    //excludeItemTypes
+                    null,    //includeItemTypes
+                    null,    //anyProviderIdEquals
+                    null,    //filters
+                    null,    //isFavorite
+                    null,    //isMovie
+                    null,    //isSeries
+                    null,    //isFolder
+                    null,    //isNews
+                    null,    //isKids
+                    null,    //isSports
+                    null,    //isNew
+                    null,    //isPremiere
+                    null,    //isNewOrPremiere
+                    null,    //isRepeat
+                    null,    //projectToMedia
+                    null,    //mediaTypes
+                    null,    //imageTypes
+                    null,    //sortBy
+                    null,    //isPlayed
+                    null,    //genres
+                    null,    //officialRatings
+                    null,    //tags
+                    null,    //excludeTags
+                    null,    //years
+                    ItemFieldProfile.BULK_EDIT.getEnableImages(),    //enableImages
+                    ItemFieldProfile.BULK_EDIT.getEnableUserData(),    //enableUserData
+                    ItemFieldProfile.BULK_EDIT.getImageTypeLimit(),    //imageTypeLimit
+                    ItemFieldProfile.BULK_EDIT.getEnableImageTypes(),    //enableImageTypes
+                    null,    //person
+                    null,    //personIds
+                    null,    //personTypes
+                    null,    //studios
+                    null,    //studioIds
+                    null,    //artists
+                    null,    //artistIds
+                    null,    //albums
+                    ids,    //ids
+                    null,    //videoTypes
+                    null,    //containers
+                    null,    //audioCodecs
+                    null,    //audioLayouts
+                    null,    //videoCodecs
+                    null,    //extendedVideoTypes
+                    null,    //subtitleCodecs
+                    null,    //path
+                    userId,    //userId
+                    null,    //minOfficialRating
+                    null,    //isLocked
+                    null,    //isPlaceHolder
+                    null,    //hasOfficialRating
+                    null,    //groupItemsIntoCollections
+                    null,    //is3D
+                    null,    //seriesStatus
+                    null,    //nameStartsWithOrGreater
+                    null,    //artistStartsWithOrGreater
+                    null,    //albumArtistStartsWithOrGreater
+                    null,    //nameStartsWith
+                    null    //nameLessThan
+        );
+        if (result != null && result.getItems() != null) {
+            return result.getItems();
+        }
+        return Collections.emptyList();
     }
 
     /**
@@ -620,10 +867,20 @@ public class EmbyItemRepository implements IItemRepository {
     @Override
     public List<ImageInfo> getItemImages(String itemId) throws ApiException {
         // Gọi API lấy danh sách ảnh của item
-        List<ImageInfo> images = getImageServiceApi().getItemsByIdImages(itemId);
+        List<ImageInfo> images = itemImagesFlight.execute(itemId, () -> getImageServiceApi().getItemsByIdImages(itemId));
         if (images != null) {
             return images;
         }
         return Collections.emptyList();
     }
-}
\ No newline at end of file
+
+    /**
+     * Thống kê gộp request (single-flight): số request thực sự gửi đi
+     * và số lời gọi trùng lặp đã được gộp, theo từng loại truy vấn.
+     *
+     * @return Chuỗi mô tả thống kê.
+     */
+    public String getSingleFlightStats() {
+        return itemDetailsFlight + "; " + itemImagesFlight + "; " + paginatedFlight;
+    }
+}
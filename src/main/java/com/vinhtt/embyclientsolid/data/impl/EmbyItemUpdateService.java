@@ -5,9 +5,11 @@ import com.squareup.okhttp.OkHttpClient;
 import com.squareup.okhttp.Request;
 import com.squareup.okhttp.RequestBody;
 import com.squareup.okhttp.Response;
+import com.vinhtt.embyclientsolid.core.IBackgroundTaskService;
 import com.vinhtt.embyclientsolid.core.IEmbySessionService;
 import com.vinhtt.embyclientsolid.data.IItemUpdateService;
 import com.vinhtt.embyclientsolid.data.IItemRepository;
+import com.vinhtt.embyclientsolid.model.CloneProgress;
 import embyclient.ApiClient;
 import embyclient.ApiException;
 import embyclient.api.ImageServiceApi;
@@ -19,12 +21,15 @@ import embyclient.model.NameLongIdPair;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
 import java.util.ArrayList;
-import java.util.Base64;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Triển khai (Implementation) của IItemUpdateService.
@@ -37,17 +42,22 @@ public class EmbyItemUpdateService implements IItemUpdateService {
     private final ApiClient apiClient;
     // Cần IItemRepository để ĐỌC DTOs khi thực hiện logic CLONE
     private final IItemRepository itemRepository;
+    // Chạy các luồng của pipeline clone (tác vụ con loại BULK)
+    private final IBackgroundTaskService taskService;
 
     /**
      * Khởi tạo Service.
      *
      * @param sessionService Service Session (DI) để lấy ApiClient.
      * @param itemRepository Repository Đọc (DI) để lấy item khi clone.
+     * @param taskService    Service chạy tác vụ nền (DI) cho các luồng của pipeline clone.
      */
-    public EmbyItemUpdateService(IEmbySessionService sessionService, IItemRepository itemRepository) {
+    public EmbyItemUpdateService(IEmbySessionService sessionService, IItemRepository itemRepository,
+                                 IBackgroundTaskService taskService) {
         this.sessionService = sessionService;
         this.apiClient = sessionService.getApiClient();
         this.itemRepository = itemRepository;
+        this.taskService = taskService;
     }
 
     // --- Helpers để lấy API services ---
@@ -66,6 +76,8 @@ public class EmbyItemUpdateService implements IItemUpdateService {
     public void updateItem(String itemId, BaseItemDto item) throws ApiException {
         // Gọi API để POST (cập nhật) DTO mới
         getItemUpdateServiceApi().postItemsByItemid(item, itemId);
+        // Xóa bản cache cũ (nếu Repository có cache)
+        itemRepository.invalidateItem(itemId);
     }
 
     /**
@@ -75,12 +87,10 @@ public class EmbyItemUpdateService implements IItemUpdateService {
      * không hỗ trợ upload ảnh dạng Base64.
      */
     @Override
-    public void uploadImage(String itemId, ImageType imageType, File imageFile) throws Exception {
+    public void uploadImage(String itemId, ImageType imageType, File imageFile, BiConsumer<Long, Long> progressCallback) throws Exception {
 
-        // 1. Lấy OkHttpClient (client SẠCH, chỉ có auth)
-        // Chúng ta cần client này để thêm Interceptor xác thực
-        OkHttpClient client = new OkHttpClient();
-        client.interceptors().add(sessionService.getAuthHeaderInterceptor());
+        // 1. Lấy OkHttpClient dùng chung (đã có auth, tái sử dụng kết nối keep-alive)
+        OkHttpClient client = sessionService.getUploadHttpClient();
 
         // 2. Xây dựng URL API upload thủ công
         String serverUrl = apiClient.getBasePath();
@@ -92,18 +102,15 @@ public class EmbyItemUpdateService implements IItemUpdateService {
                 itemId,
                 imageType.getValue());
 
-        // 3. Đọc byte ảnh và mã hóa Base64
-        byte[] fileBytes = Files.readAllBytes(imageFile.toPath());
-        String base64String = Base64.getEncoder().encodeToString(fileBytes);
-
-        // 4. Xác định MediaType (ví dụ: "image/jpeg")
+        // 3. Xác định MediaType (ví dụ: "image/jpeg")
         MediaType originalMediaType = getMediaType(imageFile);
         if (originalMediaType == null) {
             throw new IOException("Không hỗ trợ định dạng file ảnh: " + imageFile.getName());
         }
 
-        // 5. Tạo RequestBody từ chuỗi Base64
-        RequestBody body = RequestBody.create(originalMediaType, base64String);
+        // 4-5. Tạo RequestBody mã hóa Base64 theo kiểu streaming
+        // (đọc file theo từng chunk, không nạp toàn bộ file/chuỗi Base64 vào bộ nhớ)
+        RequestBody body = new Base64FileRequestBody(imageFile, originalMediaType, progressCallback);
 
         // 6. Build Request
         Request request = new Request.Builder()
@@ -122,6 +129,8 @@ public class EmbyItemUpdateService implements IItemUpdateService {
         } else {
             response.body().close(); // Luôn đóng body
         }
+        // Ảnh (ImageTags) đã thay đổi -> xóa bản cache cũ
+        itemRepository.invalidateItem(itemId);
     }
 
     /**
@@ -144,6 +153,7 @@ public class EmbyItemUpdateService implements IItemUpdateService {
         // Gọi API xóa ảnh
         Integer index = (imageIndex == null) ? 0 : imageIndex;
         getImageServiceApi().deleteItemsByIdImagesByTypeByIndex(itemId, index, imageType);
+        itemRepository.invalidateItem(itemId);
     }
 
     // --- CLONE METHODS ---
@@ -152,161 +162,105 @@ public class EmbyItemUpdateService implements IItemUpdateService {
      * {@inheritDoc}
      */
     @Override
-    public int cloneTags(String sourceItemId, String targetParentId) throws ApiException {
-        // Lấy item nguồn (để copy)
-        BaseItemDto itemCopy = itemRepository.getFullItemDetails(sourceItemId);
-        if (itemCopy == null) return 0;
+    public CloneProgress cloneTags(String sourceItemId, String targetParentId,
+                                   Consumer<CloneProgress> progressCallback, BooleanSupplier cancelled) throws ApiException {
+        // Lấy item nguồn (để copy), mới nhất từ server (không dùng bản cache có thể đã cũ)
+        BaseItemDto itemCopy = itemRepository.getFreshItemDetails(sourceItemId);
+        if (itemCopy == null) return new CloneProgress(0, 0, 0, 0, 0);
         List<NameLongIdPair> listTagsItemCopy = itemCopy.getTagItems();
 
-        // Lấy danh sách item đích (để paste)
-        List<BaseItemDto> listItemPaste = itemRepository.getItemsPaginated(targetParentId, 0, 9999, "Ascending", "SortName").getItems();
-        if (listItemPaste == null || listItemPaste.isEmpty()) return 0;
-
-        int updateCount = 0;
-        for (BaseItemDto eachItemPaste : listItemPaste) {
-            BaseItemDto itemPaste = itemRepository.getFullItemDetails(eachItemPaste.getId());
-            if (itemPaste == null) continue;
-
-            // Logic Merge: Dùng Map để merge (ghi đè) tag cũ bằng tag mới nếu trùng tên
-            Map<String, NameLongIdPair> mergedTagsMap = new HashMap<>();
-            if (itemPaste.getTagItems() != null) {
-                for (NameLongIdPair existingTag : itemPaste.getTagItems()) {
-                    if (existingTag.getName() != null) mergedTagsMap.put(existingTag.getName(), existingTag);
-                }
-            }
-            if (listTagsItemCopy != null) {
-                for (NameLongIdPair newTag : listTagsItemCopy) {
-                    if (newTag.getName() != null) mergedTagsMap.put(newTag.getName(), newTag);
-                }
-            }
-
-            // Ghi đè danh sách tags và gọi API Update
-            itemPaste.setTagItems(new ArrayList<>(mergedTagsMap.values()));
-            updateItem(itemPaste.getId(), itemPaste);
-            updateCount++;
-        }
-        return updateCount;
+        // Merge tag nguồn vào từng item con (ghi đè tag cũ nếu trùng tên)
+        return newCloneEngine().run(targetParentId, sourceItemId,
+                itemPaste -> mergeByName(itemPaste.getTagItems(), listTagsItemCopy, NameLongIdPair::getName, itemPaste::setTagItems),
+                progressCallback, cancelled);
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public int cloneStudios(String sourceItemId, String targetParentId) throws ApiException {
-        // Lấy item nguồn
-        BaseItemDto itemCopy = itemRepository.getFullItemDetails(sourceItemId);
-        if (itemCopy == null) return 0;
+    public CloneProgress cloneStudios(String sourceItemId, String targetParentId,
+                                      Consumer<CloneProgress> progressCallback, BooleanSupplier cancelled) throws ApiException {
+        // Lấy item nguồn (mới nhất từ server)
+        BaseItemDto itemCopy = itemRepository.getFreshItemDetails(sourceItemId);
+        if (itemCopy == null) return new CloneProgress(0, 0, 0, 0, 0);
         List<NameLongIdPair> listStudoItemCopy = itemCopy.getStudios();
 
-        // Lấy item đích
-        List<BaseItemDto> listItemPaste = itemRepository.getItemsPaginated(targetParentId, 0, 9999, "Ascending", "SortName").getItems();
-        if (listItemPaste == null || listItemPaste.isEmpty()) return 0;
-
-        int updateCount = 0;
-        for (BaseItemDto eachItemPaste : listItemPaste) {
-            BaseItemDto itemPaste = itemRepository.getFullItemDetails(eachItemPaste.getId());
-            if (itemPaste == null) continue;
-
-            // Logic Merge (dùng Map)
-            Map<String, NameLongIdPair> mergedStudiosMap = new HashMap<>();
-            if (itemPaste.getStudios() != null) {
-                for (NameLongIdPair existing : itemPaste.getStudios()) {
-                    if (existing.getName() != null) mergedStudiosMap.put(existing.getName(), existing);
-                }
-            }
-            if (listStudoItemCopy != null) {
-                for (NameLongIdPair newStudio : listStudoItemCopy) {
-                    if (newStudio.getName() != null) mergedStudiosMap.put(newStudio.getName(), newStudio);
-                }
-            }
-
-            // Cập nhật
-            itemPaste.setStudios(new ArrayList<>(mergedStudiosMap.values()));
-            updateItem(itemPaste.getId(), itemPaste);
-            updateCount++;
-        }
-        return updateCount;
+        return newCloneEngine().run(targetParentId, sourceItemId,
+                itemPaste -> mergeByName(itemPaste.getStudios(), listStudoItemCopy, NameLongIdPair::getName, itemPaste::setStudios),
+                progressCallback, cancelled);
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public int clonePeople(String sourceItemId, String targetParentId) throws ApiException {
-        // Lấy item nguồn
-        BaseItemDto itemCopy = itemRepository.getFullItemDetails(sourceItemId);
-        if (itemCopy == null) return 0;
+    public CloneProgress clonePeople(String sourceItemId, String targetParentId,
+                                     Consumer<CloneProgress> progressCallback, BooleanSupplier cancelled) throws ApiException {
+        // Lấy item nguồn (mới nhất từ server)
+        BaseItemDto itemCopy = itemRepository.getFreshItemDetails(sourceItemId);
+        if (itemCopy == null) return new CloneProgress(0, 0, 0, 0, 0);
         List<BaseItemPerson> listPeopleItemCopy = itemCopy.getPeople();
 
-        // Lấy item đích
-        List<BaseItemDto> listItemPaste = itemRepository.getItemsPaginated(targetParentId, 0, 9999, "Ascending", "SortName").getItems();
-        if (listItemPaste == null || listItemPaste.isEmpty()) return 0;
-
-        int updateCount = 0;
-        for (BaseItemDto eachItemPaste : listItemPaste) {
-            if (eachItemPaste.getId().equals(sourceItemId)) continue; // Bỏ qua chính nó
-
-            BaseItemDto itemPaste = itemRepository.getFullItemDetails(eachItemPaste.getId());
-            if (itemPaste == null) continue;
-
-            // Logic Merge (dùng Map)
-            Map<String, BaseItemPerson> mergedPeopleMap = new HashMap<>();
-            if (itemPaste.getPeople() != null) {
-                for (BaseItemPerson existing : itemPaste.getPeople()) {
-                    if (existing.getName() != null) mergedPeopleMap.put(existing.getName(), existing);
-                }
-            }
-            if (listPeopleItemCopy != null) {
-                for (BaseItemPerson newPerson : listPeopleItemCopy) {
-                    if (newPerson.getName() != null) mergedPeopleMap.put(newPerson.getName(), newPerson);
-                }
-            }
-
-            // Cập nhật
-            itemPaste.setPeople(new ArrayList<>(mergedPeopleMap.values()));
-            updateItem(itemPaste.getId(), itemPaste);
-            updateCount++;
-        }
-        return updateCount;
+        return newCloneEngine().run(targetParentId, sourceItemId,
+                itemPaste -> mergeByName(itemPaste.getPeople(), listPeopleItemCopy, BaseItemPerson::getName, itemPaste::setPeople),
+                progressCallback, cancelled);
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public int cloneGenres(String sourceItemId, String targetParentId) throws ApiException {
-        // Lấy item nguồn
-        BaseItemDto itemCopy = itemRepository.getFullItemDetails(sourceItemId);
-        if (itemCopy == null) return 0;
+    public CloneProgress cloneGenres(String sourceItemId, String targetParentId,
+                                     Consumer<CloneProgress> progressCallback, BooleanSupplier cancelled) throws ApiException {
+        // Lấy item nguồn (mới nhất từ server)
+        BaseItemDto itemCopy = itemRepository.getFreshItemDetails(sourceItemId);
+        if (itemCopy == null) return new CloneProgress(0, 0, 0, 0, 0);
         List<NameLongIdPair> listGenresItemCopy = itemCopy.getGenreItems();
 
-        // Lấy item đích
-        List<BaseItemDto> listItemPaste = itemRepository.getItemsPaginated(targetParentId, 0, 9999, "Ascending", "SortName").getItems();
-        if (listItemPaste == null || listItemPaste.isEmpty()) return 0;
+        return newCloneEngine().run(targetParentId, sourceItemId,
+                itemPaste -> mergeByName(itemPaste.getGenreItems(), listGenresItemCopy, NameLongIdPair::getName, itemPaste::setGenreItems),
+                progressCallback, cancelled);
+    }
 
-        int updateCount = 0;
-        for (BaseItemDto eachItemPaste : listItemPaste) {
-            BaseItemDto itemPaste = itemRepository.getFullItemDetails(eachItemPaste.getId());
-            if (itemPaste == null) continue;
+    /**
+     * Tạo engine clone dùng Repository Đọc hiện tại và {@link #updateItem} để ghi.
+     */
+    private CloneEngine newCloneEngine() {
+        return new CloneEngine(itemRepository, taskService, this::updateItem);
+    }
 
-            // Logic Merge (dùng Map)
-            Map<String, NameLongIdPair> mergedGenresMap = new HashMap<>();
-            if (itemPaste.getGenreItems() != null) {
-                for (NameLongIdPair existing : itemPaste.getGenreItems()) {
-                    if (existing.getName() != null) mergedGenresMap.put(existing.getName(), existing);
-                }
+    /**
+     * Logic Merge chung: Dùng Map (theo tên) để merge danh sách mới vào danh sách cũ,
+     * phần tử mới sẽ ghi đè phần tử cũ nếu trùng tên.
+     * Sau đó so sánh cấu trúc (theo equals() của DTO) danh sách đã merge với danh sách cũ:
+     * chỉ khi khác nhau mới gán danh sách mới vào item.
+     *
+     * @param existing Danh sách hiện có của item đích (có thể null).
+     * @param incoming Danh sách từ item nguồn (có thể null).
+     * @param nameOf   Hàm lấy tên của phần tử.
+     * @param setter   Hàm gán danh sách đã merge vào item đích.
+     * @return true nếu danh sách thay đổi (item cần được ghi lại), false nếu không.
+     */
+    private <T> boolean mergeByName(List<T> existing, List<T> incoming, Function<T, String> nameOf, Consumer<List<T>> setter) {
+        Map<String, T> mergedMap = new LinkedHashMap<>();
+        if (existing != null) {
+            for (T item : existing) {
+                if (nameOf.apply(item) != null) mergedMap.put(nameOf.apply(item), item);
             }
-            if (listGenresItemCopy != null) {
-                for (NameLongIdPair newGenre : listGenresItemCopy) {
-                    if (newGenre.getName() != null) mergedGenresMap.put(newGenre.getName(), newGenre);
-                }
+        }
+        if (incoming != null) {
+            for (T item : incoming) {
+                if (nameOf.apply(item) != null) mergedMap.put(nameOf.apply(item), item);
             }
+        }
+        List<T> merged = new ArrayList<>(mergedMap.values());
 
-            // Cập nhật
-            itemPaste.setGenreItems(new ArrayList<>(mergedGenresMap.values()));
-            updateItem(itemPaste.getId(), itemPaste);
-            updateCount++;
+        List<T> before = (existing == null) ? Collections.emptyList() : existing;
+        if (before.equals(merged)) {
+            return false;
         }
-        return updateCount;
+        setter.accept(merged);
+        return true;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,340 @@
+package com.vinhtt.embyclientsolid.data.impl;
+
+import com.vinhtt.embyclientsolid.core.IEmbySessionService;
+import com.vinhtt.embyclientsolid.data.IItemRepository;
+import com.vinhtt.embyclientsolid.data.IPersonIndexService;
+import com.vinhtt.embyclientsolid.data.IStaticDataRepository;
+import com.vinhtt.embyclientsolid.model.Tag;
+import embyclient.ApiException;
+import embyclient.api.PersonsServiceApi;
+import embyclient.model.BaseItemDto;
+import embyclient.model.NameLongIdPair;
+import embyclient.model.QueryResultBaseItemDto;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+
+/**
+ * Triển khai (Implementation) của IPersonIndexService.
+ *
+ * Giữ một chỉ mục (index) trong bộ nhớ: tên đã "chuẩn hóa" (bỏ dấu, chữ thường,
+ * gộp khoảng trắng) -> Tag của người đó. Chỉ mục được xây từ danh sách People
+ * của {@link IStaticDataRepository} (đã được cache) và xây lại định kỳ.
+ * Tra cứu là O(1), không cần gọi mạng trong trường hợp thông thường;
+ * chỉ khi không tìm thấy mới hỏi server ({@code PersonsServiceApi}, tìm theo tên).
+ *
+ * Tags của từng người cũng được cache (theo ID người) trong một khoảng thời gian.
+ */
+public class EmbyPersonIndexService implements IPersonIndexService {
+
+    // Sau khoảng này (ms), chỉ mục tên được xây lại từ danh sách People
+    private static final long INDEX_TTL_MS = 5 * 60_000;
+    // Thời gian (ms) giữ Tags của một người trong cache
+    private static final long PERSON_TAGS_TTL_MS = 5 * 60_000;
+    // Số kết quả tối đa khi tìm người trên server
+    private static final int PERSON_SEARCH_LIMIT = 20;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final IEmbySessionService sessionService;
+    private final IStaticDataRepository staticDataRepository;
+    private final IItemRepository itemRepository;
+
+    // Chỉ mục hiện tại (thay thế nguyên khối bằng CAS khi xây lại)
+    private final AtomicReference<NameIndex> nameIndex = new AtomicReference<>();
+    private final Map<String, CachedTags> personTagsCache = new ConcurrentHashMap<>();
+
+    /**
+     * Chỉ mục tên của một phiên (server/user).
+     */
+    private static final class NameIndex {
+        final String scope;
+        final long builtAt;
+        final Map<String, Tag> byFoldedName;
+
+        NameIndex(String scope, long builtAt, Map<String, Tag> byFoldedName) {
+            this.scope = scope;
+            this.builtAt = builtAt;
+            this.byFoldedName = byFoldedName;
+        }
+    }
+
+    /**
+     * Tags của một người và thời điểm tải.
+     */
+    private static final class CachedTags {
+        final List<Tag> tags;
+        final long fetchedAt;
+
+        CachedTags(List<Tag> tags, long fetchedAt) {
+            this.tags = Collections.unmodifiableList(tags);
+            this.fetchedAt = fetchedAt;
+        }
+    }
+
+    /**
+     * Khởi tạo service.
+     *
+     * @param sessionService       Service Session (DI) để lấy ApiClient và phạm vi (server/user).
+     * @param staticDataRepository Repository gợi ý (nguồn danh sách People).
+     * @param itemRepository       Repository Đọc item (để lấy Tags của một người).
+     */
+    public EmbyPersonIndexService(IEmbySessionService sessionService, IStaticDataRepository staticDataRepository,
+                                  IItemRepository itemRepository) {
+        this.sessionService = sessionService;
+        this.staticDataRepository = staticDataRepository;
+        this.itemRepository = itemRepository;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Tag findPersonByName(String name) throws ApiException {
+        String foldedName = foldName(name);
+        if (foldedName.isEmpty()) return null;
+
+        // 1. Tra cứu cục bộ
+        NameIndex index = getIndex();
+        Tag person = index.byFoldedName.get(foldedName);
+        if (person != null) {
+            return person;
+        }
+
+        // 2. Không có trong chỉ mục (người mới thêm trên server?): hỏi server theo tên
+        person = searchPersonOnServer(name.trim(), foldedName);
+        if (person != null) {
+            index.byFoldedName.putIfAbsent(foldedName, person);
+        }
+        return person;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Tag> getPersonTags(String personId) throws ApiException {
+        if (personId == null) return Collections.emptyList();
+
+        CachedTags cached = personTagsCache.get(personId);
+        if (cached != null && System.currentTimeMillis() - cached.fetchedAt <= PERSON_TAGS_TTL_MS) {
+            return new ArrayList<>(cached.tags);
+        }
+
+        List<Tag> tags = new ArrayList<>();
+        // Đọc mới nhất từ server: kết quả còn được giữ thêm PERSON_TAGS_TTL_MS, không được dựa trên bản cache đã cũ
+        BaseItemDto personDto = itemRepository.getFreshItemDetails(personId);
+        if (personDto != null && personDto.getTagItems() != null) {
+            for (NameLongIdPair pair : personDto.getTagItems()) {
+                tags.add(Tag.parse(pair.getName(), pair.getId() != null ? pair.getId().toString() : null));
+            }
+        }
+        personTagsCache.put(personId, new CachedTags(tags, System.currentTimeMillis()));
+        return new ArrayList<>(tags);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void invalidatePerson(String itemId) {
+        if (itemId != null) {
+            personTagsCache.remove(itemId);
+        }
+    }
+
+    /**
+     * Lấy chỉ mục hiện tại, xây lại nếu đã cũ hoặc phiên đăng nhập đã thay đổi.
+     * Chỉ mục được xây NGOÀI khóa (lần đầu có thể phải tải cả danh sách People,
+     * giữ monitor lúc đó sẽ ghim carrier của virtual thread) rồi công bố bằng CAS;
+     * nếu luồng khác đã công bố trước, dùng chỉ mục của luồng đó.
+     */
+    private NameIndex getIndex() throws ApiException {
+        String scope = currentScope();
+        NameIndex index = nameIndex.get();
+        if (isUsable(index, scope)) {
+            return index;
+        }
+
+        NameIndex built = buildIndex(scope);
+        if (nameIndex.compareAndSet(index, built)) {
+            if (index == null || !index.scope.equals(scope)) {
+                // Đổi tài khoản: Tags đã cache không còn đúng
+                personTagsCache.clear();
+            }
+            return built;
+        }
+        NameIndex current = nameIndex.get();
+        return isUsable(current, scope) ? current : built;
+    }
+
+    private boolean isUsable(NameIndex index, String scope) {
+        return index != null && index.scope.equals(scope)
+                && System.currentTimeMillis() - index.builtAt <= INDEX_TTL_MS;
+    }
+
+    /**
+     * Xây chỉ mục từ danh sách People (đã được cache bởi Repository gợi ý).
+     * Nếu có nhiều người trùng tên sau khi chuẩn hóa, giữ người đầu tiên.
+     * Bỏ qua các giá trị chưa có ID (mới thêm cục bộ, chưa đồng bộ từ server).
+     */
+    private NameIndex buildIndex(String scope) throws ApiException {
+        List<Tag> people = staticDataRepository.getPeopleSuggestions();
+        Map<String, Tag> byFoldedName = new ConcurrentHashMap<>(Math.max(16, people.size() * 4 / 3));
+        for (Tag person : people) {
+            String foldedName = foldName(person.getDisplayName());
+            if (!foldedName.isEmpty() && person.getId() != null) {
+                byFoldedName.putIfAbsent(foldedName, person);
+            }
+        }
+        return new NameIndex(scope, System.currentTimeMillis(), byFoldedName);
+    }
+
+    /**
+     * Tìm người trên server (tìm kiếm theo tên), chỉ nhận kết quả trùng tên sau khi chuẩn hóa.
+     */
+    private Tag searchPersonOnServer(String name, String foldedName) throws ApiException {
+        PersonsServiceApi personsServiceApi = new PersonsServiceApi(sessionService.getApiClient());
+        QueryResultBaseItemDto result = personsServiceApi.getPersons(
+                null,    //artistType
+                null,    //maxOfficialRating
+                null,    //hasThemeSong
+                null,    //hasThemeVideo
+                null,    //hasSubtitles
+                null,    //hasSpecialFeature
+                null,    //hasTrailer
+                null,    //isSpecialSeason
+                null,    //adjacentTo
+                null,    //startItemId
+                null,    //minIndexNumber
+                null,    //minStartDate
+                null,    //maxStartDate
+                null,    //minEndDate
+                null,    //maxEndDate
+                null,    //minPlayers
+                null,    //maxPlayers
+                null,    //parentIndexNumber
+                null,    //hasParentalRating
+                null,    //isHD
+                null,    //isUnaired
+                null,    //minCommunityRating
+                null,    //minCriticRating
+                null,    //airedDuringSeason
+                null,    //minPremiereDate
+                null,    //minDateLastSaved
+                null,    //minDateLastSavedForUser
+                null,    //maxPremiereDate
+                null,    //hasOverview
+                null,    //hasImdbId
+                null,    //hasTmdbId
+                null,    //hasTvdbId
+                null,    //excludeItemIds
+                null,    //startIndex
+                PERSON_SEARCH_LIMIT,    //limit
+                true,    //recursive
+                name,    //searchTerm
+                null,    //sortOrder
+                null,    //parentId
+                null,    //fields
+                null,    //excludeItemTypes
+                null,    //includeItemTypes
+                null,    //anyProviderIdEquals
+                null,    //filters
+                null,    //isFavorite
+                null,    //isMovie
+                null,    //isSeries
+                null,    //isFolder
+                null,    //isNews
+                null,    //isKids
+                null,    //isSports
+                null,    //isNew
+                null,    //isPremiere
+                null,    //isNewOrPremiere
+                null,    //isRepeat
+                null,    //projectToMedia
+                null,    //mediaTypes
+                null,    //imageTypes
+                null,    //sortBy
+                null,    //isPlayed
+                null,    //genres
+                null,    //officialRatings
+                null,    //tags
+                null,    //excludeTags
+                null,    //years
+                null,    //enableImages
+                null,    //enableUserData
+                null,    //imageTypeLimit
+                null,    //enableImageTypes
+                null,    //person
+                null,    //personIds
+                null,    //personTypes
+                null,    //studios
+                null,    //studioIds
+                null,    //artists
+                null,    //artistIds
+                null,    //albums
+                null,    //ids
+                null,    //videoTypes
+                null,    //containers
+                null,    //audioCodecs
+                null,    //audioLayouts
+                null,    //videoCodecs
+                null,    //extendedVideoTypes
+                null,    //subtitleCodecs
+                null,    //path
+                null,    //userId
+                null,    //minOfficialRating
+                null,    //isLocked
+                null,    //isPlaceHolder
+                null,    //hasOfficialRating
+                null,    //groupItemsIntoCollections
+                null,    //is3D
+                null,    //seriesStatus
+                null,    //nameStartsWithOrGreater
+                null,    //artistStartsWithOrGreater
+                null,    //albumArtistStartsWithOrGreater
+                null,    //nameStartsWith
+                null    //nameLessThan
+        );
+
+        if (result == null || result.getItems() == null) return null;
+        for (BaseItemDto dto : result.getItems()) {
+            if (foldedName.equals(foldName(dto.getName()))) {
+                return Tag.parse(dto.getName(), dto.getId());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Phạm vi của chỉ mục (server, user), để không lẫn dữ liệu giữa các tài khoản.
+     */
+    private String currentScope() {
+        return sessionService.getApiClient().getBasePath() + "|" + sessionService.getCurrentUserId();
+    }
+
+    /**
+     * Chuẩn hóa tên để so sánh: bỏ dấu (kể cả "đ"), chữ thường, gộp khoảng trắng.
+     * Ví dụ: "  Đỗ  Thị Hà " -> "do thi ha".
+     *
+     * @param name Tên gốc (có thể null).
+     * @return Tên đã chuẩn hóa (rỗng nếu null).
+     */
+    static String foldName(String name) {
+        if (name == null) return "";
+        String decomposed = Normalizer.normalize(name, Normalizer.Form.NFD);
+        String folded = DIACRITICS.matcher(decomposed).replaceAll("")
+                .replace('đ', 'd')
+                .replace('Đ', 'D')
+                .toLowerCase(Locale.ROOT);
+        return WHITESPACE.matcher(folded).replaceAll(" ").trim();
+    }
+}
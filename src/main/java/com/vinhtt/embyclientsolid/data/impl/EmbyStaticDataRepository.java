@@ -15,6 +15,7 @@ import embyclient.model.QueryResultBaseItemDto;
 import embyclient.model.QueryResultUserLibraryTagItem;
 import embyclient.model.UserLibraryTagItem;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
@@ -28,6 +29,8 @@ import java.util.stream.Collectors;
 public class EmbyStaticDataRepository implements IStaticDataRepository {
 
     private final ApiClient apiClient;
+    // Gộp các request trùng lặp đang chạy đồng thời (khóa: loại dữ liệu)
+    private final SingleFlight<String, List<Tag>> suggestionsFlight = new SingleFlight<>("staticData");
 
     /**
      * Khởi tạo Repository.
@@ -61,6 +64,11 @@ public class EmbyStaticDataRepository implements IStaticDataRepository {
      */
     @Override
     public List<Tag> getAllUsedTags() throws ApiException {
+        // Mỗi người gọi nhận một bản sao danh sách (kết quả có thể được dùng chung)
+        return new ArrayList<>(suggestionsFlight.execute("tags", this::fetchAllUsedTags));
+    }
+
+    private List<Tag> fetchAllUsedTags() throws ApiException {
         TagServiceApi tagServiceApi = new TagServiceApi(apiClient);
         // Gọi API lấy tất cả các Tag (UserLibraryTagItem)
         QueryResultUserLibraryTagItem listTag = tagServiceApi.getTags(null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null);
@@ -82,6 +90,11 @@ public class EmbyStaticDataRepository implements IStaticDataRepository {
      */
     @Override
     public List<Tag> getGenreSuggestions() throws ApiException {
+        // Mỗi người gọi nhận một bản sao danh sách (kết quả có thể được dùng chung)
+        return new ArrayList<>(suggestionsFlight.execute("genres", this::fetchGenreSuggestions));
+    }
+
+    private List<Tag> fetchGenreSuggestions() throws ApiException {
         GenresServiceApi genresServiceApi = new GenresServiceApi(apiClient);
         // Gọi API lấy tất cả Genres (BaseItemDto)
         QueryResultBaseItemDto genreResult = genresServiceApi.getGenres(null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null);
@@ -95,6 +108,11 @@ public class EmbyStaticDataRepository implements IStaticDataRepository {
      */
     @Override
     public List<Tag> getStudioSuggestions() throws ApiException {
+        // Mỗi người gọi nhận một bản sao danh sách (kết quả có thể được dùng chung)
+        return new ArrayList<>(suggestionsFlight.execute("studios", this::fetchStudioSuggestions));
+    }
+
+    private List<Tag> fetchStudioSuggestions() throws ApiException {
         StudiosServiceApi studiosServiceApi = new StudiosServiceApi(apiClient);
         // Gọi API lấy tất cả Studios (BaseItemDto)
         QueryResultBaseItemDto resultBaseItemDto = studiosServiceApi.getStudios(null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null);
@@ -108,6 +126,11 @@ public class EmbyStaticDataRepository implements IStaticDataRepository {
      */
     @Override
     public List<Tag> getPeopleSuggestions() throws ApiException {
+        // Mỗi người gọi nhận một bản sao danh sách (kết quả có thể được dùng chung)
+        return new ArrayList<>(suggestionsFlight.execute("people", this::fetchPeopleSuggestions));
+    }
+
+    private List<Tag> fetchPeopleSuggestions() throws ApiException {
         PersonsServiceApi personsServiceApi = new PersonsServiceApi(apiClient);
         // Gọi API lấy tất cả People (BaseItemDto)
         QueryResultBaseItemDto resultBaseItemDto = personsServiceApi.getPersons(null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null);
@@ -115,4 +138,13 @@ public class EmbyStaticDataRepository implements IStaticDataRepository {
         // Dùng helper để parse danh sách DTO sang danh sách Tag
         return parseDtoListToTagList(resultBaseItemDto != null ? resultBaseItemDto.getItems() : null);
     }
-}
\ No newline at end of file
+
+    /**
+     * Thống kê gộp request (single-flight) của các truy vấn gợi ý.
+     *
+     * @return Chuỗi mô tả thống kê.
+     */
+    public String getSingleFlightStats() {
+        return suggestionsFlight.toString();
+    }
+}
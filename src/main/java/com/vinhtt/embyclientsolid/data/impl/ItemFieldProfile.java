@@ -0,0 +1,58 @@
+package com.vinhtt.embyclientsolid.data.impl;
+
+/**
+ * Các "profile" chọn trường (projection) cho truy vấn {@code /Items} của Emby.
+ * Mỗi profile quyết định các tham số {@code fields}, {@code enableImages},
+ * {@code imageTypeLimit}, {@code enableImageTypes} và {@code enableUserData},
+ * để payload chỉ chứa đúng những gì màn hình tương ứng hiển thị.
+ * Được dùng bởi {@link EmbyItemRepository}.
+ */
+enum ItemFieldProfile {
+
+    /**
+     * Cột 1 (Library Tree): chỉ cần Id, Name, IsFolder (luôn có sẵn), không cần ảnh.
+     */
+    TREE_NODE(null, false, null, null, false),
+
+    /**
+     * Phát (mở) file: chỉ cần đường dẫn file.
+     */
+    PLAY("Path", false, null, null, false),
+
+    /**
+     * Thẻ (card) ở Cột 2 (Item Grid): tiêu đề, badge điểm, ảnh Primary.
+     * Bao gồm luôn các trường của {@link #PLAY} để double-click phát không cần gọi thêm API.
+     */
+    GRID_CARD("CriticRating," + PLAY.fields, true, 1, "Primary", false),
+
+    /**
+     * Đọc hàng loạt (clone, sao chép theo ID): chỉ các trường mà hàm merge / sao chép đọc
+     * (TagItems, Studios, People, Genres/GenreItems) và Etag, DateLastSaved.
+     * Ảnh và UserData không cần lấy. ("Tags" là tên trường trả về TagItems.)
+     * DTO này KHÔNG được ghi lại lên server (API update sẽ xóa các trường không có ở đây);
+     * nền để ghi luôn là DTO từ API chi tiết một item.
+     */
+    BULK_EDIT(String.join(",",
+            "DateLastSaved", "Etag", "Genres", "People", "Studios", "Tags"), false, null, null, false);
+
+    private final String fields;
+    private final Boolean enableImages;
+    private final Integer imageTypeLimit;
+    private final String enableImageTypes;
+    private final Boolean enableUserData;
+
+    ItemFieldProfile(String fields, Boolean enableImages, Integer imageTypeLimit, String enableImageTypes, Boolean enableUserData) {
+        this.fields = fields;
+        this.enableImages = enableImages;
+        this.imageTypeLimit = imageTypeLimit;
+        this.enableImageTypes = enableImageTypes;
+        this.enableUserData = enableUserData;
+    }
+
+    // --- Getters (truyền thẳng vào ItemsServiceApi.getItems) ---
+    String getFields() { return fields; }
+    Boolean getEnableImages() { return enableImages; }
+    Integer getImageTypeLimit() { return imageTypeLimit; }
+    String getEnableImageTypes() { return enableImageTypes; }
+    Boolean getEnableUserData() { return enableUserData; }
+}
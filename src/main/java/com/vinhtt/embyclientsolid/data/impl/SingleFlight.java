@@ -0,0 +1,134 @@
+package com.vinhtt.embyclientsolid.data.impl;
+
+import embyclient.ApiException;
+
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.nio.channels.ClosedByInterruptException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Helper gộp (coalesce) các request giống nhau đang chạy đồng thời ("single-flight").
+ * Nếu một lời gọi với cùng khóa (key) đang chạy, các lời gọi sau sẽ chờ và
+ * dùng chung kết quả (hoặc lỗi) của nó thay vì gửi thêm một request HTTP trùng lặp.
+ * Khi request hoàn tất, khóa bị xóa: lời gọi kế tiếp sẽ gửi request mới.
+ *
+ * Lưu ý: các lời gọi được gộp nhận CÙNG một đối tượng kết quả.
+ * Nếu lời gọi đang chạy thất bại vì luồng của nó bị ngắt (interrupt, ví dụ tác vụ tải trước bị hủy),
+ * lỗi đó không được chuyển cho các lời gọi đã gộp: chúng tự thực hiện lại lời gọi.
+ * Được dùng bởi {@link EmbyItemRepository} và {@link EmbyStaticDataRepository}.
+ *
+ * @param <K> Kiểu của khóa.
+ * @param <V> Kiểu của kết quả.
+ */
+class SingleFlight<K, V> {
+
+    /**
+     * Một lời gọi API (có thể ném ApiException).
+     */
+    interface Call<V> {
+        V call() throws ApiException;
+    }
+
+    private final String name;
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    // Số request thực sự được gửi đi
+    private final AtomicLong executedCount = new AtomicLong();
+    // Số lời gọi đã được gộp vào một request đang chạy (không gửi request mới)
+    private final AtomicLong collapsedCount = new AtomicLong();
+
+    /**
+     * @param name Tên (dùng khi in thống kê).
+     */
+    SingleFlight(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Thực thi lời gọi, hoặc chờ kết quả của lời gọi cùng khóa đang chạy.
+     *
+     * @param key  Khóa xác định request (các request cùng khóa phải cho cùng kết quả).
+     * @param call Lời gọi API thực tế.
+     * @return Kết quả (có thể dùng chung với các lời gọi khác).
+     * @throws ApiException Nếu request (của mình hoặc request được gộp) thất bại.
+     */
+    V execute(K key, Call<V> call) throws ApiException {
+        CompletableFuture<V> ownFuture = new CompletableFuture<>();
+        CompletableFuture<V> runningFuture;
+        while ((runningFuture = inFlight.putIfAbsent(key, ownFuture)) != null) {
+            collapsedCount.incrementAndGet();
+            try {
+                return await(runningFuture);
+            } catch (LeaderInterruptedException e) {
+                // Lời gọi đang chạy bị ngắt: thử lại (gửi request riêng hoặc gộp vào request mới)
+            }
+        }
+
+        executedCount.incrementAndGet();
+        V result;
+        try {
+            result = call.call();
+        } catch (Throwable e) {
+            // Xóa khóa TRƯỚC khi báo lỗi, để lời gọi thử lại không gặp lại future này
+            inFlight.remove(key, ownFuture);
+            ownFuture.completeExceptionally(isInterruption(e) ? new LeaderInterruptedException() : e);
+            throw e;
+        }
+        inFlight.remove(key, ownFuture);
+        ownFuture.complete(result);
+        return result;
+    }
+
+    /**
+     * Lỗi có phải do luồng đang chạy lời gọi bị ngắt (hủy tác vụ) chứ không phải do server/mạng?
+     */
+    private static boolean isInterruption(Throwable error) {
+        if (Thread.currentThread().isInterrupted()) return true;
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof InterruptedException || t instanceof ClosedByInterruptException) return true;
+            // (SocketTimeoutException cũng là InterruptedIOException nhưng là lỗi thật)
+            if (t instanceof InterruptedIOException && !(t instanceof SocketTimeoutException)) return true;
+            if (t.getCause() == t) break;
+        }
+        return false;
+    }
+
+    /**
+     * Báo cho các lời gọi đã gộp rằng lời gọi đang chạy bị ngắt (không phải lỗi thật).
+     */
+    private static final class LeaderInterruptedException extends RuntimeException {
+        LeaderInterruptedException() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * Chờ kết quả của request đang chạy và "mở gói" lỗi về ApiException/RuntimeException.
+     */
+    private V await(CompletableFuture<V> future) throws ApiException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApiException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ApiException) throw (ApiException) cause;
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new ApiException(cause);
+        }
+    }
+
+    // --- Thống kê ---
+    long getExecutedCount() { return executedCount.get(); }
+    long getCollapsedCount() { return collapsedCount.get(); }
+
+    @Override
+    public String toString() {
+        return name + ": " + executedCount.get() + " request, " + collapsedCount.get() + " lời gọi được gộp";
+    }
+}
@@ -0,0 +1,103 @@
+package com.vinhtt.embyclientsolid.model;
+
+import com.google.gson.ExclusionStrategy;
+import com.google.gson.FieldAttributes;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import embyclient.JSON;
+import embyclient.model.BaseItemDto;
+import embyclient.model.BaseItemPerson;
+import embyclient.model.NameLongIdPair;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Helper tạo bản sao sâu (deep copy) của {@link BaseItemDto}, thay cho cách cũ
+ * {@code gson.fromJson(gson.toJson(dto))} (tạo cả chuỗi JSON của toàn bộ item cho mỗi lần sao chép).
+ *
+ * Các danh sách lồng nhau lớn (People, Studios, TagItems, GenreItems, Genres, Tags, ImageTags,
+ * BackdropImageTags) được sao chép trực tiếp từng phần tử, không qua JSON.
+ * Phần còn lại (các trường đơn, UserData...) vẫn được sao chép qua Gson, nhưng dưới dạng cây JSON
+ * (không tạo chuỗi) và không chứa các danh sách trên, nên nhỏ: DTO có hàng trăm trường,
+ * tự liệt kê hết sẽ dễ bỏ sót trường khi SDK thay đổi (và DTO sao chép được gửi lại server khi lưu).
+ */
+public final class BaseItemDtoCopier {
+
+    // Tên field Java (trong BaseItemDto) của các danh sách được sao chép trực tiếp
+    private static final Set<String> COPIED_DIRECTLY = Set.of(
+            "people", "studios", "tagItems", "genreItems", "genres", "tags", "imageTags", "backdropImageTags");
+
+    // Adapter Gson cho phần còn lại của DTO (bỏ qua các danh sách trên)
+    private static final TypeAdapter<BaseItemDto> REMAINDER_ADAPTER = new GsonBuilder()
+            .registerTypeAdapter(OffsetDateTime.class, new JSON.OffsetDateTimeTypeAdapter())
+            .setExclusionStrategies(new ExclusionStrategy() {
+                @Override
+                public boolean shouldSkipField(FieldAttributes field) {
+                    return field.getDeclaringClass() == BaseItemDto.class && COPIED_DIRECTLY.contains(field.getName());
+                }
+
+                @Override
+                public boolean shouldSkipClass(Class<?> clazz) {
+                    return false;
+                }
+            })
+            .create()
+            .getAdapter(BaseItemDto.class);
+
+    private BaseItemDtoCopier() {
+    }
+
+    /**
+     * Tạo bản sao sâu của DTO: sửa bản sao (kể cả các danh sách bên trong) không ảnh hưởng bản gốc.
+     *
+     * @param source DTO gốc (có thể null).
+     * @return Bản sao, hoặc null nếu {@code source} là null.
+     */
+    public static BaseItemDto copy(BaseItemDto source) {
+        if (source == null) return null;
+
+        BaseItemDto copy = REMAINDER_ADAPTER.fromJsonTree(REMAINDER_ADAPTER.toJsonTree(source));
+        copy.setPeople(copyPeople(source.getPeople()));
+        copy.setStudios(copyPairs(source.getStudios()));
+        copy.setTagItems(copyPairs(source.getTagItems()));
+        copy.setGenreItems(copyPairs(source.getGenreItems()));
+        copy.setGenres(copyStrings(source.getGenres()));
+        copy.setTags(copyStrings(source.getTags()));
+        copy.setImageTags((source.getImageTags() != null) ? new LinkedHashMap<>(source.getImageTags()) : null);
+        copy.setBackdropImageTags(copyStrings(source.getBackdropImageTags()));
+        return copy;
+    }
+
+    private static List<NameLongIdPair> copyPairs(List<NameLongIdPair> source) {
+        if (source == null) return null;
+        List<NameLongIdPair> copy = new ArrayList<>(source.size());
+        for (NameLongIdPair pair : source) {
+            copy.add((pair != null) ? new NameLongIdPair().name(pair.getName()).id(pair.getId()) : null);
+        }
+        return copy;
+    }
+
+    private static List<BaseItemPerson> copyPeople(List<BaseItemPerson> source) {
+        if (source == null) return null;
+        List<BaseItemPerson> copy = new ArrayList<>(source.size());
+        for (BaseItemPerson person : source) {
+            if (person == null) {
+                copy.add(null);
+                continue;
+            }
+            BaseItemPerson personCopy = new BaseItemPerson().name(person.getName()).id(person.getId()).type(person.getType());
+            personCopy.setRole(person.getRole());
+            personCopy.setPrimaryImageTag(person.getPrimaryImageTag());
+            copy.add(personCopy);
+        }
+        return copy;
+    }
+
+    private static List<String> copyStrings(List<String> source) {
+        return (source != null) ? new ArrayList<>(source) : null;
+    }
+}
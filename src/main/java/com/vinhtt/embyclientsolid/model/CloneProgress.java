@@ -0,0 +1,40 @@
+package com.vinhtt.embyclientsolid.model;
+
+/**
+ * Lớp POJO (bất biến) chứa ảnh chụp (snapshot) tiến trình của một lần
+ * nhân bản (clone) thuộc tính sang các item con (UR-37).
+ * Được gửi liên tục từ luồng nền về ViewModel để hiển thị trạng thái,
+ * và cũng là kết quả cuối cùng của lần nhân bản.
+ */
+public class CloneProgress {
+
+    private final int totalItems;
+    private final int processedItems;
+    private final int updatedItems;
+    private final int unchangedItems;
+    private final int failedItems;
+
+    /**
+     * Khởi tạo một snapshot tiến trình.
+     *
+     * @param totalItems     Tổng số item con (theo server; có thể là 0 nếu chưa biết).
+     * @param processedItems Số item đã xử lý xong (thành công hoặc lỗi).
+     * @param updatedItems   Số item có thay đổi và đã được ghi (update) thành công.
+     * @param unchangedItems Số item đã có sẵn mọi giá trị nguồn (không cần ghi).
+     * @param failedItems    Số item bị lỗi khi đọc hoặc ghi.
+     */
+    public CloneProgress(int totalItems, int processedItems, int updatedItems, int unchangedItems, int failedItems) {
+        this.totalItems = totalItems;
+        this.processedItems = processedItems;
+        this.updatedItems = updatedItems;
+        this.unchangedItems = unchangedItems;
+        this.failedItems = failedItems;
+    }
+
+    // --- Getters ---
+    public int getTotalItems() { return totalItems; }
+    public int getProcessedItems() { return processedItems; }
+    public int getUpdatedItems() { return updatedItems; }
+    public int getUnchangedItems() { return unchangedItems; }
+    public int getFailedItems() { return failedItems; }
+}
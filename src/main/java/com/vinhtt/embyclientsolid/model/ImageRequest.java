@@ -0,0 +1,110 @@
+package com.vinhtt.embyclientsolid.model;
+
+import java.util.Objects;
+
+/**
+ * Lớp POJO (bất biến) mô tả một ảnh của item trên Emby cần hiển thị,
+ * dùng làm khóa cho cache ảnh ({@code IImageCacheService}).
+ * Hai yêu cầu bằng nhau (equals) sẽ dùng chung một ảnh đã giải mã.
+ *
+ * Kích thước (maxWidth/maxHeight) là kích thước hiển thị thật trên màn hình (pixel vật lý,
+ * đã nhân hệ số DPI), được làm tròn lên theo {@link #SIZE_BUCKETS} để các node có kích thước
+ * gần nhau vẫn dùng chung cache. Ảnh được giải mã đúng kích thước này:
+ * nếu có cả hai chiều, ảnh được co giãn vừa khung (như ImageView có preserveRatio=false);
+ * nếu chỉ có một chiều (chiều kia = 0), ảnh giữ tỉ lệ.
+ */
+public class ImageRequest {
+
+    private final String itemId;
+    private final String imageType;
+    private final Integer imageIndex;
+    private final String imageTag;
+    private final int maxWidth;
+    private final int maxHeight;
+
+    // Các mức kích thước (px) được yêu cầu từ server
+    private static final int[] SIZE_BUCKETS = {120, 180, 240, 360, 480, 720, 960, 1280, 1600, 1920, 2560, 3840};
+
+    /**
+     * Khởi tạo yêu cầu ảnh.
+     *
+     * @param itemId     ID của item.
+     * @param imageType  Loại ảnh (ví dụ: "Primary", "Backdrop").
+     * @param imageIndex Vị trí ảnh (cho Backdrop), hoặc null.
+     * @param imageTag   Tag (phiên bản) ảnh từ Emby, hoặc null. Tag đổi khi ảnh được thay.
+     * @param maxWidth   Chiều rộng (px) ảnh hiển thị, hoặc 0 nếu không giới hạn.
+     * @param maxHeight  Chiều cao (px) ảnh hiển thị, hoặc 0 nếu không giới hạn.
+     */
+    public ImageRequest(String itemId, String imageType, Integer imageIndex, String imageTag, int maxWidth, int maxHeight) {
+        this.itemId = itemId;
+        this.imageType = imageType;
+        this.imageIndex = imageIndex;
+        this.imageTag = imageTag;
+        this.maxWidth = maxWidth;
+        this.maxHeight = maxHeight;
+    }
+
+    /**
+     * Làm tròn kích thước hiển thị lên mức gần nhất trong {@link #SIZE_BUCKETS}.
+     *
+     * @param displaySize Kích thước của node (px logic).
+     * @param outputScale Hệ số DPI của màn hình (Window.getOutputScaleX/Y), ví dụ 1.0, 1.5, 2.0.
+     * @return Kích thước (px vật lý) cần yêu cầu.
+     */
+    public static int bucketSize(double displaySize, double outputScale) {
+        double scale = (outputScale > 0) ? outputScale : 1.0;
+        int pixels = (int) Math.ceil(displaySize * scale);
+        for (int bucket : SIZE_BUCKETS) {
+            if (bucket >= pixels) return bucket;
+        }
+        return SIZE_BUCKETS[SIZE_BUCKETS.length - 1];
+    }
+
+    public String getItemId() {
+        return itemId;
+    }
+
+    public String getImageType() {
+        return imageType;
+    }
+
+    public Integer getImageIndex() {
+        return imageIndex;
+    }
+
+    public String getImageTag() {
+        return imageTag;
+    }
+
+    public int getMaxWidth() {
+        return maxWidth;
+    }
+
+    public int getMaxHeight() {
+        return maxHeight;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ImageRequest)) return false;
+        ImageRequest that = (ImageRequest) o;
+        return maxWidth == that.maxWidth
+                && maxHeight == that.maxHeight
+                && Objects.equals(itemId, that.itemId)
+                && Objects.equals(imageType, that.imageType)
+                && Objects.equals(imageIndex, that.imageIndex)
+                && Objects.equals(imageTag, that.imageTag);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(itemId, imageType, imageIndex, imageTag, maxWidth, maxHeight);
+    }
+
+    @Override
+    public String toString() {
+        return itemId + "/" + imageType + (imageIndex != null ? "/" + imageIndex : "")
+                + "?tag=" + imageTag + "&maxWidth=" + maxWidth + "&maxHeight=" + maxHeight;
+    }
+}
@@ -5,6 +5,7 @@ import com.google.gson.JsonObject;
 import com.google.gson.JsonSyntaxException;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Lớp Model (POJO) cốt lõi đại diện cho một Tag (hoặc Studio, People, Genre).
@@ -16,18 +17,33 @@ import java.util.Objects;
  * 2. Dạng Key-Value (JSON) (ví dụ: chuỗi "{\"Body\":\"Slim\"}").
  *
  * Lớp này cũng lưu trữ 'id' gốc từ Emby (nếu có).
+ *
+ * Tag là bất biến (immutable): chuỗi serialize, tên hiển thị và hash được tính một lần.
+ * {@link #parse(String, String)} dùng một bảng "intern" (có giới hạn) để các chuỗi thô
+ * giống nhau dùng chung một đối tượng Tag, và phân tích dạng JSON phổ biến
+ * {@code {"key":"value"}} bằng code viết tay (chỉ dùng Gson cho các dạng khác).
  */
 public class Tag {
 
     // Đối tượng Gson tĩnh để parse JSON
     private static final Gson gson = new Gson();
 
+    // Số Tag tối đa trong bảng intern (khi đầy sẽ xóa toàn bộ và bắt đầu lại)
+    private static final int INTERN_CAPACITY = 100_000;
+    // Khóa: chuỗi thô (+ ID nếu có) -> Tag đã parse
+    private static final Map<String, Tag> internTable = new ConcurrentHashMap<>();
+
     private final boolean isJson;
     private final String simpleName; // Chỉ dùng nếu isJson = false
     private final String key;        // Chỉ dùng nếu isJson = true
     private final String value;      // Chỉ dùng nếu isJson = true
     private final String id;         // ID gốc từ Emby (có thể là null)
 
+    // --- Giá trị được tính sẵn (Tag là bất biến) ---
+    private final String displayName;
+    private final int hash;
+    private String serialized;       // Tính khi cần (lazy), race vô hại vì kết quả luôn giống nhau
+
     /**
      * Khởi tạo một Tag dạng chuỗi đơn giản (Simple).
      *
@@ -40,6 +56,9 @@ public class Tag {
         this.key = null;
         this.value = null;
         this.id = id;
+        this.displayName = simpleName;
+        this.hash = Objects.hash(false, simpleName, null, null, id);
+        this.serialized = simpleName;
     }
 
     /**
@@ -55,6 +74,8 @@ public class Tag {
         this.key = key;
         this.value = value;
         this.id = id;
+        this.displayName = key + " | " + value;
+        this.hash = Objects.hash(true, null, key, value, id);
     }
 
     /**
@@ -71,6 +92,7 @@ public class Tag {
     /**
      * Phân tích (parse) một chuỗi 'Name' (từ API) và gán ID (nếu có)
      * vào đối tượng Tag.
+     * Các lời gọi với cùng chuỗi thô và ID trả về cùng một đối tượng (intern).
      *
      * @param rawName Chuỗi thô từ API.
      * @param id      ID gốc từ Emby (có thể là null).
@@ -82,8 +104,32 @@ public class Tag {
             return new Tag("Trống", id);
         }
 
+        String internKey = (id == null) ? rawName : rawName + '\u0000' + id;
+        Tag cached = internTable.get(internKey);
+        if (cached != null) {
+            return cached;
+        }
+
+        Tag parsed = parseUncached(rawName, id);
+        if (internTable.size() >= INTERN_CAPACITY) {
+            internTable.clear(); // Giới hạn bộ nhớ: bắt đầu lại từ đầu
+        }
+        Tag existing = internTable.putIfAbsent(internKey, parsed);
+        return (existing != null) ? existing : parsed;
+    }
+
+    /**
+     * Logic parse thực tế (không qua bảng intern).
+     */
+    private static Tag parseUncached(String rawName, String id) {
         // Kiểm tra xem có phải là chuỗi JSON thô hay không
         if (rawName.startsWith("{") && rawName.endsWith("}")) {
+            // Đường nhanh: dạng {"key":"value"} (một cặp, cả hai là chuỗi)
+            String[] keyValue = parseSingleStringEntry(rawName);
+            if (keyValue != null) {
+                return new Tag(keyValue[0], keyValue[1], id);
+            }
+
             try {
                 // Thử parse JSON
                 JsonObject jsonObject = gson.fromJson(rawName, JsonObject.class);
@@ -113,15 +159,19 @@ public class Tag {
      * @return Chuỗi đã được serialize (ví dụ: "Beautiful Girl" hoặc "{\"Body\":\"Slim\"}").
      */
     public String serialize() {
-        if (isJson) {
-            // Nếu là JSON, tạo lại đối tượng JSON
-            JsonObject jsonObject = new JsonObject();
-            jsonObject.addProperty(key, value);
-            return gson.toJson(jsonObject);
-        } else {
-            // Nếu là Simple, trả về tên
-            return simpleName;
+        String result = serialized;
+        if (result == null && isJson) {
+            // Nếu là JSON, tạo chuỗi JSON (giống hệt gson.toJson của một JsonObject một cặp)
+            StringBuilder json = new StringBuilder(key.length() + value.length() + 7);
+            json.append('{');
+            appendJsonString(json, key);
+            json.append(':');
+            appendJsonString(json, value);
+            json.append('}');
+            result = json.toString();
+            serialized = result;
         }
+        return result;
     }
 
     /**
@@ -130,11 +180,7 @@ public class Tag {
      * @return Chuỗi để hiển thị (ví dụ: "Body | Slim" hoặc "Beautiful Girl").
      */
     public String getDisplayName() {
-        if (isJson) {
-            return String.format("%s | %s", key, value);
-        } else {
-            return simpleName;
-        }
+        return displayName;
     }
 
     /**
@@ -194,7 +240,128 @@ public class Tag {
      */
     @Override
     public int hashCode() {
-        return Objects.hash(isJson, simpleName, key, value, id); // Thêm ID vào hash
+        return hash; // Đã tính sẵn trong constructor (bao gồm cả ID)
+    }
+
+    // --- Helpers JSON viết tay (dạng một cặp key-value) ---
+
+    /**
+     * Phân tích chuỗi dạng {@code {"key":"value"}} (cho phép khoảng trắng).
+     *
+     * @return Mảng [key, value], hoặc null nếu không đúng dạng này (để Gson xử lý).
+     */
+    private static String[] parseSingleStringEntry(String raw) {
+        int[] position = {skipWhitespace(raw, 1)};
+        String parsedKey = readJsonString(raw, position);
+        if (parsedKey == null) return null;
+
+        int i = skipWhitespace(raw, position[0]);
+        if (i >= raw.length() || raw.charAt(i) != ':') return null;
+        position[0] = skipWhitespace(raw, i + 1);
+
+        String parsedValue = readJsonString(raw, position);
+        if (parsedValue == null) return null;
+
+        // Phải kết thúc ngay sau value (không có cặp thứ hai)
+        i = skipWhitespace(raw, position[0]);
+        if (i != raw.length() - 1) return null;
+        return new String[]{parsedKey, parsedValue};
+    }
+
+    private static int skipWhitespace(String text, int i) {
+        while (i < text.length() && Character.isWhitespace(text.charAt(i))) i++;
+        return i;
+    }
+
+    /**
+     * Đọc một chuỗi JSON bắt đầu tại position[0] (phải là dấu nháy kép),
+     * cập nhật position[0] sang ký tự ngay sau dấu nháy đóng.
+     *
+     * @return Chuỗi đã giải mã escape, hoặc null nếu không hợp lệ.
+     */
+    private static String readJsonString(String text, int[] position) {
+        int i = position[0];
+        if (i >= text.length() || text.charAt(i) != '"') return null;
+        StringBuilder result = new StringBuilder();
+        i++;
+        while (i < text.length()) {
+            char c = text.charAt(i++);
+            if (c == '"') {
+                position[0] = i;
+                return result.toString();
+            }
+            if (c != '\\') {
+                result.append(c);
+                continue;
+            }
+            if (i >= text.length()) return null;
+            char escaped = text.charAt(i++);
+            switch (escaped) {
+                case '"': result.append('"'); break;
+                case '\\': result.append('\\'); break;
+                case '/': result.append('/'); break;
+                case 'b': result.append('\b'); break;
+                case 'f': result.append('\f'); break;
+                case 'n': result.append('\n'); break;
+                case 'r': result.append('\r'); break;
+                case 't': result.append('\t'); break;
+                case 'u':
+                    // Đúng 4 chữ số hex ASCII như Gson (Integer.parseInt chấp nhận cả dấu +/-)
+                    if (i + 4 > text.length()) return null;
+                    int codeUnit = 0;
+                    for (int end = i + 4; i < end; i++) {
+                        int digit = hexDigit(text.charAt(i));
+                        if (digit < 0) return null;
+                        codeUnit = (codeUnit << 4) | digit;
+                    }
+                    result.append((char) codeUnit);
+                    break;
+                default:
+                    return null;
+            }
+        }
+        return null; // Thiếu dấu nháy đóng
+    }
+
+    /**
+     * Giá trị của một chữ số hex ASCII (0-9, a-f, A-F), hoặc -1 nếu không phải.
+     */
+    private static int hexDigit(char c) {
+        if (c >= '0' && c <= '9') return c - '0';
+        if (c >= 'a' && c <= 'f') return c - 'a' + 10;
+        if (c >= 'A' && c <= 'F') return c - 'A' + 10;
+        return -1;
+    }
+
+    /**
+     * Ghi một chuỗi JSON (có dấu nháy), escape giống hệt Gson mặc định
+     * (bao gồm escape HTML: &lt; &gt; &amp; = ').
+     */
+    private static void appendJsonString(StringBuilder out, String text) {
+        out.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"': out.append("\\\""); break;
+                case '\\': out.append("\\\\"); break;
+                case '\t': out.append("\\t"); break;
+                case '\b': out.append("\\b"); break;
+                case '\n': out.append("\\n"); break;
+                case '\r': out.append("\\r"); break;
+                case '\f': out.append("\\f"); break;
+                case '<': case '>': case '&': case '=': case '\'':
+                case '\u2028': case '\u2029':
+                    out.append(String.format("\\u%04x", (int) c));
+                    break;
+                default:
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        out.append('"');
     }
 
     /**
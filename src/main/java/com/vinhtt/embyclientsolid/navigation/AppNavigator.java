@@ -6,6 +6,7 @@ import com.vinhtt.embyclientsolid.core.*;
 import com.vinhtt.embyclientsolid.data.IExternalDataService;
 import com.vinhtt.embyclientsolid.data.IItemRepository;
 import com.vinhtt.embyclientsolid.data.IItemUpdateService;
+import com.vinhtt.embyclientsolid.data.IPersonIndexService;
 import com.vinhtt.embyclientsolid.data.IStaticDataRepository;
 import com.vinhtt.embyclientsolid.model.SuggestionContext;
 import com.vinhtt.embyclientsolid.model.Tag;
@@ -62,8 +63,11 @@ public class AppNavigator implements IAppNavigator {
     private final IPreferenceService preferenceService;
     private final INotificationService notificationService;
     private final ILocalInteractionService localInteractionService;
+    private final IImageCacheService imageCacheService;
+    private final IBackgroundTaskService taskService;
     private final IItemRepository itemRepository;
     private final IStaticDataRepository staticDataRepository;
+    private final IPersonIndexService personIndexService;
     private final IItemUpdateService itemUpdateService;
     private final IExternalDataService externalDataService;
 
@@ -97,8 +101,11 @@ public class AppNavigator implements IAppNavigator {
      * @param preferenceService    Dịch vụ lưu trữ cài đặt người dùng.
      * @param notificationService  Dịch vụ hiển thị thông báo.
      * @param localInteractionService Dịch vụ tương tác file cục bộ.
+     * @param imageCacheService    Dịch vụ cache ảnh (dùng chung cho Cột 2 và Cột 3).
+     * @param taskService          Dịch vụ chạy tác vụ nền (dùng chung cho mọi ViewModel).
      * @param itemRepository       Dịch vụ ĐỌC dữ liệu item.
      * @param staticDataRepository Dịch vụ ĐỌC dữ liệu tĩnh (gợi ý).
+     * @param personIndexService   Dịch vụ tra cứu People theo tên.
      * @param itemUpdateService    Dịch vụ GHI dữ liệu item.
      * @param externalDataService  Dịch vụ gọi API bên ngoài.
      */
@@ -109,8 +116,11 @@ public class AppNavigator implements IAppNavigator {
             IPreferenceService preferenceService,
             INotificationService notificationService,
             ILocalInteractionService localInteractionService,
+            IImageCacheService imageCacheService,
+            IBackgroundTaskService taskService,
             IItemRepository itemRepository,
             IStaticDataRepository staticDataRepository,
+            IPersonIndexService personIndexService,
             IItemUpdateService itemUpdateService,
             IExternalDataService externalDataService
     ) {
@@ -120,8 +130,11 @@ public class AppNavigator implements IAppNavigator {
         this.preferenceService = preferenceService;
         this.notificationService = notificationService;
         this.localInteractionService = localInteractionService;
+        this.imageCacheService = imageCacheService;
+        this.taskService = taskService;
         this.itemRepository = itemRepository;
         this.staticDataRepository = staticDataRepository;
+        this.personIndexService = personIndexService;
         this.itemUpdateService = itemUpdateService;
         this.externalDataService = externalDataService;
     }
@@ -138,7 +151,7 @@ public class AppNavigator implements IAppNavigator {
     public void showLogin() {
         try {
             // 1. Khởi tạo ViewModel cho Login
-            ILoginViewModel viewModel = new LoginViewModel(sessionService, this, configService);
+            ILoginViewModel viewModel = new LoginViewModel(sessionService, this, configService, taskService);
 
             // 2. Lắng nghe kết quả đăng nhập thành công từ ViewModel
             viewModel.loginSuccessProperty().addListener((obs, oldVal, newVal) -> {
@@ -168,14 +181,16 @@ public class AppNavigator implements IAppNavigator {
                     sessionService,
                     this,
                     notificationService,
-                    configService
+                    configService,
+                    taskService
             );
 
             // 2. Khởi tạo các ViewModel con cho 3 cột
             ILibraryTreeViewModel libraryTreeViewModel = new LibraryTreeViewModel(
                     itemRepository,
                     notificationService,
-                    configService
+                    configService,
+                    taskService
             );
 
             IItemGridViewModel itemGridViewModel = new ItemGridViewModel(
@@ -183,17 +198,22 @@ public class AppNavigator implements IAppNavigator {
                     notificationService,
                     localInteractionService,
                     sessionService,
-                    configService
+                    configService,
+                    imageCacheService,
+                    taskService
             );
 
             IItemDetailViewModel itemDetailViewModel = new ItemDetailViewModel(
                     itemRepository,
                     itemUpdateService,
                     staticDataRepository,
+                    personIndexService,
                     externalDataService,
                     localInteractionService,
                     notificationService,
                     sessionService,
+                    imageCacheService,
+                    taskService,
                     libraryTreeViewModel,
                     configService
             );
@@ -235,7 +255,8 @@ public class AppNavigator implements IAppNavigator {
             IAddTagViewModel viewModel = new AddTagViewModel(
                     staticDataRepository,
                     itemRepository,
-                    configService
+                    configService,
+                    taskService
             );
             viewModel.setContext(context); // Thiết lập bối cảnh (VD: đang thêm TAG hay STUDIO)
 
@@ -420,6 +441,19 @@ public class AppNavigator implements IAppNavigator {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void logStats() {
+        if (mainGridVM != null) {
+            System.err.println(mainGridVM.getPageCacheStats());
+        }
+        if (mainDetailVM != null) {
+            System.err.println(mainDetailVM.getNeighborPrefetchStats());
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -0,0 +1,213 @@
+package com.vinhtt.embyclientsolid.services;
+
+import com.vinhtt.embyclientsolid.core.IBackgroundTaskService;
+import com.vinhtt.embyclientsolid.core.IConfigurationService;
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerWrapper;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Triển khai của {@link IBackgroundTaskService}.
+ * Mỗi tác vụ chạy trên một virtual thread (rẻ, không cần pool), được đặt tên theo loại và tên tác vụ.
+ * Số tác vụ chạy đồng thời của mỗi loại bị giới hạn bằng {@link Semaphore}
+ * (appSettings.taskLimitInteractive / taskLimitPrefetch / taskLimitBulk);
+ * tác vụ vượt giới hạn chờ (không tốn luồng hệ điều hành) cho đến khi có chỗ.
+ */
+public class BackgroundTaskService implements IBackgroundTaskService {
+
+    // Giới hạn mặc định số tác vụ chạy đồng thời
+    private static final int DEFAULT_INTERACTIVE_LIMIT = 8;
+    private static final int DEFAULT_PREFETCH_LIMIT = 2;
+    private static final int DEFAULT_BULK_LIMIT = 2;
+
+    private final Map<Category, Semaphore> limits = new EnumMap<>(Category.class);
+    private final Map<Category, AtomicInteger> inFlight = new EnumMap<>(Category.class);
+
+    // --- Thống kê ---
+    private final Map<Category, AtomicLong> completedCount = new EnumMap<>(Category.class);
+    private final Map<Category, AtomicLong> failedCount = new EnumMap<>(Category.class);
+    private final Map<Category, AtomicLong> cancelledCount = new EnumMap<>(Category.class);
+    private final AtomicLong taskSequence = new AtomicLong();
+
+    // Số tác vụ đang chạy (cho UI), chỉ được ghi trên luồng FX
+    private final ReadOnlyIntegerWrapper inFlightCount = new ReadOnlyIntegerWrapper(0);
+    private final AtomicBoolean publishPending = new AtomicBoolean(false);
+
+    /**
+     * Một tác vụ: chờ chỗ (semaphore) của loại (trừ tác vụ con), chạy, rồi trả kết quả về luồng FX.
+     */
+    private final class Task<T> extends FutureTask<T> {
+        private final Category category;
+        private final String name;
+        private final Consumer<T> onSuccess;
+        private final Consumer<Exception> onError;
+
+        Task(Category category, String name, Callable<T> callable, Consumer<T> onSuccess, Consumer<Exception> onError) {
+            this(category, name, true, callable, onSuccess, onError);
+        }
+
+        Task(Category category, String name, boolean limited, Callable<T> callable,
+             Consumer<T> onSuccess, Consumer<Exception> onError) {
+            super(() -> {
+                if (!limited) return callable.call(); // Tác vụ con: tác vụ cha đã giữ chỗ
+                Semaphore limit = limits.get(category);
+                limit.acquire(); // cancel(true) ngắt việc chờ
+                try {
+                    return callable.call();
+                } finally {
+                    limit.release();
+                }
+            });
+            this.category = category;
+            this.name = name;
+            this.onSuccess = onSuccess;
+            this.onError = onError;
+        }
+
+        @Override
+        protected void done() {
+            inFlight.get(category).decrementAndGet();
+            publishInFlightCount();
+
+            if (isCancelled()) {
+                cancelledCount.get(category).incrementAndGet();
+                return;
+            }
+            try {
+                T result = get();
+                completedCount.get(category).incrementAndGet();
+                if (onSuccess != null) {
+                    Platform.runLater(() -> {
+                        if (!isCancelled()) onSuccess.accept(result);
+                    });
+                }
+            } catch (ExecutionException e) {
+                failedCount.get(category).incrementAndGet();
+                Throwable cause = (e.getCause() != null) ? e.getCause() : e;
+                if (onError != null && cause instanceof Exception) {
+                    Platform.runLater(() -> onError.accept((Exception) cause));
+                } else {
+                    System.err.println("Lỗi tác vụ nền '" + name + "' (" + category + "): " + cause);
+                }
+            } catch (InterruptedException | CancellationException e) {
+                cancelledCount.get(category).incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Khởi tạo service.
+     *
+     * @param configService Service Cấu hình (DI) để đọc giới hạn số tác vụ.
+     */
+    public BackgroundTaskService(IConfigurationService configService) {
+        limits.put(Category.INTERACTIVE, new Semaphore(readLimitSetting(configService, "taskLimitInteractive", DEFAULT_INTERACTIVE_LIMIT)));
+        limits.put(Category.PREFETCH, new Semaphore(readLimitSetting(configService, "taskLimitPrefetch", DEFAULT_PREFETCH_LIMIT)));
+        limits.put(Category.BULK, new Semaphore(readLimitSetting(configService, "taskLimitBulk", DEFAULT_BULK_LIMIT)));
+        for (Category category : Category.values()) {
+            inFlight.put(category, new AtomicInteger());
+            completedCount.put(category, new AtomicLong());
+            failedCount.put(category, new AtomicLong());
+            cancelledCount.put(category, new AtomicLong());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Future<?> submit(Category category, String name, Runnable task) {
+        return start(new Task<>(category, name, Executors.callable(task), null, null));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T> Future<T> submit(Category category, String name, Callable<T> task,
+                                Consumer<T> onSuccess, Consumer<Exception> onError) {
+        return start(new Task<>(category, name, task, onSuccess, onError));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T> Future<T> submitSubtask(Category category, String name, Callable<T> task) {
+        return start(new Task<>(category, name, false, task, null, null));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ReadOnlyIntegerProperty inFlightCountProperty() {
+        return inFlightCount.getReadOnlyProperty();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getStats() {
+        StringBuilder stats = new StringBuilder("BackgroundTasks:");
+        for (Category category : Category.values()) {
+            stats.append(' ').append(category).append("[")
+                    .append(inFlight.get(category).get()).append(" đang chạy, ")
+                    .append(completedCount.get(category).get()).append(" xong, ")
+                    .append(failedCount.get(category).get()).append(" lỗi, ")
+                    .append(cancelledCount.get(category).get()).append(" bị hủy]");
+        }
+        return stats.toString();
+    }
+
+    private <T> Task<T> start(Task<T> task) {
+        inFlight.get(task.category).incrementAndGet();
+        publishInFlightCount();
+        Thread.ofVirtual()
+                .name(task.category.name().toLowerCase() + "-" + task.name + "-" + taskSequence.incrementAndGet())
+                .start(task);
+        return task;
+    }
+
+    /**
+     * Cập nhật property số tác vụ trên luồng FX (gộp nhiều thay đổi liên tiếp thành một lần cập nhật).
+     */
+    private void publishInFlightCount() {
+        if (!publishPending.compareAndSet(false, true)) return;
+        Platform.runLater(() -> {
+            publishPending.set(false);
+            int total = 0;
+            for (AtomicInteger count : inFlight.values()) {
+                total += count.get();
+            }
+            inFlightCount.set(total);
+        });
+    }
+
+    /**
+     * Đọc giới hạn số tác vụ từ mục "appSettings" của config.json.
+     */
+    private static int readLimitSetting(IConfigurationService configService, String key, int defaultValue) {
+        try {
+            int value = Integer.parseInt(configService.getString("appSettings", key).trim());
+            return value > 0 ? value : defaultValue;
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package com.vinhtt.embyclientsolid.services;
+
+import com.vinhtt.embyclientsolid.core.IConfigurationService;
+import com.vinhtt.embyclientsolid.core.IEmbySessionService;
+import com.vinhtt.embyclientsolid.core.IImageCacheService;
+import com.vinhtt.embyclientsolid.model.ImageRequest;
+import javafx.scene.image.Image;
+
+import java.net.ResponseCache;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Triển khai của {@link IImageCacheService}.
+ * Cache LRU các {@link Image} đã giải mã, giới hạn theo ngân sách bộ nhớ
+ * (appSettings.imageCacheBudgetMb). Bộ nhớ của một ảnh được tính theo kích thước thật
+ * (rộng x cao x 4 byte) khi đã tải xong, hoặc ước lượng theo kích thước yêu cầu khi đang tải.
+ * Ảnh được giải mã đúng kích thước hiển thị của {@link ImageRequest} (requestedWidth/requestedHeight),
+ * nên bộ nhớ của ảnh khớp với những gì thật sự hiển thị trên màn hình.
+ * Ảnh ít được dùng nhất bị loại trước (ảnh đang hiển thị vẫn được View giữ tham chiếu).
+ * Thread-safe (cache được truy cập cả từ luồng prefetch).
+ *
+ * Bên dưới cache bộ nhớ là cache ổ đĩa ({@link ImageDiskCache}, appSettings.imageDiskCacheMb):
+ * ảnh đã tải ở các lần chạy trước được đọc từ ổ đĩa thay vì từ server.
+ */
+public class ImageCacheService implements IImageCacheService {
+
+    // Ngân sách bộ nhớ mặc định (MB)
+    private static final int DEFAULT_BUDGET_MB = 192;
+    // Dung lượng mặc định (MB) của cache ổ đĩa
+    private static final int DEFAULT_DISK_CAPACITY_MB = 1024;
+    private static final int BYTES_PER_PIXEL = 4;
+
+    private final IEmbySessionService sessionService;
+    private final long budgetBytes;
+    private final ImageDiskCache diskCache;
+
+    private final LinkedHashMap<ImageRequest, Entry> entries = new LinkedHashMap<>(64, 0.75f, true); // accessOrder = LRU
+    private String scope = null; // Server hiện tại (đổi server -> xóa cache)
+    private long usedBytes = 0;
+
+    // --- Thống kê ---
+    private long hitCount = 0;
+    private long missCount = 0;
+    private long evictionCount = 0;
+    private long cancelCount = 0;
+
+    /**
+     * Một ảnh trong cache.
+     */
+    private static final class Entry {
+        final Image image;
+        final long estimatedBytes;
+
+        Entry(Image image, long estimatedBytes) {
+            this.image = image;
+            this.estimatedBytes = estimatedBytes;
+        }
+
+        long bytes() {
+            double width = image.getWidth();
+            double height = image.getHeight();
+            return (width > 0 && height > 0) ? (long) (width * height * BYTES_PER_PIXEL) : estimatedBytes;
+        }
+
+        boolean isLoading() {
+            return image.getProgress() < 1 && !image.isError();
+        }
+    }
+
+    /**
+     * Khởi tạo service.
+     *
+     * @param sessionService Service Session (DI) để lấy địa chỉ server.
+     * @param configService  Service Cấu hình (DI) để đọc ngân sách bộ nhớ.
+     */
+    public ImageCacheService(IEmbySessionService sessionService, IConfigurationService configService) {
+        this.sessionService = sessionService;
+        this.budgetBytes = readMbSetting(configService, "imageCacheBudgetMb", DEFAULT_BUDGET_MB) * 1024L * 1024L;
+
+        // Cài cache ổ đĩa làm ResponseCache của JVM: JavaFX tải ảnh qua HttpURLConnection,
+        // nên cả lượt đọc (hit) lẫn lượt ghi (miss) đều đi qua cache mà không cần tải hai lần
+        this.diskCache = new ImageDiskCache(
+                Paths.get(System.getProperty("user.home"), ".embyclientsolid", "cache", "images"),
+                readMbSetting(configService, "imageDiskCacheMb", DEFAULT_DISK_CAPACITY_MB) * 1024L * 1024L);
+        ResponseCache.setDefault(diskCache);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Image getImage(ImageRequest request) {
+        if (request == null) return null;
+        String basePath = sessionService.getApiClient().getBasePath();
+
+        synchronized (this) {
+            if (!basePath.equals(scope)) {
+                clear();
+                scope = basePath;
+            }
+            Entry entry = entries.get(request);
+            if (entry != null && !entry.image.isError()) {
+                hitCount++;
+                return entry.image;
+            }
+            missCount++;
+        }
+
+        // Tạo ảnh ngoài khóa (Image tự tải ở luồng nền của JavaFX)
+        // Giải mã đúng kích thước hiển thị: có cả hai chiều -> co giãn vừa khung, chỉ một chiều -> giữ tỉ lệ
+        boolean preserveRatio = request.getMaxWidth() <= 0 || request.getMaxHeight() <= 0;
+        Image image = new Image(buildUrl(basePath, request),
+                Math.max(0, request.getMaxWidth()), Math.max(0, request.getMaxHeight()),
+                preserveRatio, true, true); // smooth, tải nền
+        Entry entry = new Entry(image, estimateBytes(request));
+
+        synchronized (this) {
+            Entry existing = entries.get(request);
+            if (existing != null && !existing.image.isError()) {
+                // Một luồng khác vừa tạo cùng ảnh: dùng ảnh đó, bỏ ảnh vừa tạo
+                image.cancel();
+                return existing.image;
+            }
+            entries.put(request, entry);
+            evictIfNeeded(request);
+        }
+        return image;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getImageUrl(ImageRequest request) {
+        return buildUrl(sessionService.getApiClient().getBasePath(), request);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void cancelLoad(ImageRequest request) {
+        if (request == null) return;
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(request);
+            if (entry == null || !entry.isLoading()) return;
+            entries.remove(request);
+            cancelCount++;
+            usedBytes -= entry.bytes();
+        }
+        entry.image.cancel();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void invalidateItem(String itemId) {
+        if (itemId == null) return;
+        List<Entry> removed = new ArrayList<>();
+        synchronized (this) {
+            Iterator<Map.Entry<ImageRequest, Entry>> iterator = entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<ImageRequest, Entry> e = iterator.next();
+                if (itemId.equals(e.getKey().getItemId())) {
+                    removed.add(e.getValue());
+                    iterator.remove();
+                }
+            }
+            usedBytes = totalBytes();
+        }
+        for (Entry entry : removed) {
+            if (entry.isLoading()) entry.image.cancel();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized String getStats() {
+        long requests = hitCount + missCount;
+        long hitRatePercent = (requests > 0) ? hitCount * 100 / requests : 0;
+        return "ImageCache: " + entries.size() + " ảnh, ~" + (usedBytes / (1024 * 1024)) + "/" + (budgetBytes / (1024 * 1024)) + " MB, "
+                + hitCount + " hit, " + missCount + " miss (" + hitRatePercent + "% hit), "
+                + evictionCount + " bị loại, " + cancelCount + " bị hủy; " + diskCache.getStats();
+    }
+
+    /**
+     * Loại các ảnh cũ nhất cho đến khi dưới ngân sách (không loại ảnh vừa thêm).
+     * Bộ nhớ được tính lại mỗi lần vì ảnh đang tải có thể đã tải xong (kích thước thật khác ước lượng).
+     */
+    private void evictIfNeeded(ImageRequest keep) {
+        long used = totalBytes();
+        Iterator<Map.Entry<ImageRequest, Entry>> iterator = entries.entrySet().iterator();
+        while (used > budgetBytes && iterator.hasNext()) {
+            Map.Entry<ImageRequest, Entry> eldest = iterator.next();
+            if (eldest.getKey().equals(keep)) continue;
+            used -= eldest.getValue().bytes();
+            iterator.remove();
+            evictionCount++;
+        }
+        usedBytes = used;
+    }
+
+    private long totalBytes() {
+        long total = 0;
+        for (Entry entry : entries.values()) {
+            total += entry.bytes();
+        }
+        return total;
+    }
+
+    /**
+     * Xóa cache (khi đổi server), hủy các ảnh đang tải.
+     */
+    private void clear() {
+        for (Entry entry : entries.values()) {
+            if (entry.isLoading()) entry.image.cancel();
+        }
+        entries.clear();
+        usedBytes = 0;
+    }
+
+    /**
+     * Ước lượng bộ nhớ của ảnh chưa tải xong (chiều còn thiếu được suy ra theo tỉ lệ 16:9).
+     */
+    private static long estimateBytes(ImageRequest request) {
+        long width = request.getMaxWidth();
+        long height = request.getMaxHeight();
+        if (width <= 0 && height <= 0) {
+            width = 1920;
+        }
+        if (width <= 0) width = height * 16 / 9;
+        if (height <= 0) height = width * 9 / 16;
+        return Math.max(1, width) * Math.max(1, height) * BYTES_PER_PIXEL;
+    }
+
+    private static String buildUrl(String basePath, ImageRequest request) {
+        StringBuilder url = new StringBuilder(basePath)
+                .append("/Items/").append(request.getItemId())
+                .append("/Images/").append(request.getImageType());
+        if (request.getImageIndex() != null) {
+            url.append('/').append(request.getImageIndex());
+        }
+        url.append("?quality=90");
+        // Server chỉ cần giới hạn theo một chiều: chiều rộng nếu có (ảnh sẽ được co giãn vừa khung
+        // khi giải mã), nếu không thì chiều cao
+        if (request.getMaxWidth() > 0) {
+            url.append("&maxWidth=").append(request.getMaxWidth());
+        } else if (request.getMaxHeight() > 0) {
+            url.append("&maxHeight=").append(request.getMaxHeight());
+        }
+        if (request.getImageTag() != null) {
+            url.append("&tag=").append(request.getImageTag());
+        }
+        return url.toString();
+    }
+
+    /**
+     * Đọc một cài đặt dung lượng (MB) từ mục "appSettings" của config.json.
+     */
+    private static int readMbSetting(IConfigurationService configService, String key, int defaultValue) {
+        try {
+            int value = Integer.parseInt(configService.getString("appSettings", key).trim());
+            return value > 0 ? value : defaultValue;
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+}
@@ -0,0 +1,365 @@
+package com.vinhtt.embyclientsolid.services;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.CacheRequest;
+import java.net.CacheResponse;
+import java.net.HttpURLConnection;
+import java.net.ResponseCache;
+import java.net.URI;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Cache ổ đĩa (bền vững giữa các lần chạy) cho ảnh của item trên Emby, dùng bởi {@link ImageCacheService}.
+ *
+ * Được cài làm {@link ResponseCache} mặc định của JVM, nên mọi lượt tải ảnh của JavaFX
+ * ({@code new Image(url, true)}) đi qua cache này:
+ * - Hit: dữ liệu được đọc từ file (qua {@link FileChannel}) và đưa thẳng cho bộ giải mã ảnh,
+ *   KHÔNG mở kết nối mạng.
+ * - Miss: dữ liệu tải từ server được ghi song song ra file (chỉ tải một lần).
+ *
+ * Chỉ các URL ảnh Emby có {@code tag} (tag đổi khi ảnh đổi, nên nội dung là bất biến) mới được cache,
+ * theo khóa (itemId, imageType, index, tag, maxWidth/maxHeight). Dung lượng bị giới hạn, file ít được dùng
+ * nhất bị xóa trước (LRU theo thời gian sửa đổi của file).
+ */
+class ImageDiskCache extends ResponseCache {
+
+    // .../Items/{itemId}/Images/{imageType}[/{index}]
+    private static final Pattern IMAGE_PATH = Pattern.compile(".*/Items/([^/]+)/Images/([^/]+)(?:/(\\d+))?/?$");
+    private static final Pattern SAFE_NAME = Pattern.compile("[^A-Za-z0-9_-]");
+    private static final String FILE_SUFFIX = ".img";
+
+    private final Path cacheRoot;
+    private final long capacityBytes;
+
+    // Tên file (tương đối so với cacheRoot) -> kích thước; accessOrder = LRU. Tải lười từ ổ đĩa.
+    private LinkedHashMap<String, Long> index = null;
+    private long usedBytes = 0;
+
+    // --- Thống kê ---
+    private long hitCount = 0;
+    private long missCount = 0;
+    private long evictionCount = 0;
+
+    /**
+     * @param cacheRoot     Thư mục gốc của cache.
+     * @param capacityBytes Dung lượng tối đa (byte).
+     */
+    ImageDiskCache(Path cacheRoot, long capacityBytes) {
+        this.cacheRoot = cacheRoot;
+        this.capacityBytes = capacityBytes;
+    }
+
+    /**
+     * Trả về dữ liệu đã cache (nếu có) thay cho việc gọi server.
+     */
+    @Override
+    public CacheResponse get(URI uri, String requestMethod, Map<String, List<String>> requestHeaders) {
+        if (!"GET".equals(requestMethod)) return null;
+        String relativePath = relativePath(uri);
+        if (relativePath == null) return null;
+
+        Path file = cacheRoot.resolve(relativePath);
+        byte[] data;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size <= 0 || size > Integer.MAX_VALUE) return null;
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // Đọc cho đến hết file
+            }
+            if (buffer.hasRemaining()) return null; // File bị cắt ngắn
+            data = buffer.array();
+            // Cập nhật thời gian sửa đổi để LRU còn đúng ở lần chạy sau
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            synchronized (this) {
+                missCount++;
+            }
+            return null; // Không có trong cache (hoặc không đọc được)
+        }
+
+        synchronized (this) {
+            hitCount++;
+            ensureIndexLoaded();
+            index.putIfAbsent(relativePath, (long) data.length);
+            index.get(relativePath); // Đánh dấu vừa dùng
+        }
+        return new FileCacheResponse(data);
+    }
+
+    /**
+     * Nhận dữ liệu server trả về để ghi ra file (song song với việc giải mã ảnh).
+     */
+    @Override
+    public CacheRequest put(URI uri, URLConnection connection) {
+        if (!(connection instanceof HttpURLConnection)
+                || !"GET".equals(((HttpURLConnection) connection).getRequestMethod())) {
+            return null;
+        }
+        String statusLine = connection.getHeaderField(0);
+        if (statusLine == null || !statusLine.contains(" 200")) return null;
+        String relativePath = relativePath(uri);
+        if (relativePath == null) return null;
+
+        try {
+            Path file = cacheRoot.resolve(relativePath);
+            Files.createDirectories(file.getParent());
+            Path temp = Files.createTempFile(file.getParent(), "image", ".tmp");
+            return new FileCacheRequest(relativePath, file, temp);
+        } catch (IOException e) {
+            System.err.println("Lỗi tạo file cache ảnh: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Thống kê cache ổ đĩa.
+     */
+    synchronized String getStats() {
+        int fileCount = (index != null) ? index.size() : 0;
+        return "ImageDiskCache: " + fileCount + " file, ~" + (usedBytes / (1024 * 1024)) + "/" + (capacityBytes / (1024 * 1024)) + " MB, "
+                + hitCount + " hit, " + missCount + " miss, " + evictionCount + " bị xóa";
+    }
+
+    /**
+     * Đường dẫn file (tương đối) của một URL ảnh, hoặc null nếu URL không được cache.
+     * Dạng: {@code <sha1(server)>/<itemId>/<imageType>_<index>_<tag>_<kích thước>.img},
+     * với kích thước là {@code <maxWidth>}, {@code h<maxHeight>}, {@code <maxWidth>x<maxHeight>} hoặc {@code full}.
+     */
+    private static String relativePath(URI uri) {
+        if (uri == null || uri.getRawPath() == null) return null;
+        Matcher matcher = IMAGE_PATH.matcher(uri.getRawPath());
+        if (!matcher.matches()) return null;
+
+        Map<String, String> query = parseQuery(uri.getRawQuery());
+        String tag = query.get("tag");
+        String maxWidth = query.get("maxwidth");
+        String maxHeight = query.get("maxheight");
+        if (tag == null || tag.isEmpty()) return null; // Không có tag: nội dung có thể thay đổi, không cache
+
+        String server = uri.getScheme() + "://" + uri.getRawAuthority();
+        String itemId = safe(matcher.group(1));
+        String imageType = safe(matcher.group(2));
+        String index = (matcher.group(3) != null) ? matcher.group(3) : "0";
+        String size;
+        if (maxWidth != null && maxHeight != null) {
+            size = safe(maxWidth) + "x" + safe(maxHeight);
+        } else if (maxWidth != null) {
+            size = safe(maxWidth);
+        } else if (maxHeight != null) {
+            size = "h" + safe(maxHeight);
+        } else {
+            size = "full";
+        }
+        return sha1(server) + "/" + itemId + "/" + imageType + "_" + index + "_" + safe(tag) + "_" + size + FILE_SUFFIX;
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> result = new HashMap<>();
+        if (rawQuery == null) return result;
+        for (String pair : rawQuery.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                result.put(pair.substring(0, separator).toLowerCase(Locale.ROOT), pair.substring(separator + 1));
+            }
+        }
+        return result;
+    }
+
+    private static String safe(String value) {
+        return SAFE_NAME.matcher(value).replaceAll("_");
+    }
+
+    /**
+     * Ghi nhận một file vừa được ghi xong và xóa các file cũ nhất nếu vượt dung lượng.
+     */
+    private synchronized void onFileWritten(String relativePath, long size) {
+        ensureIndexLoaded();
+        Long previous = index.put(relativePath, size);
+        usedBytes += size - (previous != null ? previous : 0);
+
+        Iterator<Map.Entry<String, Long>> iterator = index.entrySet().iterator();
+        while (usedBytes > capacityBytes && iterator.hasNext()) {
+            Map.Entry<String, Long> eldest = iterator.next();
+            if (eldest.getKey().equals(relativePath)) continue; // Không xóa file vừa ghi
+            try {
+                Files.deleteIfExists(cacheRoot.resolve(eldest.getKey()));
+            } catch (IOException e) {
+                System.err.println("Lỗi xóa file cache ảnh: " + e.getMessage());
+            }
+            usedBytes -= eldest.getValue();
+            iterator.remove();
+            evictionCount++;
+        }
+    }
+
+    /**
+     * Đọc danh sách file trên ổ đĩa (một lần), theo thứ tự dùng gần nhất.
+     */
+    private void ensureIndexLoaded() {
+        if (index != null) return;
+        index = new LinkedHashMap<>(256, 0.75f, true);
+        usedBytes = 0;
+        if (!Files.isDirectory(cacheRoot)) return;
+        try (Stream<Path> files = Files.walk(cacheRoot)) {
+            List<Path> entries = files
+                    .filter(p -> p.getFileName().toString().endsWith(FILE_SUFFIX))
+                    .sorted(Comparator.comparingLong(ImageDiskCache::lastModifiedMillis))
+                    .collect(Collectors.toList());
+            for (Path path : entries) {
+                long size = Files.size(path);
+                index.put(cacheRoot.relativize(path).toString().replace('\\', '/'), size);
+                usedBytes += size;
+            }
+        } catch (IOException e) {
+            System.err.println("Lỗi đọc thư mục cache ảnh: " + e.getMessage());
+        }
+    }
+
+    private static long lastModifiedMillis(Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+
+    private static String sha1(String input) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            byte[] hash = digest.digest(input.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder();
+            for (byte b : hash) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-1 luôn có sẵn trong JDK
+            return Integer.toHexString(input.hashCode());
+        }
+    }
+
+    /**
+     * Phản hồi "giả" (HTTP 200) với nội dung đọc từ file cache.
+     */
+    private static final class FileCacheResponse extends CacheResponse {
+        private final byte[] data;
+
+        FileCacheResponse(byte[] data) {
+            this.data = data;
+        }
+
+        @Override
+        public Map<String, List<String>> getHeaders() {
+            Map<String, List<String>> headers = new HashMap<>();
+            headers.put(null, List.of("HTTP/1.1 200 OK"));
+            headers.put("Content-Length", List.of(String.valueOf(data.length)));
+            return headers;
+        }
+
+        @Override
+        public InputStream getBody() {
+            return new ByteArrayInputStream(data);
+        }
+    }
+
+    /**
+     * Ghi dữ liệu tải từ server ra file tạm; đổi tên thành file cache khi tải trọn vẹn
+     * (HttpURLConnection gọi close() khi đã đọc hết, hoặc abort() nếu bị hủy giữa chừng).
+     */
+    private final class FileCacheRequest extends CacheRequest {
+        private final String relativePath;
+        private final Path file;
+        private final Path temp;
+        private OutputStream body;
+        private boolean finished = false;
+
+        FileCacheRequest(String relativePath, Path file, Path temp) {
+            this.relativePath = relativePath;
+            this.file = file;
+            this.temp = temp;
+        }
+
+        @Override
+        public synchronized OutputStream getBody() throws IOException {
+            if (body == null) {
+                body = new FilterOutputStream(Files.newOutputStream(temp)) {
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        out.write(b, off, len);
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        super.close();
+                        commit();
+                    }
+                };
+            }
+            return body;
+        }
+
+        @Override
+        public synchronized void abort() {
+            if (finished) return;
+            finished = true;
+            try {
+                if (body != null) body.close();
+            } catch (IOException ignored) {
+                // Bỏ qua
+            } finally {
+                deleteQuietly(temp);
+            }
+        }
+
+        private synchronized void commit() {
+            if (finished) return;
+            finished = true;
+            try {
+                long size = Files.size(temp);
+                if (size == 0) {
+                    deleteQuietly(temp);
+                    return;
+                }
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                onFileWritten(relativePath, size);
+            } catch (IOException e) {
+                System.err.println("Lỗi ghi cache ảnh (" + file + "): " + e.getMessage());
+                deleteQuietly(temp);
+            }
+        }
+
+        private void deleteQuietly(Path path) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException ignored) {
+                // Bỏ qua
+            }
+        }
+    }
+}
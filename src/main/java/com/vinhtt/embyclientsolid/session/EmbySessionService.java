@@ -1,5 +1,6 @@
 package com.vinhtt.embyclientsolid.session;
 
+import com.squareup.okhttp.ConnectionPool;
 import com.squareup.okhttp.Interceptor;
 import com.squareup.okhttp.OkHttpClient;
 import com.squareup.okhttp.Request;
@@ -20,7 +21,11 @@ import javafx.beans.property.ReadOnlyBooleanProperty;
 import javafx.beans.property.SimpleBooleanProperty;
 
 import java.io.IOException;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Triển khai của {@link IEmbySessionService}.
@@ -41,6 +46,10 @@ public class EmbySessionService implements IEmbySessionService {
     private final ApiClient apiClient;
     private final IConfigurationService configService;
 
+    // Client dùng chung cho các request tùy chỉnh (upload ảnh),
+    // chia sẻ connection pool và dispatcher với ApiClient
+    private final OkHttpClient uploadHttpClient;
+
     // Trạng thái session trong bộ nhớ
     private AuthenticationAuthenticationResult currentAuthResult;
     private String currentAccessToken;
@@ -63,6 +72,37 @@ public class EmbySessionService implements IEmbySessionService {
         // để thêm Interceptor (bộ chặn) tùy chỉnh của chúng ta
         OkHttpClient defaultClient = apiClient.getHttpClient();
         defaultClient.interceptors().add(new AuthHeaderInterceptor());
+
+        // Cấu hình connection pool (keep-alive) dùng chung.
+        // Pool phải được gán TRƯỚC khi clone để cả 2 client dùng chung kết nối.
+        int maxIdleConnections = getIntSetting("httpMaxIdleConnections", 8);
+        int keepAliveSeconds = getIntSetting("httpKeepAliveSeconds", 300);
+        defaultClient.setConnectionPool(new ConnectionPool(maxIdleConnections, TimeUnit.SECONDS.toMillis(keepAliveSeconds)));
+
+        // Client upload: clone() giữ lại interceptor xác thực, connection pool và dispatcher.
+        // Timeout và giới hạn số upload đồng thời mỗi host CHỈ áp dụng cho client này,
+        // các request API thông thường giữ cấu hình mặc định của SDK.
+        this.uploadHttpClient = defaultClient.clone();
+        this.uploadHttpClient.setConnectTimeout(getIntSetting("uploadConnectTimeoutSeconds", 15), TimeUnit.SECONDS);
+        this.uploadHttpClient.setReadTimeout(getIntSetting("uploadReadTimeoutSeconds", 60), TimeUnit.SECONDS);
+        this.uploadHttpClient.setWriteTimeout(getIntSetting("uploadWriteTimeoutSeconds", 120), TimeUnit.SECONDS);
+        this.uploadHttpClient.interceptors().add(new HostConcurrencyLimiter(getIntSetting("uploadMaxConcurrentPerHost", 3)));
+    }
+
+    /**
+     * Đọc một cài đặt số nguyên từ mục "appSettings" của config.json.
+     *
+     * @param key          Tên cài đặt.
+     * @param defaultValue Giá trị mặc định nếu thiếu hoặc không hợp lệ.
+     * @return Giá trị cài đặt.
+     */
+    private int getIntSetting(String key, int defaultValue) {
+        try {
+            int value = Integer.parseInt(configService.getString("appSettings", key).trim());
+            return value > 0 ? value : defaultValue;
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
     }
 
     /**
@@ -88,6 +128,37 @@ public class EmbySessionService implements IEmbySessionService {
         }
     }
 
+    /**
+     * Một {@link Interceptor} giới hạn số request đồng thời tới cùng một host.
+     * (Dispatcher của OkHttp chỉ giới hạn request bất đồng bộ, còn upload dùng
+     * {@code execute()} đồng bộ nên cần giới hạn riêng.)
+     */
+    private static class HostConcurrencyLimiter implements Interceptor {
+        private final int maxPerHost;
+        private final Map<String, Semaphore> permitsByHost = new ConcurrentHashMap<>();
+
+        HostConcurrencyLimiter(int maxPerHost) {
+            this.maxPerHost = maxPerHost;
+        }
+
+        @Override
+        public Response intercept(Chain chain) throws IOException {
+            String host = chain.request().httpUrl().host();
+            Semaphore permits = permitsByHost.computeIfAbsent(host, h -> new Semaphore(maxPerHost, true));
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Upload bị hủy khi đang chờ lượt", e);
+            }
+            try {
+                return chain.proceed(chain.request());
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -96,6 +167,14 @@ public class EmbySessionService implements IEmbySessionService {
         return new AuthHeaderInterceptor();
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public OkHttpClient getUploadHttpClient() {
+        return uploadHttpClient;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -189,12 +189,24 @@ public interface IItemDetailViewModel {
     void fireChipClickEvent(Tag model, String type);
 
     /**
-     * Lấy URL đã xây dựng (build) cho một thumbnail ảnh Backdrop (UR-41).
+     * Lấy ảnh thumbnail Backdrop (UR-41) từ cache ảnh (tải nền nếu chưa có).
      *
      * @param info Thông tin ảnh từ {@code getBackdropImages()}.
-     * @return Chuỗi URL đầy đủ.
+     * @return Image (có thể đang tải), hoặc null.
      */
-    String getBackdropUrl(ImageInfo info);
+    Image getBackdropImage(ImageInfo info);
+
+    /**
+     * Đặt kích thước hiển thị của ảnh Primary và thumbnail Backdrop cùng hệ số DPI của màn hình,
+     * để ảnh được yêu cầu từ server và giải mã đúng kích thước hiển thị
+     * (làm tròn lên theo mức để vẫn dùng chung cache).
+     *
+     * @param primaryHeight  Chiều cao ảnh Primary (px logic).
+     * @param backdropHeight Chiều cao thumbnail Backdrop (px logic).
+     * @param outputScale    Hệ số DPI của cửa sổ (Window.getOutputScaleY()).
+     * @return true nếu kích thước ảnh yêu cầu đã thay đổi (View cần dựng lại gallery).
+     */
+    boolean setImageDisplaySize(double primaryHeight, double backdropHeight, double outputScale);
 
     /**
      * Cung cấp sự kiện khi người dùng nhấn nút "Add" (+).
@@ -259,6 +271,23 @@ public interface IItemDetailViewModel {
      */
     void loadItemAndPlay(BaseItemDto item);
 
+    /**
+     * Tải trước (ở nền) chi tiết, danh sách ảnh và ảnh Primary của các item lân cận
+     * item đang chọn trên Lưới, để duyệt bằng phím hiển thị ngay.
+     * Số item tải trước thích ứng theo tốc độ và hướng duyệt.
+     *
+     * @param items         Danh sách item của Lưới (Cột 2).
+     * @param selectedIndex Vị trí item đang chọn (hoặc -1).
+     */
+    void prefetchNeighbors(List<BaseItemDto> items, int selectedIndex);
+
+    /**
+     * Thống kê tải trước item lân cận.
+     *
+     * @return Chuỗi mô tả thống kê.
+     */
+    String getNeighborPrefetchStats();
+
     // --- Hành động (Commands từ View) ---
 
     /**
@@ -288,6 +317,7 @@ public interface IItemDetailViewModel {
     /**
      * Nhân bản (clone) thuộc tính từ item hiện tại sang các item con
      * của thư mục đang chọn ở Cột 1 (UR-37).
+     * Nếu đang có một lần nhân bản chạy, lệnh này sẽ HỦY lần nhân bản đó.
      *
      * @param propertyType Loại thuộc tính ("Tags", "Studios", "People", "Genres").
      */
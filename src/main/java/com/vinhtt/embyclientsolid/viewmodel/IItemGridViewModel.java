@@ -8,6 +8,7 @@ import javafx.beans.property.ReadOnlyBooleanProperty;
 import javafx.beans.property.ReadOnlyObjectProperty;
 import javafx.beans.property.ReadOnlyStringProperty;
 import javafx.collections.ObservableList;
+import javafx.scene.image.Image;
 
 /**
  * Interface (Hợp đồng) cho ItemGridViewModel (Cột 2 - Lưới Item).
@@ -198,4 +199,40 @@ public interface IItemGridViewModel {
      * @return Chuỗi URL đầy đủ.
      */
     String getPrimaryImageUrl(BaseItemDto item);
-}
\ No newline at end of file
+
+    /**
+     * Lấy ảnh thumbnail (Primary) của item (UR-25).
+     * Trả về ảnh đã được tải trước (prefetch) nếu có, nếu không sẽ tạo ảnh mới (tải nền).
+     *
+     * @param item Item DTO.
+     * @return Image, hoặc null nếu item không có ảnh Primary.
+     */
+    Image getPrimaryImage(BaseItemDto item);
+
+    /**
+     * Đặt kích thước hiển thị của ảnh thumbnail (kích thước ô) và hệ số DPI của màn hình,
+     * để ảnh được yêu cầu từ server và giải mã đúng kích thước hiển thị
+     * (làm tròn lên theo mức để vẫn dùng chung cache).
+     *
+     * @param width       Chiều rộng ảnh trong ô (px logic).
+     * @param height      Chiều cao ảnh trong ô (px logic).
+     * @param outputScale Hệ số DPI của cửa sổ (Window.getOutputScaleX()).
+     * @return true nếu kích thước ảnh yêu cầu đã thay đổi (View cần gán lại ảnh cho các ô).
+     */
+    boolean setThumbnailDisplaySize(double width, double height, double outputScale);
+
+    /**
+     * Ngừng tải ảnh thumbnail của item (nếu còn đang tải), ví dụ khi ô hiển thị item
+     * đã được tái sử dụng cho item khác.
+     *
+     * @param item Item DTO.
+     */
+    void cancelImageLoad(BaseItemDto item);
+
+    /**
+     * Thống kê cache trang (số trang, bộ nhớ ước lượng, hit/miss, số trang bị loại).
+     *
+     * @return Chuỗi mô tả thống kê.
+     */
+    String getPageCacheStats();
+}
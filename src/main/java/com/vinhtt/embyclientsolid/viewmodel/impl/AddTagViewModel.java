@@ -1,5 +1,6 @@
 package com.vinhtt.embyclientsolid.viewmodel.impl;
 
+import com.vinhtt.embyclientsolid.core.IBackgroundTaskService;
 import com.vinhtt.embyclientsolid.data.IItemRepository;
 import com.vinhtt.embyclientsolid.data.IStaticDataRepository;
 import com.vinhtt.embyclientsolid.model.SuggestionContext;
@@ -26,11 +27,11 @@ import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyEvent;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -41,10 +42,16 @@ import java.util.stream.Collectors;
  */
 public class AddTagViewModel implements IAddTagViewModel {
 
+    // Thời gian chờ (ms) sau phím gõ cuối cùng trước khi lọc gợi ý
+    private static final long FILTER_DEBOUNCE_MS = 120;
+    // Số gợi ý tối đa hiển thị trong mỗi danh sách (trang đầu tiên)
+    private static final int MAX_VISIBLE_SUGGESTIONS = 200;
+
     // --- Services (DI) ---
     private final IStaticDataRepository staticDataRepository;
     private final IItemRepository itemRepository; // Dùng cho chức năng "Copy by ID"
     private final IConfigurationService configService;
+    private final IBackgroundTaskService taskService;
 
     // --- Trạng thái nội bộ ---
     private SuggestionContext currentContext = SuggestionContext.TAG;
@@ -52,11 +59,13 @@ public class AddTagViewModel implements IAddTagViewModel {
     // Cờ (flag) để ngăn các listener kích hoạt khi code đang tự cập nhật text field
     private boolean isUpdatingProgrammatically = false;
 
-    // --- Dữ liệu Gợi ý (Nguồn) ---
-    // Map chứa các gợi ý JSON (Key -> List<Tag>)
-    private Map<String, List<Tag>> jsonGroups = new HashMap<>();
-    // List chứa tất cả gợi ý Simple
-    private List<SuggestionItem> allSimpleSuggestions = new ArrayList<>();
+    // --- Dữ liệu Gợi ý (Nguồn, đã được đánh chỉ mục trên luồng nền) ---
+    // Chỉ mục các Key của gợi ý JSON
+    private SuggestionIndex<String> keyIndex = SuggestionIndex.empty();
+    // Chỉ mục các Value của gợi ý JSON, theo từng Key
+    private Map<String, SuggestionIndex<Tag>> valueIndexes = new HashMap<>();
+    // Chỉ mục tất cả gợi ý Simple
+    private SuggestionIndex<SuggestionItem> simpleIndex = SuggestionIndex.empty();
 
     // --- Properties (Binding) ---
     private final ReadOnlyStringWrapper title = new ReadOnlyStringWrapper();
@@ -80,16 +89,26 @@ public class AddTagViewModel implements IAddTagViewModel {
     private final ObservableList<Tag> suggestionValues = FXCollections.observableArrayList();
     private final ObservableList<SuggestionItem> suggestionSimple = FXCollections.observableArrayList();
 
-    public AddTagViewModel(IStaticDataRepository staticDataRepository, IItemRepository itemRepository, IConfigurationService configService) {
+    // --- Bộ lọc (debounce, chạy nền) cho từng danh sách gợi ý ---
+    private final DebouncedFilter<String> keysFilter;
+    private final DebouncedFilter<Tag> valuesFilter;
+    private final DebouncedFilter<SuggestionItem> simpleFilter;
+
+    public AddTagViewModel(IStaticDataRepository staticDataRepository, IItemRepository itemRepository, IConfigurationService configService,
+                           IBackgroundTaskService taskService) {
         this.staticDataRepository = staticDataRepository;
         this.itemRepository = itemRepository;
         this.configService = configService;
+        this.taskService = taskService;
+        this.keysFilter = new DebouncedFilter<>(taskService, suggestionKeys, FILTER_DEBOUNCE_MS, MAX_VISIBLE_SUGGESTIONS);
+        this.valuesFilter = new DebouncedFilter<>(taskService, suggestionValues, FILTER_DEBOUNCE_MS, MAX_VISIBLE_SUGGESTIONS);
+        this.simpleFilter = new DebouncedFilter<>(taskService, suggestionSimple, FILTER_DEBOUNCE_MS, MAX_VISIBLE_SUGGESTIONS);
         setupListeners();
     }
 
     /**
      * Cài đặt các listener để tự động lọc danh sách gợi ý
-     * khi người dùng gõ vào các trường text.
+     * khi người dùng gõ vào các trường text (debounce, lọc trên luồng nền).
      */
     private void setupListeners() {
         // Khi chuyển chế độ (Simple/JSON), reset focus
@@ -104,22 +123,22 @@ public class AddTagViewModel implements IAddTagViewModel {
         keyProperty().addListener((obs, oldVal, newVal) -> {
             if (isUpdatingProgrammatically) return;
             focusedKeyIndex.set(-1);
-            populateKeys(newVal);
-            populateSimpleTags(newVal); // Cũng tìm kiếm nhanh ở chế độ Simple
+            requestKeys(newVal);
+            requestSimpleTags(newVal); // Cũng tìm kiếm nhanh ở chế độ Simple
         });
 
         // Khi gõ vào trường Value (JSON)
         valueProperty().addListener((obs, oldVal, newVal) -> {
             if (isUpdatingProgrammatically) return;
             focusedValueIndex.set(-1);
-            populateValues(key.get(), newVal);
+            requestValues(key.get(), newVal);
         });
 
         // Khi gõ vào trường Simple Name
         simpleNameProperty().addListener((obs, oldVal, newVal) -> {
             if (isUpdatingProgrammatically) return;
             focusedSimpleIndex.set(-1);
-            populateSimpleTags(newVal);
+            requestSimpleTags(newVal);
         });
     }
 
@@ -175,7 +194,7 @@ public class AddTagViewModel implements IAddTagViewModel {
      * trên một luồng nền (background thread).
      */
     private void loadSuggestedTags() {
-        new Thread(() -> {
+        taskService.submit(IBackgroundTaskService.Category.INTERACTIVE, "addtag-suggestions", () -> {
             try {
                 // 1. Tải dữ liệu thô (List<Tag>)
                 List<Tag> allRawTags = new ArrayList<>();
@@ -207,12 +226,19 @@ public class AddTagViewModel implements IAddTagViewModel {
                         .map(t -> new SuggestionItem(t.getDisplayName(), t.getId(), currentContext.name()))
                         .collect(Collectors.toList());
 
-                // 3. Cập nhật UI (phải chạy trên luồng JavaFX)
+                // 3. Xây các chỉ mục tìm kiếm (vẫn trên luồng nền)
+                SuggestionIndex<String> tempKeyIndex = new SuggestionIndex<>(tempJsonGroups.keySet(), k -> k);
+                Map<String, SuggestionIndex<Tag>> tempValueIndexes = new HashMap<>();
+                tempJsonGroups.forEach((groupKey, tags) -> tempValueIndexes.put(groupKey, new SuggestionIndex<>(tags, Tag::getValue)));
+                SuggestionIndex<SuggestionItem> tempSimpleIndex = new SuggestionIndex<>(simpleSuggestions, SuggestionItem::getName);
+
+                // 4. Cập nhật UI (phải chạy trên luồng JavaFX)
                 Platform.runLater(() -> {
-                    this.jsonGroups = tempJsonGroups;
-                    this.allSimpleSuggestions = simpleSuggestions.stream().distinct().collect(Collectors.toList());
+                    this.keyIndex = tempKeyIndex;
+                    this.valueIndexes = tempValueIndexes;
+                    this.simpleIndex = tempSimpleIndex;
 
-                    // 4. Populate (điền) danh sách gợi ý lần đầu
+                    // 5. Populate (điền) danh sách gợi ý lần đầu
                     isUpdatingProgrammatically = true;
                     populateKeys(key.get());
                     populateSimpleTags(simpleName.get());
@@ -222,66 +248,74 @@ public class AddTagViewModel implements IAddTagViewModel {
             } catch (Exception e) {
                 e.printStackTrace();
             }
-        }).start();
+        });
     }
 
-    // --- Logic Lọc Gợi ý (chạy trên luồng JavaFX) ---
+    // --- Logic Lọc Gợi ý (tra cứu qua chỉ mục) ---
+    // populate...: lọc NGAY trên luồng JavaFX (dùng khi code cần danh sách mới lập tức).
+    // request...: lọc có debounce trên luồng nền (dùng khi người dùng gõ phím).
 
     /**
      * Lọc và hiển thị danh sách "Key" (JSON) dựa trên text tìm kiếm.
      */
     private void populateKeys(String searchText) {
-        List<String> filteredKeys;
-        if (searchText == null || searchText.trim().isEmpty()) {
-            // Nếu không tìm kiếm -> hiển thị tất cả
-            filteredKeys = new ArrayList<>(jsonGroups.keySet());
-        } else {
-            // Nếu có tìm kiếm -> lọc
-            String lowerCaseSearchText = searchText.trim().toLowerCase();
-            filteredKeys = jsonGroups.keySet().stream()
-                    .filter(k -> k.toLowerCase().contains(lowerCaseSearchText))
-                    .collect(Collectors.toList());
-        }
-        Collections.sort(filteredKeys, String.CASE_INSENSITIVE_ORDER);
-        suggestionKeys.setAll(filteredKeys); // Cập nhật ObservableList
+        // Kết quả từ chỉ mục đã được sắp xếp (không phân biệt hoa/thường) và loại trùng
+        keysFilter.applyNow(keysQuery(searchText));
         populateValues(key.get(), value.get()); // Tự động cập nhật danh sách Value
     }
 
+    private void requestKeys(String searchText) {
+        keysFilter.submit(keysQuery(searchText));
+        requestValues(key.get(), value.get());
+    }
+
     /**
      * Lọc và hiển thị danh sách "Value" (JSON) dựa trên Key đang chọn và text tìm kiếm.
      */
     private void populateValues(String currentKey, String searchValue) {
-        List<Tag> tagsInGroup = jsonGroups.get(currentKey);
-        if (tagsInGroup == null) {
-            suggestionValues.clear(); // Không có Key nào khớp -> danh sách Value rỗng
-            return;
+        Supplier<List<Tag>> query = valuesQuery(currentKey, searchValue);
+        if (query == null) {
+            valuesFilter.clear(); // Không có Key nào khớp -> danh sách Value rỗng
+        } else {
+            valuesFilter.applyNow(query);
         }
-        final List<Tag> filteredTags;
-        if (searchValue == null || searchValue.trim().isEmpty()) {
-            filteredTags = tagsInGroup;
+    }
+
+    private void requestValues(String currentKey, String searchValue) {
+        Supplier<List<Tag>> query = valuesQuery(currentKey, searchValue);
+        if (query == null) {
+            valuesFilter.clear();
         } else {
-            String lowerCaseSearchText = searchValue.trim().toLowerCase();
-            filteredTags = tagsInGroup.stream()
-                    .filter(pt -> pt.getValue().toLowerCase().contains(lowerCaseSearchText))
-                    .collect(Collectors.toList());
+            valuesFilter.submit(query);
         }
-        suggestionValues.setAll(filteredTags); // Cập nhật ObservableList
     }
 
     /**
      * Lọc và hiển thị danh sách "Simple" dựa trên text tìm kiếm.
      */
     private void populateSimpleTags(String searchText) {
-        final List<SuggestionItem> filtered;
-        if (searchText == null || searchText.trim().isEmpty()) {
-            filtered = allSimpleSuggestions;
-        } else {
-            String lowerCaseSearchText = searchText.trim().toLowerCase();
-            filtered = allSimpleSuggestions.stream()
-                    .filter(item -> item.getName().toLowerCase().contains(lowerCaseSearchText))
-                    .collect(Collectors.toList());
-        }
-        suggestionSimple.setAll(filtered.stream().distinct().collect(Collectors.toList()));
+        simpleFilter.applyNow(simpleQuery(searchText));
+    }
+
+    private void requestSimpleTags(String searchText) {
+        simpleFilter.submit(simpleQuery(searchText));
+    }
+
+    // Các truy vấn giữ tham chiếu đến chỉ mục HIỆN TẠI (an toàn khi chạy trên luồng nền)
+
+    private Supplier<List<String>> keysQuery(String searchText) {
+        SuggestionIndex<String> index = keyIndex;
+        return () -> index.search(searchText);
+    }
+
+    private Supplier<List<Tag>> valuesQuery(String currentKey, String searchValue) {
+        SuggestionIndex<Tag> index = (currentKey == null) ? null : valueIndexes.get(currentKey);
+        return (index == null) ? null : () -> index.search(searchValue);
+    }
+
+    private Supplier<List<SuggestionItem>> simpleQuery(String searchText) {
+        SuggestionIndex<SuggestionItem> index = simpleIndex;
+        return () -> index.search(searchText);
     }
 
     // --- Logic Điều hướng Phím (UR-35) ---
@@ -316,17 +350,12 @@ public class AddTagViewModel implements IAddTagViewModel {
         if ("key".equals(sourceField) && focusedKeyIndex.get() == -1) {
             String currentKeyText = key.get().trim();
             if (!currentKeyText.isEmpty()) {
-                // Tìm key khớp (không phân biệt hoa thường)
-                String correctCaseKey = null;
-                int matchIndex = -1;
-                for (int i = 0; i < suggestionKeys.size(); i++) {
-                    String toggleKey = suggestionKeys.get(i);
-                    if (toggleKey.equalsIgnoreCase(currentKeyText)) {
-                        correctCaseKey = toggleKey;
-                        matchIndex = i;
-                        break;
-                    }
-                }
+                // Đảm bảo danh sách Key phản ánh text hiện tại (có thể còn truy vấn debounce đang chờ)
+                populateKeys(currentKeyText);
+                // Tìm key khớp (không phân biệt hoa thường) trong chỉ mục,
+                // vì danh sách hiển thị chỉ chứa trang đầu tiên của kết quả
+                String correctCaseKey = keyIndex.findExact(currentKeyText);
+                int matchIndex = (correctCaseKey != null) ? suggestionKeys.indexOf(correctCaseKey) : -1;
 
                 if (correctCaseKey != null) {
                     // Tự động sửa hoa/thường và cập nhật UI
@@ -525,10 +554,8 @@ public class AddTagViewModel implements IAddTagViewModel {
             String name = simpleName.get();
             if (name != null && !name.trim().isEmpty()) {
                 // Tìm xem tag này có ID không (nếu người dùng chọn từ gợi ý)
-                // Bước 1: Tìm SuggestionItem trước (nếu có)
-                java.util.Optional<SuggestionItem> matchingItem = allSimpleSuggestions.stream()
-                        .filter(item -> item.getName().equalsIgnoreCase(name.trim()))
-                        .findFirst();
+                // Bước 1: Tìm SuggestionItem trước (nếu có, tra cứu qua chỉ mục)
+                java.util.Optional<SuggestionItem> matchingItem = java.util.Optional.ofNullable(simpleIndex.findExact(name));
 
                 // Bước 2: Map sang ID một cách an toàn
                 // Nếu matchingItem tồn tại, gọi getId() (có thể trả về null)
@@ -570,7 +597,7 @@ public class AddTagViewModel implements IAddTagViewModel {
         if (id != null && !id.trim().isEmpty()) {
             copyStatus.set(configService.getString("addTagDialog", "copyStatusLoading", id.trim()));
             // (Chạy nền để không block UI, mặc dù logic đã bị đơn giản hóa)
-            new Thread(() -> {
+            taskService.submit(IBackgroundTaskService.Category.INTERACTIVE, "addtag-copy", () -> {
                 try {
                     // (Logic cũ phức tạp bị loại bỏ, giờ chỉ cần trả về ID)
                     Platform.runLater(() -> {
@@ -582,7 +609,7 @@ public class AddTagViewModel implements IAddTagViewModel {
                 } catch (Exception e) {
                     Platform.runLater(() -> copyStatus.set(configService.getString("addTagDialog", "copyErrorNotFound")));
                 }
-            }).start();
+            });
         } else {
             copyStatus.set(configService.getString("addTagDialog", "copyErrorIdRequired"));
         }
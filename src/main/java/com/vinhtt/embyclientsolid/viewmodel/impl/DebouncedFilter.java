@@ -0,0 +1,106 @@
+package com.vinhtt.embyclientsolid.viewmodel.impl;
+
+import com.vinhtt.embyclientsolid.core.IBackgroundTaskService;
+import javafx.collections.ObservableList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Helper lọc gợi ý "debounce" cho một ObservableList (dùng bởi {@link AddTagViewModel}).
+ *
+ * - {@link #submit}: chờ người dùng ngừng gõ một khoảng ngắn, chạy truy vấn trên
+ *   luồng nền (tác vụ INTERACTIVE của {@link IBackgroundTaskService}), rồi mới cập nhật danh sách trên luồng JavaFX. Truy vấn mới hơn
+ *   sẽ hủy truy vấn đang chờ, và kết quả của truy vấn cũ (nếu đã chạy xong) bị bỏ qua.
+ * - {@link #applyNow}: chạy ngay trên luồng JavaFX (dùng khi code cần danh sách
+ *   mới ngay lập tức, ví dụ: điều hướng bằng phím), đồng thời hủy truy vấn đang chờ.
+ *
+ * Chỉ trang đầu tiên (tối đa {@code maxResults} phần tử) được đưa vào danh sách,
+ * để việc cập nhật UI luôn nhẹ dù danh mục gợi ý rất lớn.
+ *
+ * @param <T> Kiểu phần tử của danh sách.
+ */
+class DebouncedFilter<T> {
+
+    private final IBackgroundTaskService taskService;
+    private final ObservableList<T> target;
+    private final long debounceMillis;
+    private final int maxResults;
+
+    // Tăng mỗi lần có truy vấn mới; kết quả mang "thế hệ" cũ sẽ bị bỏ qua
+    private final AtomicLong generation = new AtomicLong();
+    private Future<?> pending; // Chỉ truy cập trên luồng JavaFX
+
+    /**
+     * @param taskService    Service chạy tác vụ nền (DI).
+     * @param target         Danh sách (binding với View) cần cập nhật.
+     * @param debounceMillis Thời gian chờ (ms) sau phím gõ cuối cùng.
+     * @param maxResults     Số phần tử tối đa được hiển thị.
+     */
+    DebouncedFilter(IBackgroundTaskService taskService, ObservableList<T> target, long debounceMillis, int maxResults) {
+        this.taskService = taskService;
+        this.target = target;
+        this.debounceMillis = debounceMillis;
+        this.maxResults = maxResults;
+    }
+
+    /**
+     * Lên lịch một truy vấn (debounce), chạy trên luồng nền.
+     * Phải được gọi từ luồng JavaFX.
+     *
+     * @param query Truy vấn (phải tự chứa mọi dữ liệu cần thiết, an toàn khi chạy trên luồng nền).
+     */
+    void submit(Supplier<List<T>> query) {
+        long requestGeneration = cancelPending();
+        // Task bị hủy trong lúc chờ (người dùng gõ tiếp) sẽ không chạy truy vấn
+        pending = taskService.submit(IBackgroundTaskService.Category.INTERACTIVE, "suggestion-filter",
+                () -> {
+                    Thread.sleep(debounceMillis);
+                    if (generation.get() != requestGeneration) return null; // Đã có truy vấn mới hơn
+                    return firstPage(query.get());
+                },
+                firstPage -> {
+                    if (firstPage != null && generation.get() == requestGeneration) {
+                        target.setAll(firstPage);
+                    }
+                },
+                e -> System.err.println("Lỗi lọc gợi ý: " + e.getMessage()));
+    }
+
+    /**
+     * Chạy truy vấn ngay trên luồng hiện tại (luồng JavaFX) và hủy truy vấn đang chờ.
+     *
+     * @param query Truy vấn.
+     */
+    void applyNow(Supplier<List<T>> query) {
+        cancelPending();
+        target.setAll(firstPage(query.get()));
+    }
+
+    /**
+     * Xóa danh sách và hủy truy vấn đang chờ.
+     */
+    void clear() {
+        cancelPending();
+        target.clear();
+    }
+
+    /**
+     * Hủy truy vấn đang chờ (nếu có) và trả về "thế hệ" mới.
+     */
+    private long cancelPending() {
+        long newGeneration = generation.incrementAndGet();
+        if (pending != null) {
+            pending.cancel(true);
+            pending = null;
+        }
+        return newGeneration;
+    }
+
+    private List<T> firstPage(List<T> matches) {
+        return (matches.size() > maxResults) ? new ArrayList<>(matches.subList(0, maxResults)) : matches;
+    }
+}
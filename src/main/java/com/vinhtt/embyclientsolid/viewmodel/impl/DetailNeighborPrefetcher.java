@@ -0,0 +1,184 @@
+package com.vinhtt.embyclientsolid.viewmodel.impl;
+
+import com.vinhtt.embyclientsolid.core.IBackgroundTaskService;
+import com.vinhtt.embyclientsolid.data.IItemRepository;
+import embyclient.model.BaseItemDto;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Helper tải trước (prefetch) chi tiết của các item lân cận item đang chọn trong Grid
+ * (dùng bởi {@link ItemDetailViewModel}), để duyệt bằng phím (Next/Previous) không phải chờ API.
+ *
+ * Với mỗi lựa chọn mới, tải trước chi tiết đầy đủ, danh sách ảnh và ảnh Primary của
+ * K item phía trước (theo hướng đang duyệt) và {@link #BEHIND} item phía sau.
+ * K thích ứng theo tốc độ duyệt: tăng gấp đôi khi người dùng chuyển item nhanh theo cùng hướng
+ * (tối đa {@link #MAX_AHEAD}), giảm khi chậm lại, về mức nhỏ nhất khi đổi hướng hoặc nhảy (click).
+ *
+ * Dữ liệu tải trước nằm trong các cache có giới hạn sẵn có (cache item của Repository,
+ * cache ảnh dùng chung). Các lượt tải trước không còn nằm trong vùng lân cận bị hủy
+ * (trừ lượt của item vừa được chọn; item này không được tải trước lần nữa).
+ * Phải được gọi từ luồng JavaFX.
+ */
+class DetailNeighborPrefetcher {
+
+    // Số item phía trước tối thiểu / tối đa được tải trước
+    private static final int MIN_AHEAD = 1;
+    private static final int MAX_AHEAD = 8;
+    // Số item phía sau (ngược hướng duyệt) được tải trước
+    private static final int BEHIND = 1;
+    // Hai lần chuyển item cách nhau ít hơn khoảng này (ms) được xem là duyệt nhanh
+    private static final long FAST_STEP_MS = 700;
+
+    private final IItemRepository itemRepository;
+    private final IBackgroundTaskService taskService;
+    private final Consumer<BaseItemDto> primaryImagePrefetcher;
+
+    // ID item -> lượt tải trước đang chạy (chỉ truy cập trên luồng FX)
+    private final Map<String, Future<?>> inFlight = new HashMap<>();
+
+    // --- Trạng thái duyệt (để thích ứng K) ---
+    private int lastIndex = -1;
+    private long lastStepAt = 0;
+    private int direction = 1; // +1: đi tới, -1: đi lùi
+    private int ahead = MIN_AHEAD;
+
+    // --- Thống kê ---
+    private long submittedCount = 0;
+    private long skippedCount = 0;
+    private long cancelledCount = 0;
+
+    /**
+     * @param itemRepository         Repo Đọc Item (có cache) để tải chi tiết và danh sách ảnh.
+     * @param taskService            Service chạy tác vụ nền (loại PREFETCH).
+     * @param primaryImagePrefetcher Hàm bắt đầu tải ảnh Primary của item (đúng kích thước của Cột 3).
+     */
+    DetailNeighborPrefetcher(IItemRepository itemRepository, IBackgroundTaskService taskService,
+                             Consumer<BaseItemDto> primaryImagePrefetcher) {
+        this.itemRepository = itemRepository;
+        this.taskService = taskService;
+        this.primaryImagePrefetcher = primaryImagePrefetcher;
+    }
+
+    /**
+     * Cập nhật vùng lân cận theo item vừa được chọn và tải trước các item chưa có trong cache.
+     *
+     * @param items         Danh sách item của trang Grid hiện tại.
+     * @param selectedIndex Vị trí item đang chọn (hoặc -1 nếu không có).
+     */
+    void onSelectionChanged(List<BaseItemDto> items, int selectedIndex) {
+        if (items == null || selectedIndex < 0 || selectedIndex >= items.size()) {
+            cancelAll();
+            lastIndex = -1;
+            return;
+        }
+        adaptWindow(selectedIndex);
+
+        // Vùng lân cận theo thứ tự ưu tiên: gần trước, hướng đang duyệt trước
+        Map<String, BaseItemDto> wanted = new LinkedHashMap<>();
+        for (int distance = 1; distance <= Math.max(ahead, BEHIND); distance++) {
+            if (distance <= ahead) addIfPresent(wanted, items, selectedIndex + direction * distance);
+            if (distance <= BEHIND) addIfPresent(wanted, items, selectedIndex - direction * distance);
+        }
+
+        // Hủy các lượt tải trước không còn nằm trong vùng lân cận.
+        // Giữ lượt tải trước của chính item vừa chọn: màn hình chi tiết đang cần nó
+        // (và sẽ dùng chung request đang chạy thay vì gửi lại).
+        BaseItemDto selected = items.get(selectedIndex);
+        String selectedId = (selected != null) ? selected.getId() : null;
+        Iterator<Map.Entry<String, Future<?>>> iterator = inFlight.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Future<?>> entry = iterator.next();
+            if (entry.getValue().isDone()) {
+                iterator.remove();
+            } else if (!wanted.containsKey(entry.getKey()) && !entry.getKey().equals(selectedId)) {
+                entry.getValue().cancel(true);
+                cancelledCount++;
+                iterator.remove();
+            }
+        }
+
+        for (BaseItemDto item : wanted.values()) {
+            String itemId = item.getId();
+            if (inFlight.containsKey(itemId)) continue;
+            if (isCached(itemId)) {
+                skippedCount++;
+                continue;
+            }
+            submittedCount++;
+            inFlight.put(itemId, taskService.submit(IBackgroundTaskService.Category.PREFETCH, "detail-prefetch", () -> {
+                try {
+                    BaseItemDto dto = itemRepository.getFullItemDetails(itemId);
+                    itemRepository.getItemImages(itemId);
+                    if (dto != null) primaryImagePrefetcher.accept(dto);
+                } catch (Exception e) {
+                    if (!Thread.currentThread().isInterrupted()) {
+                        System.err.println("Lỗi tải trước chi tiết item " + itemId + ": " + e.getMessage());
+                    }
+                }
+            }));
+        }
+    }
+
+    /**
+     * Hủy mọi lượt tải trước đang chạy.
+     */
+    void cancelAll() {
+        for (Future<?> task : inFlight.values()) {
+            if (task.cancel(true)) cancelledCount++;
+        }
+        inFlight.clear();
+    }
+
+    /**
+     * Thống kê (K hiện tại, số lượt tải trước, bỏ qua vì đã có trong cache, bị hủy).
+     */
+    @Override
+    public String toString() {
+        return "DetailNeighborPrefetcher: K=" + ahead + " (hướng " + (direction > 0 ? "+" : "-") + "), "
+                + submittedCount + " lượt tải trước, " + skippedCount + " đã có trong cache, "
+                + cancelledCount + " bị hủy, " + inFlight.size() + " đang chạy";
+    }
+
+    /**
+     * Điều chỉnh hướng và số item phía trước (K) theo bước chuyển vừa rồi.
+     */
+    private void adaptWindow(int selectedIndex) {
+        long now = System.currentTimeMillis();
+        int step = selectedIndex - lastIndex;
+        if (lastIndex >= 0 && Math.abs(step) == 1) {
+            int newDirection = (step > 0) ? 1 : -1;
+            boolean fast = now - lastStepAt <= FAST_STEP_MS;
+            if (newDirection != direction) {
+                ahead = MIN_AHEAD; // Đổi hướng
+            } else if (fast) {
+                ahead = Math.min(MAX_AHEAD, ahead * 2); // Duyệt nhanh cùng hướng
+            } else {
+                ahead = Math.max(MIN_AHEAD, ahead / 2); // Chậm lại
+            }
+            direction = newDirection;
+        } else if (step != 0) {
+            ahead = MIN_AHEAD; // Nhảy (click) hoặc trang mới
+        }
+        lastIndex = selectedIndex;
+        lastStepAt = now;
+    }
+
+    private boolean isCached(String itemId) {
+        return itemRepository.getCachedItemImages(itemId) != null && itemRepository.getCachedItemDetails(itemId) != null;
+    }
+
+    private static void addIfPresent(Map<String, BaseItemDto> target, List<BaseItemDto> items, int index) {
+        if (index < 0 || index >= items.size()) return;
+        BaseItemDto item = items.get(index);
+        if (item != null && item.getId() != null) {
+            target.putIfAbsent(item.getId(), item);
+        }
+    }
+}
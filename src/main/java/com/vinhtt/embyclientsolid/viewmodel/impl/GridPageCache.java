@@ -0,0 +1,117 @@
+package com.vinhtt.embyclientsolid.viewmodel.impl;
+
+import embyclient.model.QueryResultBaseItemDto;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bộ nhớ đệm LRU các trang kết quả của Cột 2 (Item Grid), dùng cho
+ * Back/Forward (UR-29) và prefetch trang lân cận.
+ * Dung lượng được giới hạn theo "ngân sách bộ nhớ" (ước lượng theo số item),
+ * trang ít được dùng nhất sẽ bị loại bỏ trước.
+ * Thread-safe (mọi phương thức đều synchronized).
+ *
+ * @param <K> Kiểu khóa xác định một trang.
+ */
+class GridPageCache<K> {
+
+    // Ước lượng bộ nhớ (byte) của một item (DTO với profile GRID_CARD) và của một trang
+    private static final long ESTIMATED_BYTES_PER_ITEM = 2 * 1024;
+    private static final long ESTIMATED_BYTES_PER_PAGE = 1024;
+
+    /**
+     * Một trang trong cache, kèm thời điểm tải (hoặc kiểm tra lại) từ server.
+     */
+    static final class Entry {
+        final QueryResultBaseItemDto result;
+        final long fetchedAt;
+        final long estimatedBytes;
+
+        Entry(QueryResultBaseItemDto result) {
+            this.result = result;
+            this.fetchedAt = System.currentTimeMillis();
+            int itemCount = (result.getItems() != null) ? result.getItems().size() : 0;
+            this.estimatedBytes = ESTIMATED_BYTES_PER_PAGE + itemCount * ESTIMATED_BYTES_PER_ITEM;
+        }
+
+        long ageMillis() {
+            return System.currentTimeMillis() - fetchedAt;
+        }
+    }
+
+    private final long budgetBytes;
+    private final LinkedHashMap<K, Entry> entries = new LinkedHashMap<>(16, 0.75f, true); // accessOrder = LRU
+    private long usedBytes = 0;
+
+    // --- Thống kê ---
+    private long hitCount = 0;
+    private long missCount = 0;
+    private long evictionCount = 0;
+
+    /**
+     * @param budgetBytes Ngân sách bộ nhớ tối đa (byte, ước lượng).
+     */
+    GridPageCache(long budgetBytes) {
+        this.budgetBytes = budgetBytes;
+    }
+
+    /**
+     * Lấy một trang (tính vào thống kê hit/miss).
+     *
+     * @return Entry hoặc null nếu không có.
+     */
+    synchronized Entry get(K key) {
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            hitCount++;
+        } else {
+            missCount++;
+        }
+        return entry;
+    }
+
+    /**
+     * Xem một trang mà không tính vào thống kê và không đổi thứ tự LRU.
+     */
+    synchronized Entry peek(K key) {
+        for (Map.Entry<K, Entry> e : entries.entrySet()) {
+            if (e.getKey().equals(key)) return e.getValue();
+        }
+        return null;
+    }
+
+    /**
+     * Thêm (hoặc thay thế) một trang, loại bỏ các trang cũ nhất nếu vượt ngân sách.
+     */
+    synchronized void put(K key, QueryResultBaseItemDto result) {
+        Entry entry = new Entry(result);
+        Entry previous = entries.put(key, entry);
+        if (previous != null) {
+            usedBytes -= previous.estimatedBytes;
+        }
+        usedBytes += entry.estimatedBytes;
+
+        Iterator<Map.Entry<K, Entry>> iterator = entries.entrySet().iterator();
+        while (usedBytes > budgetBytes && entries.size() > 1 && iterator.hasNext()) {
+            Map.Entry<K, Entry> eldest = iterator.next();
+            if (eldest.getKey().equals(key)) continue; // Không loại bỏ trang vừa thêm
+            usedBytes -= eldest.getValue().estimatedBytes;
+            iterator.remove();
+            evictionCount++;
+        }
+    }
+
+    // --- Getters thống kê ---
+    synchronized long getHitCount() { return hitCount; }
+    synchronized long getMissCount() { return missCount; }
+    synchronized long getEvictionCount() { return evictionCount; }
+    synchronized long getUsedBytes() { return usedBytes; }
+
+    @Override
+    public synchronized String toString() {
+        return "GridPageCache: " + entries.size() + " trang, ~" + (usedBytes / 1024) + "/" + (budgetBytes / 1024) + " KB, "
+                + hitCount + " hit, " + missCount + " miss, " + evictionCount + " bị loại";
+    }
+}
@@ -6,11 +6,15 @@ import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.value.ChangeListener;
 import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 /**
  * Lớp helper (trợ giúp) để theo dõi trạng thái "dirty" (đã thay đổi) của
@@ -18,6 +22,8 @@ import java.util.Objects;
  * Lớp này chụp một "snapshot" (ảnh chụp) dữ liệu gốc khi item được tải
  * và so sánh nó với dữ liệu UI hiện tại để xác định xem nút "Lưu" (Save)
  * có nên được kích hoạt hay không (UR-48).
+ * Mỗi thay đổi chỉ kiểm tra lại đúng trường bị thay đổi (cờ dirty theo từng trường);
+ * các danh sách chip được so sánh qua "dấu vân tay" cập nhật dần, không sao chép cả danh sách.
  * Nó cũng quản lý logic trạng thái phức tạp khi import (UR-49).
  */
 public class ItemDetailDirtyTracker {
@@ -29,20 +35,28 @@ public class ItemDetailDirtyTracker {
     // Lưu trữ trạng thái của item ngay sau khi tải xong
     private String originalTitle, originalOverview, originalReleaseDate, originalOriginalTitle;
     private Float originalCriticRating;
-    private List<Tag> originalTagItems;
-    private List<Tag> originalStudioItems;
-    private List<Tag> originalPeopleItems;
-    private List<Tag> originalGenreItems;
+    private boolean hasSnapshot = false;
+
+    // --- Theo dõi từng danh sách chip (snapshot + dấu vân tay) ---
+    // Tags/Studios/Genres không phân biệt thứ tự; People giữ thứ tự (thứ tự diễn viên)
+    private final TrackedList tagItems;
+    private final TrackedList studioItems;
+    private final TrackedList peopleItems;
+    private final TrackedList genreItems;
+
+    // Tên các trường đang khác snapshot (cùng tên trường với Import: "title", "tags"...)
+    private final Set<String> dirtyFields = new LinkedHashSet<>();
 
     // --- Listeners ---
-    // Các listener này sẽ được gắn vào các Property của ViewModel
-    // để gọi `checkForChanges()` mỗi khi có thay đổi
-    private final ChangeListener<String> stringListener = (obs, oldVal, newVal) -> checkForChanges();
-    private final ChangeListener<Number> ratingListener = (obs, oldVal, newVal) -> checkForChanges();
-    private final ListChangeListener<Tag> tagsListener = (c) -> checkForChanges();
-    private final ListChangeListener<Tag> studioItemsListener = (c) -> checkForChanges();
-    private final ListChangeListener<Tag> peopleItemsListener = (c) -> checkForChanges();
-    private final ListChangeListener<Tag> genreItemsListener = (c) -> checkForChanges();
+    // Mỗi listener chỉ kiểm tra lại đúng trường của nó
+    private final ChangeListener<String> titleListener =
+            (obs, oldVal, newVal) -> setFieldDirty("title", !Objects.equals(newVal, originalTitle));
+    private final ChangeListener<String> overviewListener =
+            (obs, oldVal, newVal) -> setFieldDirty("overview", !Objects.equals(newVal, originalOverview));
+    private final ChangeListener<String> releaseDateListener =
+            (obs, oldVal, newVal) -> setFieldDirty("releaseDate", !Objects.equals(newVal, originalReleaseDate));
+    private final ChangeListener<String> originalTitleListener =
+            (obs, oldVal, newVal) -> setFieldDirty("originalTitle", !Objects.equals(newVal, originalOriginalTitle));
 
     // --- Cờ trạng thái ---
     // Cờ `paused`: Dừng theo dõi (ví dụ: khi đang import JSON)
@@ -51,8 +65,75 @@ public class ItemDetailDirtyTracker {
     // Nút "Lưu" sẽ bị vô hiệu hóa ngay cả khi có thay đổi (UR-48)
     private boolean importAcceptancePending = false;
 
+    /**
+     * Một danh sách chip được theo dõi.
+     * "Dấu vân tay" (fingerprint) là tổng các hash (đã trộn) của các phần tử, được cập nhật
+     * theo từng thay đổi (chỉ xử lý các phần tử được thêm/xóa). Khác fingerprint hoặc khác kích thước
+     * nghĩa là chắc chắn đã thay đổi; chỉ khi trùng mới cần so sánh đầy đủ với snapshot
+     * (thường là khi người dùng hoàn tác về đúng danh sách gốc).
+     */
+    private final class TrackedList {
+        private final String fieldName;
+        private final ObservableList<Tag> list;
+        private final boolean ordered;
+        private final ListChangeListener<Tag> listener = this::onChanged;
+
+        private List<Tag> original;
+        private long originalFingerprint;
+        private long fingerprint;
+
+        TrackedList(String fieldName, ObservableList<Tag> list, boolean ordered) {
+            this.fieldName = fieldName;
+            this.list = list;
+            this.ordered = ordered;
+        }
+
+        void takeSnapshot() {
+            original = new ArrayList<>(list);
+            originalFingerprint = fingerprintOf(original);
+            fingerprint = originalFingerprint;
+        }
+
+        void clearSnapshot() {
+            original = null;
+            originalFingerprint = 0;
+            fingerprint = 0;
+        }
+
+        /**
+         * Tính lại fingerprint từ đầu (sau khi tạm dừng, có thể đã bỏ lỡ thay đổi).
+         */
+        void resync() {
+            fingerprint = fingerprintOf(list);
+        }
+
+        private void onChanged(ListChangeListener.Change<? extends Tag> change) {
+            while (change.next()) {
+                if (change.wasUpdated()) {
+                    resync(); // Phần tử tự thay đổi (không xảy ra với Tag bất biến)
+                    break;
+                }
+                for (Tag removed : change.getRemoved()) fingerprint -= mix(removed);
+                for (Tag added : change.getAddedSubList()) fingerprint += mix(added);
+            }
+            setFieldDirty(fieldName, isChanged());
+        }
+
+        boolean isChanged() {
+            if (original == null) return false;
+            if (list.size() != original.size() || fingerprint != originalFingerprint) return true;
+            // Fingerprint trùng: so sánh đầy đủ
+            if (ordered) return !original.equals(list);
+            return !sameElements(original, list);
+        }
+    }
+
     public ItemDetailDirtyTracker(IItemDetailViewModel viewModel) {
         this.viewModel = viewModel;
+        this.tagItems = new TrackedList("tags", viewModel.getTagItems(), false);
+        this.studioItems = new TrackedList("studios", viewModel.getStudioItems(), false);
+        this.peopleItems = new TrackedList("people", viewModel.getPeopleItems(), true);
+        this.genreItems = new TrackedList("genres", viewModel.getGenreItems(), false);
     }
 
     /**
@@ -125,65 +206,71 @@ public class ItemDetailDirtyTracker {
      * Gắn listener vào tất cả các Property của ViewModel.
      */
     private void addListeners() {
-        viewModel.titleProperty().addListener(stringListener);
+        viewModel.titleProperty().addListener(titleListener);
         // (UR-33) KHÔNG lắng nghe CriticRating, vì nó tự lưu
         // và không kích hoạt trạng thái "dirty" của nút Save chính (UR-48).
-        viewModel.overviewProperty().addListener(stringListener);
-        viewModel.releaseDateProperty().addListener(stringListener);
-        viewModel.originalTitleProperty().addListener(stringListener);
-        viewModel.getTagItems().addListener(tagsListener);
-        viewModel.getStudioItems().addListener(studioItemsListener);
-        viewModel.getPeopleItems().addListener(peopleItemsListener);
-        viewModel.getGenreItems().addListener(genreItemsListener);
+        viewModel.overviewProperty().addListener(overviewListener);
+        viewModel.releaseDateProperty().addListener(releaseDateListener);
+        viewModel.originalTitleProperty().addListener(originalTitleListener);
+        for (TrackedList tracked : trackedLists()) {
+            tracked.list.addListener(tracked.listener);
+        }
     }
 
     /**
      * Xóa tất cả listener.
      */
     private void removeListeners() {
-        viewModel.titleProperty().removeListener(stringListener);
-        viewModel.overviewProperty().removeListener(stringListener);
-        viewModel.releaseDateProperty().removeListener(stringListener);
-        viewModel.originalTitleProperty().removeListener(stringListener);
-        viewModel.getTagItems().removeListener(tagsListener);
-        viewModel.getStudioItems().removeListener(studioItemsListener);
-        viewModel.getPeopleItems().removeListener(peopleItemsListener);
-        viewModel.getGenreItems().removeListener(genreItemsListener);
+        viewModel.titleProperty().removeListener(titleListener);
+        viewModel.overviewProperty().removeListener(overviewListener);
+        viewModel.releaseDateProperty().removeListener(releaseDateListener);
+        viewModel.originalTitleProperty().removeListener(originalTitleListener);
+        for (TrackedList tracked : trackedLists()) {
+            tracked.list.removeListener(tracked.listener);
+        }
     }
 
     /**
-     * Logic cốt lõi: So sánh trạng thái UI hiện tại với "snapshot" gốc
-     * để xác định xem có thay đổi hay không (UR-48).
+     * Kiểm tra lại toàn bộ các trường so với "snapshot" gốc (UR-48).
+     * Chỉ dùng khi có thể đã bỏ lỡ thay đổi (sau khi tạm dừng) hoặc khi snapshot thay đổi;
+     * các thay đổi thường ngày được xử lý từng trường qua listener.
      */
     private void checkForChanges() {
         if (paused) return; // Không kiểm tra nếu đang tạm dừng
 
-        if (originalTitle == null && originalTagItems == null) {
-            isDirty.set(false); // Chưa bắt đầu theo dõi
-            return;
+        dirtyFields.clear();
+        if (hasSnapshot) {
+            if (!Objects.equals(viewModel.titleProperty().get(), originalTitle)) dirtyFields.add("title");
+            if (!Objects.equals(viewModel.originalTitleProperty().get(), originalOriginalTitle)) dirtyFields.add("originalTitle");
+            if (!Objects.equals(viewModel.overviewProperty().get(), originalOverview)) dirtyFields.add("overview");
+            if (!Objects.equals(viewModel.releaseDateProperty().get(), originalReleaseDate)) dirtyFields.add("releaseDate");
+            for (TrackedList tracked : trackedLists()) {
+                tracked.resync();
+                if (tracked.isChanged()) dirtyFields.add(tracked.fieldName);
+            }
         }
+        publishDirty();
+    }
 
-        // So sánh các trường String
-        boolean stringChanges = !Objects.equals(viewModel.titleProperty().get(), originalTitle) ||
-                !Objects.equals(viewModel.overviewProperty().get(), originalOverview) ||
-                !Objects.equals(viewModel.releaseDateProperty().get(), originalReleaseDate) ||
-                !Objects.equals(viewModel.originalTitleProperty().get(), originalOriginalTitle);
-
-        // So sánh nội dung của các danh sách (List)
-        // (Phải tạo new ArrayList để so sánh nội dung, không phải tham chiếu)
-        boolean tagChanges = !Objects.equals(new ArrayList<>(viewModel.getTagItems()), originalTagItems);
-        boolean studioChanges = !Objects.equals(new ArrayList<>(viewModel.getStudioItems()), originalStudioItems);
-        boolean peopleChanges = !Objects.equals(new ArrayList<>(viewModel.getPeopleItems()), originalPeopleItems);
-        boolean genreChanges = !Objects.equals(new ArrayList<>(viewModel.getGenreItems()), originalGenreItems);
-
-        boolean changes = stringChanges || tagChanges || studioChanges || peopleChanges || genreChanges;
+    /**
+     * Cập nhật cờ dirty của một trường và trạng thái 'isDirty' chung.
+     */
+    private void setFieldDirty(String fieldName, boolean dirty) {
+        if (paused || !hasSnapshot) return;
+        boolean changed = dirty ? dirtyFields.add(fieldName) : dirtyFields.remove(fieldName);
+        if (changed) publishDirty();
+    }
 
+    /**
+     * Cập nhật 'isDirty' từ các cờ của từng trường.
+     */
+    private void publishDirty() {
         // (UR-48) Nếu đang ở chế độ import (chờ chấp nhận ✓),
         // nút Save VẪN BỊ vô hiệu hóa, ngay cả khi có thay đổi.
         if (importAcceptancePending) {
             isDirty.set(false);
         } else {
-            isDirty.set(changes);
+            isDirty.set(!dirtyFields.isEmpty());
         }
     }
 
@@ -216,14 +303,14 @@ public class ItemDetailDirtyTracker {
         this.originalOverview = viewModel.overviewProperty().get();
         this.originalReleaseDate = viewModel.releaseDateProperty().get();
         this.originalCriticRating = viewModel.criticRatingProperty().get();
-        // (Phải tạo new ArrayList để sao chép giá trị, không phải tham chiếu)
-        this.originalTagItems = new ArrayList<>(viewModel.getTagItems());
-        this.originalStudioItems = new ArrayList<>(viewModel.getStudioItems());
-        this.originalPeopleItems = new ArrayList<>(viewModel.getPeopleItems());
-        this.originalGenreItems = new ArrayList<>(viewModel.getGenreItems());
+        for (TrackedList tracked : trackedLists()) {
+            tracked.takeSnapshot();
+        }
+        this.hasSnapshot = true;
+        dirtyFields.clear(); // Snapshot trùng với UI hiện tại
 
         importAcceptancePending = false; // Reset cờ import
-        checkForChanges(); // Kiểm tra lại (thường sẽ set isDirty=false)
+        if (!paused) publishDirty(); // Snapshot vừa chụp: isDirty=false
     }
 
     /**
@@ -239,7 +326,7 @@ public class ItemDetailDirtyTracker {
             // coi như họ đã chấp nhận (✓) thay đổi.
             importAcceptancePending = false;
         }
-        checkForChanges(); // Kiểm tra lại
+        publishDirty(); // Rating không nằm trong các trường được theo dõi
     }
 
     /**
@@ -251,10 +338,23 @@ public class ItemDetailDirtyTracker {
         this.originalOverview = null;
         this.originalReleaseDate = null;
         this.originalCriticRating = null;
-        this.originalTagItems = null;
-        this.originalStudioItems = null;
-        this.originalPeopleItems = null;
-        this.originalGenreItems = null;
+        for (TrackedList tracked : trackedLists()) {
+            tracked.clearSnapshot();
+        }
+        this.hasSnapshot = false;
+        dirtyFields.clear();
+    }
+
+    /**
+     * Tên các trường đang khác "snapshot" gốc (dùng để chỉ gửi các trường đã sửa khi lưu).
+     * Tên trường giống với Import: "title", "originalTitle", "overview", "releaseDate",
+     * "tags", "studios", "people", "genres".
+     * Có thể rỗng dù 'isDirty' là true (khi bị kích hoạt cưỡng bức qua {@link #forceDirty()}).
+     *
+     * @return Bản sao tập tên trường.
+     */
+    public Set<String> getDirtyFields() {
+        return new LinkedHashSet<>(dirtyFields);
     }
 
     /**
@@ -264,4 +364,42 @@ public class ItemDetailDirtyTracker {
     public BooleanProperty isDirtyProperty() {
         return isDirty;
     }
+
+    private List<TrackedList> trackedLists() {
+        return List.of(tagItems, studioItems, peopleItems, genreItems);
+    }
+
+    /**
+     * Fingerprint (không phụ thuộc thứ tự) của một danh sách.
+     */
+    private static long fingerprintOf(List<Tag> tags) {
+        long fingerprint = 0;
+        for (Tag tag : tags) fingerprint += mix(tag);
+        return fingerprint;
+    }
+
+    /**
+     * Trộn hash của phần tử (bộ trộn 64-bit của SplitMix64) để tổng các hash ít bị trùng.
+     */
+    private static long mix(Tag tag) {
+        long z = (tag != null ? tag.hashCode() : 0) + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * So sánh hai danh sách như tập hợp có lặp (không phụ thuộc thứ tự).
+     */
+    private static boolean sameElements(List<Tag> first, List<Tag> second) {
+        if (first.size() != second.size()) return false;
+        Map<Tag, Integer> counts = new HashMap<>();
+        for (Tag tag : first) counts.merge(tag, 1, Integer::sum);
+        for (Tag tag : second) {
+            Integer count = counts.get(tag);
+            if (count == null) return false;
+            if (count == 1) counts.remove(tag); else counts.put(tag, count - 1);
+        }
+        return counts.isEmpty();
+    }
 }
\ No newline at end of file
@@ -1,9 +1,10 @@
 package com.vinhtt.embyclientsolid.viewmodel.impl;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import com.vinhtt.embyclientsolid.core.*;
 import com.vinhtt.embyclientsolid.data.*;
+import com.vinhtt.embyclientsolid.model.BaseItemDtoCopier;
+import com.vinhtt.embyclientsolid.model.CloneProgress;
+import com.vinhtt.embyclientsolid.model.ImageRequest;
 import com.vinhtt.embyclientsolid.model.LibraryTreeItem;
 import com.vinhtt.embyclientsolid.model.ReleaseInfo;
 import com.vinhtt.embyclientsolid.model.SuggestionContext;
@@ -13,7 +14,6 @@ import com.vinhtt.embyclientsolid.services.JsonFileHandler;
 import com.vinhtt.embyclientsolid.viewmodel.AddTagResult;
 import com.vinhtt.embyclientsolid.viewmodel.IItemDetailViewModel;
 import com.vinhtt.embyclientsolid.viewmodel.ILibraryTreeViewModel;
-import embyclient.JSON;
 import embyclient.model.*;
 import javafx.application.Platform;
 import javafx.beans.property.*;
@@ -31,10 +31,22 @@ import java.time.Instant;
 import java.time.OffsetDateTime;
 import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
 import java.util.stream.Collectors;
 import java.io.File;
 
@@ -52,10 +64,13 @@ public class ItemDetailViewModel implements IItemDetailViewModel {
     private final IItemRepository itemRepository;
     private final IItemUpdateService itemUpdateService;
     private final IStaticDataRepository staticDataRepository;
+    private final IPersonIndexService personIndexService;
     private final IExternalDataService externalDataService;
     private final ILocalInteractionService localInteractionService;
     private final INotificationService notificationService;
     private final IEmbySessionService sessionService;
+    private final IImageCacheService imageCacheService;
+    private final IBackgroundTaskService taskService;
     private final ILibraryTreeViewModel libraryTreeViewModel;
     private final IConfigurationService configService;
 
@@ -71,13 +86,25 @@ public class ItemDetailViewModel implements IItemDetailViewModel {
      */
     private final ItemDetailImportHandler importHandler;
 
+    /**
+     * Helper tải trước chi tiết của các item lân cận trong Grid (duyệt bằng phím).
+     */
+    private final DetailNeighborPrefetcher neighborPrefetcher;
+
     /**
      * Helper xử lý việc hiển thị dialog Mở/Lưu file .json (UR-44, UR-45).
      */
     private final JsonFileHandler jsonFileHandler;
-    private final Gson gson;
     private boolean playAfterLoad = false;
 
+    // Thời gian (ms) lựa chọn phải giữ nguyên trước khi gọi API tải chi tiết
+    private static final long DETAIL_LOAD_SETTLE_MS = 150;
+    // Thời hạn chung (ms) cho toàn bộ các request của một lượt tải chi tiết
+    private static final long DETAIL_LOAD_TIMEOUT_MS = 30_000;
+    // Tăng mỗi lần tải item; kết quả của lượt tải cũ hơn bị bỏ qua
+    private final AtomicLong loadGeneration = new AtomicLong();
+    private Future<?> loadTask = null; // Lượt tải chi tiết đang chạy (chỉ truy cập trên luồng FX)
+
     // --- Trạng thái nội bộ ---
     /**
      * Lưu trữ bản gốc DTO được tải từ server. Dùng để so sánh thay đổi
@@ -85,6 +112,12 @@ public class ItemDetailViewModel implements IItemDetailViewModel {
      */
     private BaseItemDto originalItemDto;
     private String currentItemId;
+    // Các ảnh (Primary, Backdrop) đã yêu cầu cho item hiện tại, để hủy khi chuyển item (chỉ truy cập trên luồng FX)
+    private final List<ImageRequest> currentImageRequests = new ArrayList<>();
+    // Chiều cao (px vật lý, đã làm tròn theo mức) của ảnh Primary và thumbnail Backdrop.
+    // Mặc định theo kích thước hiển thị ở DPI 1.0, Controller cập nhật theo màn hình thật.
+    private volatile int primaryImageHeight = ImageRequest.bucketSize(450, 1.0);
+    private volatile int backdropImageHeight = ImageRequest.bucketSize(100, 1.0);
     private final SimpleDateFormat dateFormat = new SimpleDateFormat("dd/MM/yyyy");
     /**
      * Lưu lại bối cảnh (Context) của lần mở dialog "Add Chip" cuối cùng,
@@ -92,6 +125,12 @@ public class ItemDetailViewModel implements IItemDetailViewModel {
      */
     private SuggestionContext lastAddContext = SuggestionContext.TAG;
 
+    /**
+     * Cờ hủy của lần nhân bản (clone) đang chạy (null nếu không có lần nào đang chạy).
+     * Gọi lại clonePropertiesCommand trong lúc đang chạy sẽ bật cờ này để hủy (UR-37).
+     */
+    private volatile AtomicBoolean runningCloneCancelFlag = null;
+
 
     // --- Properties (Trạng thái UI) ---
     private final ReadOnlyBooleanWrapper loading = new ReadOnlyBooleanWrapper(false);
@@ -150,25 +189,33 @@ public class ItemDetailViewModel implements IItemDetailViewModel {
      * @param itemRepository       Repo Đọc Item.
      * @param itemUpdateService    Repo Ghi Item.
      * @param staticDataRepository Repo Đọc gợi ý.
+     * @param personIndexService   Dịch vụ tra cứu People theo tên.
      * @param externalDataService  Repo gọi API bên ngoài.
      * @param localInteractionService Dịch vụ tương tác file local.
      * @param notificationService  Dịch vụ thông báo.
      * @param sessionService       Dịch vụ session.
+     * @param imageCacheService    Dịch vụ cache ảnh (dùng chung với Cột 2).
+     * @param taskService          Dịch vụ chạy tác vụ nền.
      * @param libraryTreeViewModel VM Cột 1 (để lấy thư mục cha khi Clone).
      * @param configService        Dịch vụ đọc config.
      */
     public ItemDetailViewModel(IItemRepository itemRepository, IItemUpdateService itemUpdateService,
-                               IStaticDataRepository staticDataRepository, IExternalDataService externalDataService,
+                               IStaticDataRepository staticDataRepository, IPersonIndexService personIndexService,
+                               IExternalDataService externalDataService,
                                ILocalInteractionService localInteractionService, INotificationService notificationService,
-                               IEmbySessionService sessionService, ILibraryTreeViewModel libraryTreeViewModel,
-                               IConfigurationService configService) {
+                               IEmbySessionService sessionService, IImageCacheService imageCacheService,
+                               IBackgroundTaskService taskService,
+                               ILibraryTreeViewModel libraryTreeViewModel, IConfigurationService configService) {
         this.itemRepository = itemRepository;
         this.itemUpdateService = itemUpdateService;
         this.staticDataRepository = staticDataRepository;
+        this.personIndexService = personIndexService;
         this.externalDataService = externalDataService;
         this.localInteractionService = localInteractionService;
         this.notificationService = notificationService;
         this.sessionService = sessionService;
+        this.imageCacheService = imageCacheService;
+        this.taskService = taskService;
         this.libraryTreeViewModel = libraryTreeViewModel;
         this.configService = configService;
 
@@ -176,13 +223,12 @@ public class ItemDetailViewModel implements IItemDetailViewModel {
         this.statusMessage = new ReadOnlyStringWrapper(configService.getString("itemDetailView", "statusDefault"));
         this.dirtyTracker = new ItemDetailDirtyTracker(this);
         this.importHandler = new ItemDetailImportHandler(this, this.dirtyTracker);
+        this.neighborPrefetcher = new DetailNeighborPrefetcher(itemRepository, taskService, dto -> {
+            ImageRequest request = primaryImageRequest(dto);
+            if (request != null) imageCacheService.getImage(request);
+        });
         this.jsonFileHandler = new JsonFileHandler(configService);
 
-        // Cấu hình Gson để parse/serialize DTO khi import/export
-        this.gson = new GsonBuilder()
-                .registerTypeAdapter(OffsetDateTime.class, new JSON.OffsetDateTimeTypeAdapter())
-                .create();
-
         // Lắng nghe thay đổi của newPrimaryImageFile để cập nhật cờ primaryImageDirty (UR-42)
         newPrimaryImageFile.addListener((obs, oldVal, newVal) -> primaryImageDirty.set(newVal != null));
 
@@ -224,80 +270,225 @@ public class ItemDetailViewModel implements IItemDetailViewModel {
 
     /**
      * Hàm private chứa logic tải item, được gọi bởi cả loadItem và loadItemAndPlay.
+     *
+     * Mỗi lượt tải mang một "thế hệ" (generation): khi người dùng chọn item khác
+     * (ví dụ: giữ phím chuyển item), lượt tải cũ bị hủy (ngắt cả request HTTP)
+     * và kết quả của nó bị bỏ qua. Việc gọi API chỉ bắt đầu khi lựa chọn đã "ổn định"
+     * ({@link #DETAIL_LOAD_SETTLE_MS}). Dữ liệu đã có trong cache được hiển thị ngay,
+     * nhưng vẫn được làm mới từ server (cùng thế hệ) sau khi lựa chọn ổn định.
+     * (Gọi trên luồng FX).
      */
     private void internalLoadItem(BaseItemDto item) {
+        final long generation = loadGeneration.incrementAndGet();
+        if (loadTask != null) {
+            loadTask.cancel(true);
+            loadTask = null;
+        }
+
         if (item == null) {
-            Platform.runLater(this::clearAllDetailsUI);
+            Platform.runLater(() -> {
+                clearAllDetailsUI();
+                loading.set(false); // Lượt tải (nếu có) vừa bị hủy
+            });
             return;
         }
         final String newItemId = item.getId();
 
-        Platform.runLater(() -> {
-            statusMessage.set(configService.getString("itemDetailViewModel", "statusLoading", item.getName()));
-            showStatusMessage.set(true);
-            loading.set(true);
-        });
-
-        new Thread(() -> {
-            try {
-                // 1. Lấy dữ liệu từ Repo
-                BaseItemDto loadedDto = itemRepository.getFullItemDetails(newItemId);
-                List<ImageInfo> backdrops = itemRepository.getItemImages(newItemId).stream()
-                        .filter(img -> ImageType.BACKDROP.equals(img.getImageType()))
-                        .collect(Collectors.toList());
+        statusMessage.set(configService.getString("itemDetailViewModel", "statusLoading", item.getName()));
+        showStatusMessage.set(true);
+        loading.set(true);
 
-                // 2. Cập nhật UI trên luồng JavaFX
-                Platform.runLater(() -> {
-                    // --- SỬA LỖI QUAN TRỌNG (TỪ LẦN TRƯỚC) ---
-                    // Lưu lại cờ playAfterLoad TRƯỚC KHI gọi clearAllDetailsUI
-                    boolean intendedToPlay = this.playAfterLoad;
+        // 1. Dữ liệu đã có trong cache: hiển thị ngay, không chờ
+        BaseItemDto cachedDto = itemRepository.getCachedItemDetails(newItemId);
+        List<ImageInfo> cachedImages = (cachedDto != null) ? itemRepository.getCachedItemImages(newItemId) : null;
+        final boolean shownFromCache = cachedDto != null && cachedImages != null;
+        if (shownFromCache) {
+            applyLoadedItem(newItemId, cachedDto, filterBackdrops(cachedImages));
+        }
 
-                    clearAllDetailsUI(); // Hàm này sẽ đặt playAfterLoad = false
+        // 2. Chờ lựa chọn ổn định rồi mới gọi API (task bị hủy trong lúc chờ sẽ không gửi request nào).
+        // Nếu đã hiển thị từ cache, lượt này chỉ làm mới dữ liệu đang hiển thị.
+        loadTask = taskService.submit(IBackgroundTaskService.Category.INTERACTIVE, "detail-load",
+                () -> {
+                    Thread.sleep(DETAIL_LOAD_SETTLE_MS);
+                    fetchItemConcurrently(generation, item, shownFromCache);
+                    return null;
+                },
+                null,
+                e -> {
+                    if (generation != loadGeneration.get()) return;
+                    if (shownFromCache) {
+                        // Vẫn giữ bản cache đang hiển thị (lệnh GHI luôn lấy bản mới từ server)
+                        System.err.println("Lỗi làm mới chi tiết item " + newItemId + ": " + e.getMessage());
+                        return;
+                    }
+                    clearAllDetailsUI();
+                    statusMessage.set(configService.getString("itemDetailViewModel", "errorLoad", e.getMessage()));
+                    showStatusMessage.set(true);
+                    loading.set(false);
+                });
+    }
 
-                    // Đặt lại cờ nếu nó được dự định
-                    this.playAfterLoad = intendedToPlay;
-                    // --- KẾT THÚC SỬA LỖI ---
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void prefetchNeighbors(List<BaseItemDto> items, int selectedIndex) {
+        neighborPrefetcher.onSelectionChanged(items, selectedIndex);
+    }
 
-                    // --- PHẦN BỊ THIẾU MÀ TÔI QUÊN ---
-                    this.originalItemDto = loadedDto;
-                    this.currentItemId = newItemId;
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getNeighborPrefetchStats() {
+        return neighborPrefetcher.toString();
+    }
 
-                    title.set(loadedDto.getName() != null ? loadedDto.getName() : "");
-                    String originalTitleFromDto = loadedDto.getOriginalTitle();
-                    if (originalTitleFromDto == null || originalTitleFromDto.trim().isEmpty()) {
-                        String suggestedTitle = suggestOriginalTitleFromPath(loadedDto.getPath());
-                        originalTitle.set(suggestedTitle != null ? suggestedTitle : "");
-                    } else {
-                        originalTitle.set(originalTitleFromDto);
+    /**
+     * Tải chi tiết item (ở luồng nền): DTO, danh sách ảnh và ảnh Primary được tải ĐỒNG THỜI
+     * (thời gian chờ là request chậm nhất, không phải tổng các request), với chung một thời hạn
+     * {@link #DETAIL_LOAD_TIMEOUT_MS}. UI được cập nhật dần: các trường ngay khi có DTO,
+     * gallery khi có danh sách ảnh, ảnh Primary tự hiện khi tải xong.
+     * Khi lượt tải bị hủy, lỗi hoặc hết thời gian, các request còn chạy đều bị hủy.
+     *
+     * @param generation Thế hệ của lượt tải (để bỏ qua nếu đã có lượt tải mới hơn).
+     * @param item       Item (DTO từ Grid) cần tải.
+     * @param refreshing true nếu item đã được hiển thị từ cache: chỉ hiển thị lại khi dữ liệu
+     *                   trên server khác và người dùng chưa sửa gì (xem {@link #applyRefreshedItem}).
+     */
+    private void fetchItemConcurrently(long generation, BaseItemDto item, boolean refreshing) throws Exception {
+        final String itemId = item.getId();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(DETAIL_LOAD_TIMEOUT_MS);
+
+        // Ảnh Primary: bắt đầu tải ngay theo tag có sẵn trong DTO của Grid,
+        // khi DTO đầy đủ về, ảnh được lấy lại từ cache ảnh (cùng yêu cầu).
+        // (Khi làm mới, ảnh đã được hiển thị từ cache.)
+        ImageRequest earlyPrimary = refreshing ? null : primaryImageRequest(item);
+        if (earlyPrimary != null) imageCacheService.getImage(earlyPrimary);
+
+        boolean detailsShown = false;
+        // Các request con chỉ sống trong khối này (close() chờ chúng kết thúc)
+        try (ExecutorService scope = Executors.newVirtualThreadPerTaskExecutor()) {
+            // DTO luôn lấy từ server: nó sẽ là nền cho các lệnh GHI
+            Future<BaseItemDto> dtoFuture = scope.submit(() -> itemRepository.getFreshItemDetails(itemId));
+            Future<List<ImageInfo>> imagesFuture = scope.submit(() -> filterBackdrops(itemRepository.getItemImages(itemId)));
+            try {
+                // 1. Các trường (Title, Tags, People...) hiển thị ngay khi có DTO
+                BaseItemDto loadedDto = awaitPart(dtoFuture, deadline);
+                Platform.runLater(() -> {
+                    if (generation == loadGeneration.get() && refreshing) {
+                        applyRefreshedItem(itemId, loadedDto);
+                    } else if (generation == loadGeneration.get()) {
+                        applyLoadedItem(itemId, loadedDto, new ArrayList<>());
+                    } else if (earlyPrimary != null) {
+                        imageCacheService.cancelLoad(earlyPrimary); // Đã có lượt tải mới hơn
                     }
-                    criticRating.set(loadedDto.getCriticRating());
-                    overview.set(loadedDto.getOverview() != null ? loadedDto.getOverview() : "");
-                    releaseDate.set(dateToString(loadedDto.getPremiereDate()));
-                    itemPath.set(loadedDto.getPath() != null ? loadedDto.getPath() : configService.getString("itemDetailLoader", "noPath"));
-                    isFolder.set(Boolean.TRUE.equals(loadedDto.isIsFolder()));
-
-                    tagItems.setAll(parseNameLongIdPair(loadedDto.getTagItems()));
-                    studioItems.setAll(parseNameLongIdPair(loadedDto.getStudios()));
-                    genreItems.setAll(parseStringList(loadedDto.getGenres()));
-                    peopleItems.setAll(parseBaseItemPerson(loadedDto.getPeople()));
-
-                    primaryImage.set(getPrimaryImageUrl(loadedDto));
-                    backdropImages.setAll(backdrops);
-                    // --- KẾT THÚC PHẦN BỊ THIẾU ---
-
-                    loading.set(false); // Dòng này sẽ kích hoạt listener trong constructor
-                    showStatusMessage.set(false);
-                    dirtyTracker.startTracking();
                 });
-            } catch (Exception e) {
+                detailsShown = true;
+
+                // 2. Gallery Backdrop khi có danh sách ảnh (lỗi ở đây không làm mất các trường đã hiển thị)
+                List<ImageInfo> backdrops;
+                try {
+                    backdrops = awaitPart(imagesFuture, deadline);
+                } catch (InterruptedException e) {
+                    throw e;
+                } catch (Exception e) {
+                    System.err.println("Lỗi khi tải danh sách ảnh của item " + itemId + ": " + e.getMessage());
+                    return;
+                }
                 Platform.runLater(() -> {
-                    clearAllDetailsUI();
-                    statusMessage.set(configService.getString("itemDetailViewModel", "errorLoad", e.getMessage()));
-                    showStatusMessage.set(true);
-                    loading.set(false);
+                    if (generation == loadGeneration.get() && itemId.equals(currentItemId)
+                            && !backdrops.equals(backdropImages)) {
+                        backdropImages.setAll(backdrops);
+                    }
                 });
+            } finally {
+                scope.shutdownNow(); // Hủy các request còn chạy (lỗi, hết thời gian hoặc lượt tải bị hủy)
             }
-        }).start();
+        } catch (Exception e) {
+            if (!detailsShown && earlyPrimary != null) imageCacheService.cancelLoad(earlyPrimary);
+            throw e;
+        }
+    }
+
+    /**
+     * Chờ một phần của lượt tải trong thời hạn chung, trả về lỗi gốc nếu phần đó thất bại.
+     */
+    private <T> T awaitPart(Future<T> future, long deadlineNanos) throws Exception {
+        try {
+            return future.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw (cause instanceof Exception) ? (Exception) cause : e;
+        } catch (TimeoutException e) {
+            throw new TimeoutException(configService.getString("itemDetailViewModel", "errorLoadTimeout",
+                    DETAIL_LOAD_TIMEOUT_MS / 1000));
+        }
+    }
+
+    private static List<ImageInfo> filterBackdrops(List<ImageInfo> images) {
+        return images.stream()
+                .filter(img -> ImageType.BACKDROP.equals(img.getImageType()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Hiển thị item vừa tải lên UI và bắt đầu theo dõi thay đổi (trên luồng FX).
+     */
+    private void applyLoadedItem(String newItemId, BaseItemDto loadedDto, List<ImageInfo> backdrops) {
+        // --- SỬA LỖI QUAN TRỌNG (TỪ LẦN TRƯỚC) ---
+        // Lưu lại cờ playAfterLoad TRƯỚC KHI gọi clearAllDetailsUI
+        boolean intendedToPlay = this.playAfterLoad;
+
+        clearAllDetailsUI(); // Hàm này sẽ đặt playAfterLoad = false
+
+        // Đặt lại cờ nếu nó được dự định
+        this.playAfterLoad = intendedToPlay;
+        // --- KẾT THÚC SỬA LỖI ---
+
+        // --- PHẦN BỊ THIẾU MÀ TÔI QUÊN ---
+        this.originalItemDto = loadedDto;
+        this.currentItemId = newItemId;
+
+        title.set(loadedDto.getName() != null ? loadedDto.getName() : "");
+        String originalTitleFromDto = loadedDto.getOriginalTitle();
+        if (originalTitleFromDto == null || originalTitleFromDto.trim().isEmpty()) {
+            String suggestedTitle = suggestOriginalTitleFromPath(loadedDto.getPath());
+            originalTitle.set(suggestedTitle != null ? suggestedTitle : "");
+        } else {
+            originalTitle.set(originalTitleFromDto);
+        }
+        criticRating.set(loadedDto.getCriticRating());
+        overview.set(loadedDto.getOverview() != null ? loadedDto.getOverview() : "");
+        releaseDate.set(dateToString(loadedDto.getPremiereDate()));
+        itemPath.set(loadedDto.getPath() != null ? loadedDto.getPath() : configService.getString("itemDetailLoader", "noPath"));
+        isFolder.set(Boolean.TRUE.equals(loadedDto.isIsFolder()));
+
+        tagItems.setAll(parseNameLongIdPair(loadedDto.getTagItems()));
+        studioItems.setAll(parseNameLongIdPair(loadedDto.getStudios()));
+        genreItems.setAll(parseStringList(loadedDto.getGenres()));
+        peopleItems.setAll(parseBaseItemPerson(loadedDto.getPeople()));
+
+        primaryImage.set(getPrimaryImageUrl(loadedDto));
+        backdropImages.setAll(backdrops);
+        // --- KẾT THÚC PHẦN BỊ THIẾU ---
+
+        loading.set(false); // Dòng này sẽ kích hoạt listener trong constructor
+        showStatusMessage.set(false);
+        dirtyTracker.startTracking();
+    }
+
+    /**
+     * Áp dụng bản mới từ server cho item đang hiển thị từ cache (trên luồng FX).
+     * Chỉ hiển thị lại nếu dữ liệu khác bản đang hiển thị VÀ người dùng chưa sửa gì
+     * (không dirty, không có ảnh Primary chưa lưu, không đang import), để không làm mất thay đổi chưa lưu.
+     */
+    private void applyRefreshedItem(String itemId, BaseItemDto freshDto) {
+        if (!itemId.equals(currentItemId)) return;
+        if (freshDto.equals(originalItemDto)) return; // Bản cache vẫn đúng
+        if (dirtyTracker.isDirtyProperty().get() || primaryImageDirty.get() || importHandler.wasImportInProgress()) return;
+        applyLoadedItem(itemId, freshDto, new ArrayList<>(backdropImages));
     }
 
     /**
@@ -317,6 +508,7 @@ public class ItemDetailViewModel implements IItemDetailViewModel {
         isFolder.set(false);
         primaryImage.set(null);
         backdropImages.clear();
+        cancelImageLoads(); // Ngừng tải ảnh của item cũ
         tagItems.clear();
         studioItems.clear();
         peopleItems.clear();
@@ -361,19 +553,42 @@ public class ItemDetailViewModel implements IItemDetailViewModel {
     }
 
     /**
-     * Helper: Xây dựng URL đầy đủ cho ảnh Primary (UR-42).
+     * Helper: Lấy ảnh Primary (UR-42) từ cache ảnh (tải nền nếu chưa có).
      */
     private Image getPrimaryImageUrl(BaseItemDto dto) {
+        ImageRequest request = primaryImageRequest(dto);
+        return (request != null) ? requestImage(request) : null;
+    }
+
+    /**
+     * Yêu cầu ảnh Primary của item, hoặc null nếu item không có ảnh Primary.
+     */
+    private ImageRequest primaryImageRequest(BaseItemDto dto) {
         if (dto.getId() != null && dto.getImageTags() != null && dto.getImageTags().containsKey("Primary")) {
             String tag = dto.getImageTags().get("Primary");
-            String serverUrl = sessionService.getApiClient().getBasePath();
-            // Yêu cầu ảnh với chiều rộng 600px
-            String url = String.format("%s/Items/%s/Images/Primary?tag=%s&maxWidth=%d&quality=90",
-                    serverUrl, dto.getId(), tag, 600);
-            return new Image(url, true); // true = tải nền
+            // Yêu cầu ảnh theo chiều cao hiển thị (giữ tỉ lệ)
+            return new ImageRequest(dto.getId(), "Primary", null, tag, 0, primaryImageHeight);
         }
         return null;
     }
+
+    /**
+     * Lấy ảnh từ cache và ghi nhớ yêu cầu (để hủy nếu người dùng chuyển item trước khi tải xong).
+     */
+    private Image requestImage(ImageRequest request) {
+        currentImageRequests.add(request);
+        return imageCacheService.getImage(request);
+    }
+
+    /**
+     * Ngừng tải các ảnh của item hiện tại (ảnh đã tải xong vẫn nằm trong cache).
+     */
+    private void cancelImageLoads() {
+        for (ImageRequest request : currentImageRequests) {
+            imageCacheService.cancelLoad(request);
+        }
+        currentImageRequests.clear();
+    }
     private String dateToString(OffsetDateTime date) {
         if (date == null) return "";
         try {
@@ -385,22 +600,36 @@ public class ItemDetailViewModel implements IItemDetailViewModel {
      * {@inheritDoc}
      */
     @Override
-    public String getBackdropUrl(ImageInfo info) {
+    public Image getBackdropImage(ImageInfo info) {
         if (info == null || info.getImageType() == null || currentItemId == null) {
             return null;
         }
-        String serverUrl = sessionService.getApiClient().getBasePath();
         String imageType = info.getImageType().getValue();
         Integer index = info.getImageIndex();
 
         // Ảnh backdrop cần cả ID, Loại, và Index
         if (index != null) {
-            return String.format("%s/Items/%s/Images/%s/%d?maxWidth=%d&quality=90",
-                    serverUrl, currentItemId, imageType, index, 400); // Yêu cầu ảnh thumbnail rộng 400px
+            // Yêu cầu ảnh thumbnail theo chiều cao hiển thị (giữ tỉ lệ)
+            return requestImage(new ImageRequest(currentItemId, imageType, index, info.getImageTag(), 0, backdropImageHeight));
         }
         return null;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean setImageDisplaySize(double primaryHeight, double backdropHeight, double outputScale) {
+        int newPrimaryHeight = ImageRequest.bucketSize(primaryHeight, outputScale);
+        int newBackdropHeight = ImageRequest.bucketSize(backdropHeight, outputScale);
+        if (newPrimaryHeight == primaryImageHeight && newBackdropHeight == backdropImageHeight) return false;
+
+        primaryImageHeight = newPrimaryHeight;
+        backdropImageHeight = newBackdropHeight;
+        // Ảnh Primary đang hiển thị được giữ nguyên (có thể là ảnh local chưa lưu), áp dụng từ item tiếp theo
+        return true;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -424,6 +653,9 @@ public class ItemDetailViewModel implements IItemDetailViewModel {
         final boolean isSavingAfterImport = importHandler.wasImportInProgress();
         final Set<String> acceptedFields = isSavingAfterImport ? importHandler.getAcceptedFields() : null;
         final BaseItemDto importedDto = isSavingAfterImport ? importHandler.getImportedDto() : null;
+        // Lưu thủ công: chỉ ghi các trường đã sửa (rỗng = dirty cưỡng bức -> ghi tất cả như trước)
+        final Set<String> dirtyFields = isSavingAfterImport ? Set.of() : dirtyTracker.getDirtyFields();
+        final boolean writeAllFields = dirtyFields.isEmpty();
 
         // Lấy giá trị *hiện tại* từ các JavaFX Properties
         // (Đây là các giá trị đã được edit hoặc chấp nhận (✓))
@@ -438,38 +670,65 @@ public class ItemDetailViewModel implements IItemDetailViewModel {
         final List<Tag> finalGenresItems = List.copyOf(this.genreItems);
 
         // Chạy tác vụ lưu trên luồng nền
-        new Thread(() -> {
+        taskService.submit(IBackgroundTaskService.Category.INTERACTIVE, "detail-save", () -> {
             try {
                 BaseItemDto dtoToSendToApi;
+                // Nền để ghi: bản mới nhất trên server (bản đang hiển thị có thể đến từ cache đã cũ),
+                // để các trường không sửa không bị ghi đè bằng giá trị cũ
+                BaseItemDto writeBase = itemRepository.getFreshItemDetails(idAtSaveTime);
+                if (writeBase == null) {
+                    throw new IllegalStateException(configService.getString("itemDetailViewModel", "errorSaveItemMissing"));
+                }
 
                 if (isSavingAfterImport) {
                     // KỊCH BẢN 1: LƯU SAU KHI IMPORT (UR-49)
                     notificationService.showStatus(configService.getString("itemDetailViewModel", "statusSavingImport"));
                     // Chỉ tạo DTO với các trường đã được chấp nhận (✓)
                     dtoToSendToApi = createDtoWithAcceptedChanges(
-                            dtoAtSaveTime, importedDto, acceptedFields
+                            writeBase, importedDto, acceptedFields
                     );
                 } else {
                     // KỊCH BẢN 2: LƯU THỦ CÔNG (UR-31)
                     notificationService.showStatus(configService.getString("itemDetailViewModel", "statusSavingManual"));
                     // Tạo DTO mới dựa trên DTO gốc, nhưng cập nhật các trường từ UI
-                    dtoToSendToApi = gson.fromJson(gson.toJson(dtoAtSaveTime), BaseItemDto.class);
-                    dtoToSendToApi.setName(finalTitle);
-                    dtoToSendToApi.setOriginalTitle(finalOriginalTitle);
-                    dtoToSendToApi.setOverview(finalOverview);
+                    // Các trường không sửa giữ nguyên giá trị gốc (kể cả ID/loại của People)
+                    dtoToSendToApi = BaseItemDtoCopier.copy(writeBase);
+                    if (writeAllFields || dirtyFields.contains("title")) dtoToSendToApi.setName(finalTitle);
+                    // OriginalTitle trống trên server: UI hiển thị giá trị gợi ý từ đường dẫn (không tính là "dirty"),
+                    // giá trị đó luôn được lưu cùng
+                    String baseOriginalTitle = writeBase.getOriginalTitle();
+                    if (writeAllFields || dirtyFields.contains("originalTitle")
+                            || baseOriginalTitle == null || baseOriginalTitle.trim().isEmpty()) {
+                        dtoToSendToApi.setOriginalTitle(finalOriginalTitle);
+                    }
+                    if (writeAllFields || dirtyFields.contains("overview")) dtoToSendToApi.setOverview(finalOverview);
                     dtoToSendToApi.setCriticRating(finalCriticRating);
-                    dtoToSendToApi.setPremiereDate(parseDateString(finalReleaseDate, dtoAtSaveTime.getPremiereDate()));
+                    if (writeAllFields || dirtyFields.contains("releaseDate")) {
+                        dtoToSendToApi.setPremiereDate(parseDateString(finalReleaseDate, writeBase.getPremiereDate()));
+                    }
                     // Chuyển đổi Model (Tag) trở lại DTO (NameLongIdPair/BaseItemPerson)
-                    dtoToSendToApi.setTagItems(convertTagsToNameLongIdPair(finalTagItems));
-                    dtoToSendToApi.setStudios(convertTagsToNameLongIdPair(finalStudiosItems));
-                    dtoToSendToApi.setPeople(convertTagsToPeopleList(finalPeopleItems));
-                    List<NameLongIdPair> genreItemsToSave = convertTagsToNameLongIdPair(finalGenresItems);
-                    dtoToSendToApi.setGenreItems(genreItemsToSave);
-                    dtoToSendToApi.setGenres(new ArrayList<>()); // Xóa trường Genres (List<String>) cũ
+                    if (writeAllFields || dirtyFields.contains("tags")) {
+                        dtoToSendToApi.setTagItems(convertTagsToNameLongIdPair(finalTagItems));
+                    }
+                    if (writeAllFields || dirtyFields.contains("studios")) {
+                        dtoToSendToApi.setStudios(convertTagsToNameLongIdPair(finalStudiosItems));
+                    }
+                    if (writeAllFields || dirtyFields.contains("people")) {
+                        dtoToSendToApi.setPeople(convertTagsToPeopleList(finalPeopleItems));
+                    }
+                    if (writeAllFields || dirtyFields.contains("genres")) {
+                        List<NameLongIdPair> genreItemsToSave = convertTagsToNameLongIdPair(finalGenresItems);
+                        dtoToSendToApi.setGenreItems(genreItemsToSave);
+                        dtoToSendToApi.setGenres(new ArrayList<>()); // Xóa trường Genres (List<String>) cũ
+                    }
                 }
 
                 // Gọi service GHI
                 itemUpdateService.updateItem(idAtSaveTime, dtoToSendToApi);
+                // Các tag/studio/người mới đã có trên server -> cập nhật cache gợi ý
+                recordSavedSuggestions(dtoToSendToApi);
+                // Nếu item vừa lưu là một người, Tags đã cache của họ không còn đúng
+                personIndexService.invalidatePerson(idAtSaveTime);
 
                 // Cập nhật UI (trên luồng FX)
                 Platform.runLater(() -> {
@@ -485,7 +744,20 @@ public class ItemDetailViewModel implements IItemDetailViewModel {
                     loading.set(false);
                 });
             }
-        }).start();
+        });
+    }
+
+    /**
+     * Helper: Báo cho Repository gợi ý các giá trị (Tags, Studios, People, Genres)
+     * của DTO vừa được lưu, để dialog AddTag thấy ngay các giá trị mới.
+     */
+    private void recordSavedSuggestions(BaseItemDto savedDto) {
+        staticDataRepository.recordLocalAdditions(SuggestionContext.TAG, parseNameLongIdPair(savedDto.getTagItems()));
+        staticDataRepository.recordLocalAdditions(SuggestionContext.STUDIO, parseNameLongIdPair(savedDto.getStudios()));
+        staticDataRepository.recordLocalAdditions(SuggestionContext.PEOPLE, parseBaseItemPerson(savedDto.getPeople()));
+        List<Tag> savedGenres = parseNameLongIdPair(savedDto.getGenreItems());
+        savedGenres.addAll(parseStringList(savedDto.getGenres()));
+        staticDataRepository.recordLocalAdditions(SuggestionContext.GENRE, savedGenres);
     }
 
     /**
@@ -500,7 +772,7 @@ public class ItemDetailViewModel implements IItemDetailViewModel {
      */
     private BaseItemDto createDtoWithAcceptedChanges(BaseItemDto originalDto, BaseItemDto importedDto, Set<String> acceptedFields) {
         // Tạo bản sao của DTO gốc
-        BaseItemDto dtoCopy = gson.fromJson(gson.toJson(originalDto), BaseItemDto.class);
+        BaseItemDto dtoCopy = BaseItemDtoCopier.copy(originalDto);
 
         // Áp dụng các thay đổi đã chấp nhận
         if (acceptedFields.contains("title")) { dtoCopy.setName(importedDto.getName()); }
@@ -557,20 +829,25 @@ public class ItemDetailViewModel implements IItemDetailViewModel {
     @Override
     public void saveCriticRatingImmediately(Float newRating) {
         if (originalItemDto == null || currentItemId == null) return;
-
-        // Tạo DTO chỉ chứa thay đổi rating
-        BaseItemDto ratingDto = gson.fromJson(gson.toJson(originalItemDto), BaseItemDto.class);
-        ratingDto.setCriticRating(newRating);
+        final String itemId = currentItemId;
 
         // Báo trạng thái
         loading.set(true);
         notificationService.showStatus(configService.getString("itemDetailViewModel", "statusSavingRating"));
 
         // Chạy trên luồng nền
-        new Thread(() -> {
+        taskService.submit(IBackgroundTaskService.Category.INTERACTIVE, "detail-save-rating", () -> {
             try {
+                // DTO chỉ thay đổi rating, dựa trên bản mới nhất trên server
+                // (bản đang hiển thị có thể đến từ cache đã cũ)
+                BaseItemDto ratingDto = itemRepository.getFreshItemDetails(itemId);
+                if (ratingDto == null) {
+                    throw new IllegalStateException(configService.getString("itemDetailViewModel", "errorSaveItemMissing"));
+                }
+                ratingDto.setCriticRating(newRating);
+
                 // Gọi service GHI
-                itemUpdateService.updateItem(currentItemId, ratingDto);
+                itemUpdateService.updateItem(itemId, ratingDto);
 
                 // Cập nhật UI (trên luồng FX)
                 Platform.runLater(() -> {
@@ -593,7 +870,7 @@ public class ItemDetailViewModel implements IItemDetailViewModel {
                     loading.set(false);
                 });
             }
-        }).start();
+        });
     }
 
     /**
@@ -612,7 +889,7 @@ public class ItemDetailViewModel implements IItemDetailViewModel {
         loading.set(true);
 
         // Chạy trên luồng nền
-        new Thread(() -> {
+        taskService.submit(IBackgroundTaskService.Category.INTERACTIVE, "detail-release-date", () -> {
             try {
                 // 1. Gọi API bên ngoài (UR-38)
                 ReleaseInfo info = externalDataService.fetchReleaseInfoByCode(code);
@@ -626,18 +903,12 @@ public class ItemDetailViewModel implements IItemDetailViewModel {
                 if (info.getActressName() != null && !info.getActressName().isEmpty()) {
                     String actorName = info.getActressName();
 
-                    // 2. Tìm kiếm diễn viên trong kho (Repo) để lấy ID và Tags
-                    List<Tag> peopleTags = staticDataRepository.getPeopleSuggestions();
-                    Tag personTagResultFromRepo = peopleTags.stream()
-                            .filter(p -> actorName.equalsIgnoreCase(p.getDisplayName()))
-                            .findFirst().orElse(null);
+                    // 2. Tra cứu diễn viên trong chỉ mục People để lấy ID và Tags
+                    Tag personTagResultFromRepo = personIndexService.findPersonByName(actorName);
 
                     if (personTagResultFromRepo != null) {
-                        // 2a. Nếu tìm thấy: Lấy DTO đầy đủ để lấy Tags của họ
-                        BaseItemDto personDto = itemRepository.getFullItemDetails(personTagResultFromRepo.getId());
-                        if (personDto != null && personDto.getTagItems() != null) {
-                            tagsFromPerson.addAll(parseNameLongIdPair(personDto.getTagItems()));
-                        }
+                        // 2a. Nếu tìm thấy: Lấy Tags của họ (đã cache)
+                        tagsFromPerson.addAll(personIndexService.getPersonTags(personTagResultFromRepo.getId()));
                         actorTagToAlwaysAdd = personTagResultFromRepo; // Dùng Tag có ID
                     } else {
                         // 2b. Nếu không tìm thấy: Tạo Tag mới (không có ID)
@@ -677,7 +948,7 @@ public class ItemDetailViewModel implements IItemDetailViewModel {
                     loading.set(false);
                 });
             }
-        }).start();
+        });
     }
 
     /**
@@ -685,6 +956,14 @@ public class ItemDetailViewModel implements IItemDetailViewModel {
      */
     @Override
     public void clonePropertiesCommand(String propertyType) {
+        // 0. Nếu đang có một lần nhân bản chạy: lệnh này dùng để HỦY nó
+        AtomicBoolean runningClone = runningCloneCancelFlag;
+        if (runningClone != null) {
+            runningClone.set(true);
+            notificationService.showStatus(configService.getString("itemDetailView", "cloneStatusCancelling"));
+            return;
+        }
+
         // 1. Lấy thư mục cha (đích) từ Cột 1
         TreeItem<LibraryTreeItem> selectedFolder = libraryTreeViewModel.selectedTreeItemProperty().get();
         if (selectedFolder == null || selectedFolder.getValue() == null || selectedFolder.getValue().isLoadingNode()) {
@@ -699,35 +978,48 @@ public class ItemDetailViewModel implements IItemDetailViewModel {
 
         final String targetParentId = selectedFolder.getValue().getItemDto().getId();
         final String sourceItemId = this.currentItemId;
+        final AtomicBoolean cancelFlag = new AtomicBoolean(false);
+        runningCloneCancelFlag = cancelFlag;
 
         // Báo trạng thái
         notificationService.showStatus(configService.getString("itemDetailView", "cloneStatusStart", propertyType));
         loading.set(true);
 
+        // Callback tiến trình (gọi từ các luồng nền của engine clone)
+        Consumer<CloneProgress> progressCallback = progress -> Platform.runLater(() -> {
+            if (!cancelFlag.get()) {
+                notificationService.showStatus(configService.getString("itemDetailView", "cloneStatusProgress",
+                        propertyType, progress.getProcessedItems(), progress.getTotalItems(),
+                        progress.getUpdatedItems(), progress.getUnchangedItems(), progress.getFailedItems()));
+            }
+        });
+
         // Chạy trên luồng nền
-        new Thread(() -> {
+        taskService.submit(IBackgroundTaskService.Category.BULK, "detail-clone", () -> {
             try {
-                int count = 0;
+                CloneProgress result = new CloneProgress(0, 0, 0, 0, 0);
                 // 3. Gọi service GHI tương ứng (UR-37)
                 switch (propertyType) {
                     case "Tags":
-                        count = itemUpdateService.cloneTags(sourceItemId, targetParentId);
+                        result = itemUpdateService.cloneTags(sourceItemId, targetParentId, progressCallback, cancelFlag::get);
                         break;
                     case "Studios":
-                        count = itemUpdateService.cloneStudios(sourceItemId, targetParentId);
+                        result = itemUpdateService.cloneStudios(sourceItemId, targetParentId, progressCallback, cancelFlag::get);
                         break;
                     case "Genres":
-                        count = itemUpdateService.cloneGenres(sourceItemId, targetParentId);
+                        result = itemUpdateService.cloneGenres(sourceItemId, targetParentId, progressCallback, cancelFlag::get);
                         break;
                     case "People":
-                        count = itemUpdateService.clonePeople(sourceItemId, targetParentId);
+                        result = itemUpdateService.clonePeople(sourceItemId, targetParentId, progressCallback, cancelFlag::get);
                         break;
                 }
 
                 // 4. Cập nhật UI (trên luồng FX)
-                final int finalCount = count;
+                final CloneProgress finalResult = result;
                 Platform.runLater(() -> {
-                    notificationService.showStatus(configService.getString("itemDetailView", "cloneStatusSuccess", propertyType, finalCount));
+                    String statusKey = cancelFlag.get() ? "cloneStatusCancelled" : "cloneStatusSuccess";
+                    notificationService.showStatus(configService.getString("itemDetailView", statusKey, propertyType,
+                            finalResult.getUpdatedItems(), finalResult.getUnchangedItems(), finalResult.getFailedItems()));
                     loading.set(false);
                 });
             } catch (Exception e) {
@@ -736,8 +1028,10 @@ public class ItemDetailViewModel implements IItemDetailViewModel {
                     notificationService.showStatus(configService.getString("itemDetailView", "cloneStatusError", e.getMessage()));
                     loading.set(false);
                 });
+            } finally {
+                runningCloneCancelFlag = null;
             }
-        }).start();
+        });
     }
 
     /**
@@ -853,10 +1147,13 @@ public class ItemDetailViewModel implements IItemDetailViewModel {
         loading.set(true);
 
         // Chạy trên luồng nền
-        new Thread(() -> {
+        taskService.submit(IBackgroundTaskService.Category.INTERACTIVE, "detail-upload-primary", () -> {
             try {
                 // Gọi service GHI để upload (UR-42)
-                itemUpdateService.uploadImage(currentItemId, ImageType.PRIMARY, fileToSave);
+                itemUpdateService.uploadImage(currentItemId, ImageType.PRIMARY, fileToSave,
+                        createUploadProgressCallback(percent -> configService.getString(
+                                "itemDetailViewModel", "statusUploadingPrimaryPercent", percent)));
+                imageCacheService.invalidateItem(currentItemId);
 
                 // Cập nhật UI (trên luồng FX)
                 Platform.runLater(() -> {
@@ -872,7 +1169,27 @@ public class ItemDetailViewModel implements IItemDetailViewModel {
                     loading.set(false);
                 });
             }
-        }).start();
+        });
+    }
+
+    /**
+     * Tạo callback tiến trình upload: chuyển (byte đã gửi, tổng byte) thành %
+     * và hiển thị lên status bar. Chỉ cập nhật UI khi % thay đổi để tránh
+     * dồn quá nhiều Platform.runLater.
+     *
+     * @param messageForPercent Hàm tạo tin nhắn trạng thái từ % (0-100).
+     * @return Callback truyền cho {@link IItemUpdateService#uploadImage}.
+     */
+    private BiConsumer<Long, Long> createUploadProgressCallback(IntFunction<String> messageForPercent) {
+        final int[] lastPercent = {-1};
+        return (sentBytes, totalBytes) -> {
+            int percent = totalBytes > 0 ? (int) (sentBytes * 100 / totalBytes) : 100;
+            if (percent != lastPercent[0]) {
+                lastPercent[0] = percent;
+                String message = messageForPercent.apply(percent);
+                Platform.runLater(() -> notificationService.showStatus(message));
+            }
+        };
     }
 
     /**
@@ -885,10 +1202,12 @@ public class ItemDetailViewModel implements IItemDetailViewModel {
         notificationService.showStatus(configService.getString("itemDetailViewModel", "statusDeletingBackdrop", backdrop.getImageIndex()));
 
         // Chạy trên luồng nền
-        new Thread(() -> {
+        taskService.submit(IBackgroundTaskService.Category.INTERACTIVE, "detail-delete-backdrop", () -> {
             try {
                 // Gọi service GHI (UR-41)
                 itemUpdateService.deleteImage(currentItemId, backdrop.getImageType(), backdrop.getImageIndex());
+                // Vị trí (index) các backdrop còn lại thay đổi: bỏ ảnh cũ khỏi cache
+                imageCacheService.invalidateItem(currentItemId);
 
                 // Cập nhật UI (trên luồng FX)
                 Platform.runLater(() -> {
@@ -899,7 +1218,7 @@ public class ItemDetailViewModel implements IItemDetailViewModel {
                 // Xử lý lỗi
                 Platform.runLater(() -> notificationService.showStatus(configService.getString("itemDetailViewModel", "errorDeleteBackdrop", e.getMessage())));
             }
-        }).start();
+        });
     }
 
     /**
@@ -913,7 +1232,7 @@ public class ItemDetailViewModel implements IItemDetailViewModel {
         loading.set(true);
 
         // Chạy trên luồng nền
-        new Thread(() -> {
+        taskService.submit(IBackgroundTaskService.Category.INTERACTIVE, "detail-upload-backdrops", () -> {
             try {
                 // Lặp qua từng file và upload (UR-41)
                 for (int i = 0; i < files.size(); i++) {
@@ -923,9 +1242,12 @@ public class ItemDetailViewModel implements IItemDetailViewModel {
                     Platform.runLater(() -> notificationService.showStatus(
                             configService.getString("itemDetailViewModel", "statusUploadingBackdropProgress", current, files.size(), file.getName())
                     ));
-                    // Gọi service GHI
-                    itemUpdateService.uploadImage(currentItemId, ImageType.BACKDROP, file);
+                    // Gọi service GHI (báo % tiến trình của file hiện tại lên status bar)
+                    itemUpdateService.uploadImage(currentItemId, ImageType.BACKDROP, file,
+                            createUploadProgressCallback(percent -> configService.getString(
+                                    "itemDetailViewModel", "statusUploadingBackdropPercent", current, files.size(), file.getName(), percent)));
                 }
+                imageCacheService.invalidateItem(currentItemId);
 
                 // Hoàn tất (trên luồng FX)
                 Platform.runLater(() -> {
@@ -940,7 +1262,7 @@ public class ItemDetailViewModel implements IItemDetailViewModel {
                     loading.set(false);
                 });
             }
-        }).start();
+        });
     }
 
 
@@ -1064,6 +1386,8 @@ public class ItemDetailViewModel implements IItemDetailViewModel {
 
     /**
      * Xử lý logic Copy by ID (UR-35) (sau khi dialog đóng).
+     * Hỗ trợ nhiều ID nguồn (cách nhau bởi dấu phẩy, chấm phẩy hoặc khoảng trắng),
+     * tất cả được lấy bằng một lần đọc theo lô.
      *
      * @param sourceItemId ID item nguồn (từ AddTagResult).
      * @param context      Loại thuộc tính cần sao chép (từ AddTagResult).
@@ -1076,29 +1400,34 @@ public class ItemDetailViewModel implements IItemDetailViewModel {
         notificationService.showStatus(configService.getString("addTagDialog", "copyStatusLoading", sourceItemId));
 
         // Chạy trên luồng nền
-        new Thread(() -> {
+        taskService.submit(IBackgroundTaskService.Category.INTERACTIVE, "detail-copy-properties", () -> {
             try {
-                // 1. Lấy DTO đầy đủ của item NGUỒN
-                BaseItemDto sourceDto = itemRepository.getFullItemDetails(sourceItemId);
-                if (sourceDto == null) {
+                // 1. Lấy DTO đầy đủ của (các) item NGUỒN bằng một lần đọc theo lô
+                List<String> sourceIds = Arrays.stream(sourceItemId.split("[,;\\s]+"))
+                        .filter(id -> !id.isEmpty())
+                        .collect(Collectors.toList());
+                List<BaseItemDto> sourceDtos = itemRepository.getFullItemDetails(sourceIds);
+                if (sourceDtos.isEmpty()) {
                     throw new Exception(configService.getString("addTagDialog", "copyErrorNotFound"));
                 }
 
                 // 2. Trích xuất danh sách thuộc tính cần sao chép
                 List<Tag> sourceTagsToCopy = new ArrayList<>();
-                switch (context) {
-                    case TAG:
-                        sourceTagsToCopy.addAll(parseNameLongIdPair(sourceDto.getTagItems()));
-                        break;
-                    case STUDIO:
-                        sourceTagsToCopy.addAll(parseNameLongIdPair(sourceDto.getStudios()));
-                        break;
-                    case PEOPLE:
-                        sourceTagsToCopy.addAll(parseBaseItemPerson(sourceDto.getPeople()));
-                        break;
-                    case GENRE:
-                        sourceTagsToCopy.addAll(parseStringList(sourceDto.getGenres()));
-                        break;
+                for (BaseItemDto sourceDto : sourceDtos) {
+                    switch (context) {
+                        case TAG:
+                            sourceTagsToCopy.addAll(parseNameLongIdPair(sourceDto.getTagItems()));
+                            break;
+                        case STUDIO:
+                            sourceTagsToCopy.addAll(parseNameLongIdPair(sourceDto.getStudios()));
+                            break;
+                        case PEOPLE:
+                            sourceTagsToCopy.addAll(parseBaseItemPerson(sourceDto.getPeople()));
+                            break;
+                        case GENRE:
+                            sourceTagsToCopy.addAll(parseStringList(sourceDto.getGenres()));
+                            break;
+                    }
                 }
 
                 // 3. Cập nhật UI (trên luồng FX)
@@ -1130,7 +1459,7 @@ public class ItemDetailViewModel implements IItemDetailViewModel {
                 // Xử lý lỗi
                 Platform.runLater(() -> notificationService.showStatus(configService.getString("addTagDialog", "copyErrorStatus", sourceItemId, e.getMessage())));
             }
-        }).start();
+        });
     }
 
 
@@ -1144,7 +1473,7 @@ public class ItemDetailViewModel implements IItemDetailViewModel {
         loading.set(true);
 
         // Chạy trên luồng nền
-        new Thread(() -> {
+        taskService.submit(IBackgroundTaskService.Category.INTERACTIVE, "detail-import", () -> {
             try {
                 // 1. Dùng JsonFileHandler để đọc và parse file
                 BaseItemDto importedDto = jsonFileHandler.readJsonFileToObject(file);
@@ -1166,7 +1495,7 @@ public class ItemDetailViewModel implements IItemDetailViewModel {
                     loading.set(false);
                 });
             }
-        }).start();
+        });
     }
 
     /**
@@ -1182,7 +1511,7 @@ public class ItemDetailViewModel implements IItemDetailViewModel {
         final BaseItemDto dtoToExport = this.originalItemDto;
 
         // Chạy trên luồng nền
-        new Thread(() -> {
+        taskService.submit(IBackgroundTaskService.Category.INTERACTIVE, "detail-export", () -> {
             try {
                 // Ủy thác cho JsonFileHandler (UR-44)
                 jsonFileHandler.writeObjectToJsonFile(dtoToExport, file);
@@ -1195,7 +1524,7 @@ public class ItemDetailViewModel implements IItemDetailViewModel {
                         configService.getString("itemDetailView", "errorExportWriteThread", ex.getMessage())
                 ));
             }
-        }).start();
+        });
     }
 
     /**
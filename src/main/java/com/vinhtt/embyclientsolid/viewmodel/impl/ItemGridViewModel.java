@@ -1,10 +1,13 @@
 package com.vinhtt.embyclientsolid.viewmodel.impl;
 
+import com.vinhtt.embyclientsolid.core.IBackgroundTaskService;
 import com.vinhtt.embyclientsolid.core.IEmbySessionService; // <-- THÊM IMPORT
+import com.vinhtt.embyclientsolid.core.IImageCacheService;
 import com.vinhtt.embyclientsolid.core.ILocalInteractionService;
 import com.vinhtt.embyclientsolid.core.INotificationService;
 import com.vinhtt.embyclientsolid.data.IItemRepository;
 import com.vinhtt.embyclientsolid.model.GridNavigationState;
+import com.vinhtt.embyclientsolid.model.ImageRequest;
 import com.vinhtt.embyclientsolid.model.Tag;
 import com.vinhtt.embyclientsolid.viewmodel.IItemGridViewModel;
 import com.vinhtt.embyclientsolid.core.IConfigurationService;
@@ -16,12 +19,21 @@ import javafx.beans.property.*;
 import javafx.beans.value.ChangeListener;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.scene.image.Image;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.Stack;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Triển khai (Implementation) của IItemGridViewModel (Cột 2).
@@ -32,6 +44,12 @@ import java.util.Stack;
 public class ItemGridViewModel implements IItemGridViewModel {
 
     private static final int ITEMS_PER_LOAD = 50; // (UR-23)
+    // Số trang lân cận (trước và sau) được tải trước
+    private static final int PREFETCH_DISTANCE = 1;
+    // Trang trong cache cũ hơn thời gian này (ms) sẽ được kiểm tra lại (revalidate) ở luồng nền khi hiển thị
+    private static final long PAGE_REVALIDATE_AFTER_MS = 10_000;
+    // Ngân sách bộ nhớ mặc định (MB) của cache trang (appSettings.gridPageCacheBudgetMb)
+    private static final int DEFAULT_PAGE_CACHE_BUDGET_MB = 8;
 
     private static final double CELL_HEIGHT = 320;
     private static final double CELL_WIDTH = CELL_HEIGHT * 16 / 9;
@@ -42,6 +60,8 @@ public class ItemGridViewModel implements IItemGridViewModel {
     private final ILocalInteractionService localInteractionService; // (Cho UR-27)
     private final IEmbySessionService sessionService;
     private final IConfigurationService configService;
+    private final IImageCacheService imageCacheService;
+    private final IBackgroundTaskService taskService;
 
     // --- Trạng thái nội bộ ---
     private int totalCount = 0;
@@ -74,6 +94,77 @@ public class ItemGridViewModel implements IItemGridViewModel {
     private final ReadOnlyBooleanWrapper hasPreviousPage = new ReadOnlyBooleanWrapper(false);
     private final BooleanProperty playAfterSelect = new SimpleBooleanProperty(false);
 
+    // --- Cache trang (Back/Forward, prefetch) ---
+    private final GridPageCache<PageKey> pageCache;
+    private PageKey currentPageKey = null; // Trang đang hiển thị (chỉ truy cập trên luồng FX)
+
+    // --- Prefetch trang lân cận ---
+    private final Set<PageKey> prefetchInFlight = ConcurrentHashMap.newKeySet();
+    // Ảnh thumbnail đã yêu cầu (trang hiện tại và các trang đã prefetch), để hủy khi rời trang
+    private final Set<ImageRequest> requestedThumbnails = ConcurrentHashMap.newKeySet();
+    private final List<Future<?>> prefetchTasks = new ArrayList<>(); // Chỉ truy cập trên luồng FX
+    private Future<?> pageLoadTask = null; // Lượt tải trang đang chạy (chỉ truy cập trên luồng FX)
+    // Tăng mỗi lần hủy; task prefetch sẽ bỏ kết quả nếu generation đã thay đổi
+    private final AtomicLong prefetchGeneration = new AtomicLong();
+    // Kích thước (px vật lý, đã làm tròn theo mức) của ảnh thumbnail yêu cầu từ server.
+    // Mặc định theo kích thước ô ở DPI 1.0, Controller cập nhật theo màn hình thật.
+    private volatile int thumbnailWidth = ImageRequest.bucketSize(CELL_WIDTH, 1.0);
+    private volatile int thumbnailHeight = (int) Math.round(thumbnailWidth * CELL_HEIGHT / CELL_WIDTH);
+    private PageKey prefetchQuery = null; // Truy vấn (bỏ qua số trang) đang được prefetch
+
+    /**
+     * Khóa xác định một trang: loại trạng thái, tham số, sắp xếp và số trang.
+     */
+    private static final class PageKey {
+        final GridNavigationState.StateType type;
+        final String primaryParam;
+        final Tag chip;
+        final String chipType;
+        final String sortBy;
+        final String sortOrder;
+        final int pageIndex;
+
+        PageKey(GridNavigationState.StateType type, String primaryParam, Tag chip, String chipType,
+                String sortBy, String sortOrder, int pageIndex) {
+            this.type = type;
+            this.primaryParam = primaryParam;
+            this.chip = chip;
+            this.chipType = chipType;
+            this.sortBy = sortBy;
+            this.sortOrder = sortOrder;
+            this.pageIndex = pageIndex;
+        }
+
+        PageKey withPageIndex(int newPageIndex) {
+            return new PageKey(type, primaryParam, chip, chipType, sortBy, sortOrder, newPageIndex);
+        }
+
+        /**
+         * So sánh mọi thứ trừ số trang.
+         */
+        boolean isSameQuery(PageKey other) {
+            return other != null && type == other.type &&
+                    Objects.equals(primaryParam, other.primaryParam) &&
+                    Objects.equals(chip, other.chip) &&
+                    Objects.equals(chipType, other.chipType) &&
+                    Objects.equals(sortBy, other.sortBy) &&
+                    Objects.equals(sortOrder, other.sortOrder);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof PageKey)) return false;
+            PageKey that = (PageKey) o;
+            return pageIndex == that.pageIndex && isSameQuery(that);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, primaryParam, chip, chipType, sortBy, sortOrder, pageIndex);
+        }
+    }
+
 
     /**
      * Khởi tạo ViewModel.
@@ -81,19 +172,27 @@ public class ItemGridViewModel implements IItemGridViewModel {
      * @param notificationService Service Thông báo (DI).
      * @param localInteractionService Service Tương tác (DI).
      * @param sessionService Service Phiên (DI). (SỬA LỖI 1)
+     * @param configService Service Cấu hình (DI).
+     * @param imageCacheService Service cache ảnh (DI), dùng chung với Cột 3.
+     * @param taskService Service chạy tác vụ nền (DI).
      */
     public ItemGridViewModel(
             IItemRepository itemRepository,
             INotificationService notificationService,
             ILocalInteractionService localInteractionService,
             IEmbySessionService sessionService,
-            IConfigurationService configService
+            IConfigurationService configService,
+            IImageCacheService imageCacheService,
+            IBackgroundTaskService taskService
     ) {
         this.itemRepository = itemRepository;
         this.notificationService = notificationService;
         this.localInteractionService = localInteractionService;
         this.sessionService = sessionService;
         this.configService = configService;
+        this.imageCacheService = imageCacheService;
+        this.taskService = taskService;
+        this.pageCache = new GridPageCache<>(getPageCacheBudgetMb() * 1024L * 1024L);
 
         // --- SỬA LỖI 2: Xóa listener tại đây ---
         // Không lắng nghe global status, chỉ đặt status của riêng Grid
@@ -107,16 +206,20 @@ public class ItemGridViewModel implements IItemGridViewModel {
      */
     @Override
     public String getPrimaryImageUrl(BaseItemDto item) {
-        if (item != null && item.getImageTags() != null && item.getImageTags().containsKey("Primary")) {
-            String tag = item.getImageTags().get("Primary");
-            String serverUrl = sessionService.getApiClient().getBasePath();
-            // (Kích thước ảnh thumbnail)
-            int width = (int) (CELL_WIDTH * 1.5); // Lấy ảnh lớn hơn 1 chút cho đẹp
+        ImageRequest request = primaryImageRequest(item);
+        return (request != null) ? imageCacheService.getImageUrl(request) : null; // null: Controller sẽ xử lý ảnh placeholder
+    }
 
-            return String.format("%s/Items/%s/Images/Primary?tag=%s&maxWidth=%d&quality=90",
-                    serverUrl, item.getId(), tag, width);
+    /**
+     * Yêu cầu ảnh thumbnail (Primary) của item, hoặc null nếu item không có ảnh Primary.
+     */
+    private ImageRequest primaryImageRequest(BaseItemDto item) {
+        if (item != null && item.getId() != null && item.getImageTags() != null && item.getImageTags().containsKey("Primary")) {
+            String tag = item.getImageTags().get("Primary");
+            // Kích thước theo ô trên màn hình (xem setThumbnailDisplaySize)
+            return new ImageRequest(item.getId(), "Primary", null, tag, thumbnailWidth, thumbnailHeight);
         }
-        return null; // Controller sẽ xử lý ảnh placeholder
+        return null;
     }
 
 
@@ -292,29 +395,8 @@ public class ItemGridViewModel implements IItemGridViewModel {
         // --- SỬA LỖI 2: Gọi global status ---
         notificationService.showStatus(configService.getString("mainView", "statusLoadingItems"));
 
-        new Thread(() -> {
-            try {
-                QueryResultBaseItemDto result = itemRepository.getItemsPaginated(
-                        parentId, (pageIndex * ITEMS_PER_LOAD), ITEMS_PER_LOAD, currentSortOrder, currentSortBy
-                );
-
-                Platform.runLater(() -> {
-                    // Cập nhật trạng thái
-                    if (!isRestoringState) {
-                        currentStateType = GridNavigationState.StateType.FOLDER;
-                        currentPrimaryParam = parentId;
-                        currentChipModel = null;
-                        currentChipType = null;
-                    }
-                    updateStateFromQueryResult(result, pageIndex, itemIdToSelect);
-                    // --- SỬA LỖI 2: Clear global status ---
-                    notificationService.clearStatus();
-                });
-
-            } catch (Exception e) {
-                handleApiError(e);
-            }
-        }).start();
+        loadPageAsync(new PageKey(GridNavigationState.StateType.FOLDER, parentId, null, null,
+                currentSortBy, currentSortOrder, pageIndex), itemIdToSelect);
     }
 
     /**
@@ -326,28 +408,8 @@ public class ItemGridViewModel implements IItemGridViewModel {
         // --- SỬA LỖI 2: Gọi global status ---
         notificationService.showStatus(configService.getString("itemGridView", "statusSearchPageLoading", (pageIndex + 1), "..."));
 
-        new Thread(() -> {
-            try {
-                QueryResultBaseItemDto result = itemRepository.searchItemsPaginated(
-                        keywords, (pageIndex * ITEMS_PER_LOAD), ITEMS_PER_LOAD, currentSortOrder, currentSortBy
-                );
-
-                Platform.runLater(() -> {
-                    if (!isRestoringState) {
-                        currentStateType = GridNavigationState.StateType.SEARCH;
-                        currentPrimaryParam = keywords;
-                        currentChipModel = null;
-                        currentChipType = null;
-                    }
-                    updateStateFromQueryResult(result, pageIndex, itemIdToSelect);
-                    // --- SỬA LỖI 2: Clear global status ---
-                    notificationService.clearStatus();
-                });
-
-            } catch (Exception e) {
-                handleApiError(e);
-            }
-        }).start();
+        loadPageAsync(new PageKey(GridNavigationState.StateType.SEARCH, keywords, null, null,
+                currentSortBy, currentSortOrder, pageIndex), itemIdToSelect);
     }
 
     /**
@@ -356,42 +418,277 @@ public class ItemGridViewModel implements IItemGridViewModel {
     private void loadItemsByChipInternal(int pageIndex, Tag chip, String chipType, String itemIdToSelect) {
         loading.set(true);
         showStatusMessage.set(true);
-        notificationService.showStatus("Đang tải theo chip...");notificationService.showStatus(configService.getString("itemGridView", "statusLoadingChip"));
+        notificationService.showStatus(configService.getString("itemGridView", "statusLoadingChip"));
 
-        new Thread(() -> {
-            try {
-                // (Giả định API trả về tất cả, không phân trang)
-//                List<BaseItemDto> chipItems = itemRepository.getItemsByChip(chip, chipType, 0, 50, true);
-
-                /*QueryResultBaseItemDto result = new QueryResultBaseItemDto();
-                result.setItems(chipItems);
-                result.setTotalRecordCount(chipItems.size());*/
-
-                QueryResultBaseItemDto result = itemRepository.getItemsByChip(
-                        chip,
-                        chipType,
-                        (pageIndex * ITEMS_PER_LOAD),
-                        ITEMS_PER_LOAD,
-                        true,
-                        currentSortOrder,
-                        currentSortBy
-                );
+        loadPageAsync(new PageKey(GridNavigationState.StateType.CHIP, null, chip, chipType,
+                currentSortBy, currentSortOrder, pageIndex), itemIdToSelect);
+    }
 
+    /**
+     * Tải một trang: dùng ngay trang trong cache (đã xem hoặc đã prefetch) nếu có,
+     * nếu không thì gọi API ở luồng nền.
+     * Sau khi hiển thị, lên lịch prefetch các trang lân cận.
+     * (Phải gọi trên luồng FX).
+     */
+    private void loadPageAsync(PageKey key, String itemIdToSelect) {
+        // Đổi trạng thái điều hướng / sắp xếp -> hủy prefetch cũ ngay lập tức
+        if (!key.isSameQuery(prefetchQuery)) {
+            cancelPrefetch();
+        }
+
+        // Trang mới thay cho trang đang tải dở (điều hướng nhanh): hủy lượt tải cũ,
+        // để kết quả cũ không ghi đè trang mới
+        if (pageLoadTask != null) {
+            pageLoadTask.cancel(true);
+            pageLoadTask = null;
+        }
+
+        GridPageCache.Entry cached = pageCache.get(key);
+        if (cached != null) {
+            // Trang đã có sẵn: hiển thị ngay, không cần spinner
+            applyPageResult(key, cached.result, itemIdToSelect);
+            if (cached.ageMillis() > PAGE_REVALIDATE_AFTER_MS) {
+                revalidatePage(key);
+            }
+            return;
+        }
+
+        pageLoadTask = taskService.submit(IBackgroundTaskService.Category.INTERACTIVE, "grid-page",
+                () -> queryPage(key),
+                result -> {
+                    pageCache.put(key, result);
+                    applyPageResult(key, result, itemIdToSelect);
+                },
+                this::handleApiError);
+    }
+
+    /**
+     * Cập nhật trạng thái điều hướng và UI với kết quả của một trang (trên luồng FX).
+     */
+    private void applyPageResult(PageKey key, QueryResultBaseItemDto result, String itemIdToSelect) {
+        // Cập nhật trạng thái
+        if (!isRestoringState) {
+            currentStateType = key.type;
+            currentPrimaryParam = key.primaryParam;
+            currentChipModel = key.chip;
+            currentChipType = key.chipType;
+        }
+        updateStateFromQueryResult(result, key.pageIndex, itemIdToSelect);
+        // --- SỬA LỖI 2: Clear global status ---
+        notificationService.clearStatus();
+
+        currentPageKey = key;
+        schedulePrefetch(key);
+    }
+
+    /**
+     * Kiểm tra lại (revalidate) một trang lấy từ cache với server ở luồng nền.
+     * Nếu trang vẫn đang hiển thị, chỉ thay thế những item đã thay đổi.
+     */
+    private void revalidatePage(PageKey key) {
+        taskService.submit(IBackgroundTaskService.Category.PREFETCH, "grid-revalidate", () -> {
+            try {
+                QueryResultBaseItemDto fresh = queryPage(key);
+                pageCache.put(key, fresh);
                 Platform.runLater(() -> {
-                    if (!isRestoringState) {
-                        currentStateType = GridNavigationState.StateType.CHIP;
-                        currentPrimaryParam = null;
-                        currentChipModel = chip;
-                        currentChipType = chipType;
+                    if (key.equals(currentPageKey) && !loading.get()) {
+                        patchDisplayedPage(key, fresh);
                     }
-                    updateStateFromQueryResult(result, pageIndex, itemIdToSelect);
-                    notificationService.clearStatus();
                 });
-
             } catch (Exception e) {
-                handleApiError(e);
+                System.err.println("Lỗi kiểm tra lại trang " + (key.pageIndex + 1) + ": " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Cập nhật trang đang hiển thị theo kết quả mới (trên luồng FX).
+     * Nếu danh sách ID không đổi: chỉ thay thế các item có dữ liệu khác
+     * (Grid chỉ vẽ lại các ô đó). Nếu không: hiển thị lại toàn bộ trang, giữ item đang chọn.
+     * Item đang chọn KHÔNG được đặt lại (dù DTO trong danh sách đã là bản mới), để Cột 3
+     * không tải lại và mất các thay đổi chưa lưu; vị trí của nó luôn được tìm theo ID.
+     */
+    private void patchDisplayedPage(PageKey key, QueryResultBaseItemDto fresh) {
+        List<BaseItemDto> freshItems = (fresh.getItems() != null) ? fresh.getItems() : new ArrayList<>();
+        int freshTotal = (fresh.getTotalRecordCount() != null) ? fresh.getTotalRecordCount() : 0;
+
+        boolean sameIds = freshTotal == totalCount && freshItems.size() == items.size();
+        for (int i = 0; sameIds && i < freshItems.size(); i++) {
+            sameIds = Objects.equals(items.get(i).getId(), freshItems.get(i).getId());
+        }
+
+        if (!sameIds) {
+            String selectedId = (selectedItem.get() != null) ? selectedItem.get().getId() : null;
+            updateStateFromQueryResult(fresh, key.pageIndex, selectedId);
+            return;
+        }
+        for (int i = 0; i < freshItems.size(); i++) {
+            if (!items.get(i).equals(freshItems.get(i))) {
+                items.set(i, freshItems.get(i));
             }
-        }).start();
+        }
+    }
+
+    /**
+     * Gọi API tương ứng với loại trạng thái của trang (FOLDER, SEARCH, CHIP).
+     */
+    private QueryResultBaseItemDto queryPage(PageKey key) throws ApiException {
+        int startIndex = key.pageIndex * ITEMS_PER_LOAD;
+        switch (key.type) {
+            case SEARCH:
+                return itemRepository.searchItemsPaginated(key.primaryParam, startIndex, ITEMS_PER_LOAD, key.sortOrder, key.sortBy);
+            case CHIP:
+                return itemRepository.getItemsByChip(key.chip, key.chipType, startIndex, ITEMS_PER_LOAD, true, key.sortOrder, key.sortBy);
+            default:
+                return itemRepository.getItemsPaginated(key.primaryParam, startIndex, ITEMS_PER_LOAD, key.sortOrder, key.sortBy);
+        }
+    }
+
+    // --- Prefetch (tải trước) trang lân cận ---
+
+    /**
+     * Prefetch trang N+1 và N-1 (kèm ảnh thumbnail) của trang vừa hiển thị,
+     * đồng thời bỏ các trang đã prefetch không còn lân cận. (Gọi trên luồng FX).
+     */
+    private void schedulePrefetch(PageKey currentKey) {
+        prefetchQuery = currentKey;
+        prefetchTasks.removeIf(Future::isDone);
+
+        // Chỉ giữ lại ảnh của trang hiện tại và các trang lân cận
+        retainThumbnailsOfNeighborPages(currentKey);
+
+        long generation = prefetchGeneration.get();
+        for (int offset = -PREFETCH_DISTANCE; offset <= PREFETCH_DISTANCE; offset++) {
+            int pageIndex = currentKey.pageIndex + offset;
+            if (offset == 0 || pageIndex < 0 || pageIndex >= totalPages) continue;
+
+            PageKey neighborKey = currentKey.withPageIndex(pageIndex);
+            GridPageCache.Entry existing = pageCache.peek(neighborKey);
+            if ((existing != null && existing.ageMillis() <= PAGE_REVALIDATE_AFTER_MS) || !prefetchInFlight.add(neighborKey)) continue;
+
+            prefetchTasks.add(taskService.submit(IBackgroundTaskService.Category.PREFETCH, "grid-prefetch", () -> {
+                try {
+                    QueryResultBaseItemDto result = queryPage(neighborKey);
+                    if (prefetchGeneration.get() != generation) return; // Đã bị hủy
+                    pageCache.put(neighborKey, result);
+                    // Tải trước ảnh thumbnail (Image tự tải ở luồng nền của JavaFX)
+                    if (result.getItems() != null) {
+                        for (BaseItemDto item : result.getItems()) {
+                            if (prefetchGeneration.get() != generation) return;
+                            getPrimaryImage(item);
+                        }
+                    }
+                } catch (Exception e) {
+                    System.err.println("Lỗi prefetch trang " + (neighborKey.pageIndex + 1) + ": " + e.getMessage());
+                } finally {
+                    prefetchInFlight.remove(neighborKey);
+                }
+            }));
+        }
+    }
+
+    /**
+     * Hủy toàn bộ prefetch đang chạy (khi trạng thái điều hướng, tiêu chí hoặc thứ tự sắp xếp thay đổi).
+     * Các trang đã tải vẫn được giữ trong cache (cho Back/Forward).
+     * Giữ lại ảnh của trang đang hiển thị. (Gọi trên luồng FX).
+     */
+    private void cancelPrefetch() {
+        prefetchGeneration.incrementAndGet();
+        prefetchTasks.forEach(task -> task.cancel(true));
+        prefetchTasks.clear();
+        prefetchInFlight.clear();
+        prefetchQuery = null;
+
+        Set<ImageRequest> visibleRequests = new HashSet<>();
+        for (BaseItemDto item : items) {
+            ImageRequest request = primaryImageRequest(item);
+            if (request != null) visibleRequests.add(request);
+        }
+        cancelThumbnailsExcept(visibleRequests);
+    }
+
+    /**
+     * Chỉ giữ lại ảnh thumbnail của trang hiện tại và các trang lân cận (nếu có trong cache).
+     */
+    private void retainThumbnailsOfNeighborPages(PageKey currentKey) {
+        Set<ImageRequest> keepRequests = new HashSet<>();
+        for (int offset = -PREFETCH_DISTANCE; offset <= PREFETCH_DISTANCE; offset++) {
+            GridPageCache.Entry page = pageCache.peek(currentKey.withPageIndex(currentKey.pageIndex + offset));
+            if (page == null || page.result.getItems() == null) continue;
+            for (BaseItemDto item : page.result.getItems()) {
+                ImageRequest request = primaryImageRequest(item);
+                if (request != null) keepRequests.add(request);
+            }
+        }
+        cancelThumbnailsExcept(keepRequests);
+    }
+
+    /**
+     * Ngừng tải các ảnh thumbnail đã yêu cầu nhưng không còn cần (trang đã rời đi).
+     * Ảnh đã tải xong vẫn nằm trong cache ảnh dùng chung.
+     */
+    private void cancelThumbnailsExcept(Set<ImageRequest> keepRequests) {
+        requestedThumbnails.removeIf(request -> {
+            if (keepRequests.contains(request)) return false;
+            imageCacheService.cancelLoad(request);
+            return true;
+        });
+    }
+
+    /**
+     * Đọc ngân sách bộ nhớ (MB) của cache trang từ appSettings.
+     */
+    private int getPageCacheBudgetMb() {
+        try {
+            int value = Integer.parseInt(configService.getString("appSettings", "gridPageCacheBudgetMb").trim());
+            return value > 0 ? value : DEFAULT_PAGE_CACHE_BUDGET_MB;
+        } catch (NumberFormatException e) {
+            return DEFAULT_PAGE_CACHE_BUDGET_MB;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getPageCacheStats() {
+        return pageCache.toString();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Image getPrimaryImage(BaseItemDto item) {
+        ImageRequest request = primaryImageRequest(item);
+        if (request == null) return null;
+        requestedThumbnails.add(request);
+        return imageCacheService.getImage(request);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean setThumbnailDisplaySize(double width, double height, double outputScale) {
+        if (width <= 0 || height <= 0) return false;
+        int newWidth = ImageRequest.bucketSize(width, outputScale);
+        int newHeight = (int) Math.round(newWidth * height / width);
+        if (newWidth == thumbnailWidth && newHeight == thumbnailHeight) return false;
+
+        thumbnailWidth = newWidth;
+        thumbnailHeight = newHeight;
+        // Ảnh đang tải theo kích thước cũ không còn được dùng
+        cancelThumbnailsExcept(Collections.emptySet());
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void cancelImageLoad(BaseItemDto item) {
+        imageCacheService.cancelLoad(primaryImageRequest(item));
     }
 
     /**
@@ -454,6 +751,11 @@ public class ItemGridViewModel implements IItemGridViewModel {
             itemToSelect = pageItems.get(0); // Mặc định chọn item đầu tiên
         }
 
+        // Cùng item (cùng ID) đã được chọn: không đặt lại, tránh tải lại Cột 3
+        BaseItemDto current = selectedItem.get();
+        if (itemToSelect != null && current != null && Objects.equals(current.getId(), itemToSelect.getId())) {
+            return;
+        }
         selectedItem.set(itemToSelect);
     }
 
@@ -479,10 +781,13 @@ public class ItemGridViewModel implements IItemGridViewModel {
 
         notificationService.showStatus(configService.getString("itemGridController", "statusGetPath"));
 
-        new Thread(() -> {
+        taskService.submit(IBackgroundTaskService.Category.INTERACTIVE, "grid-play", () -> {
             try {
-                // (UR-27) Cần lấy DTO đầy đủ để có 'Path'
-                BaseItemDto fullDetails = itemRepository.getFullItemDetails(item.getId());
+                // (UR-27) Cần 'Path': DTO của Grid đã có sẵn (profile GRID_CARD),
+                // chỉ gọi API lấy DTO đầy đủ nếu item đến từ nguồn khác (không có Path)
+                BaseItemDto fullDetails = (item.getPath() != null)
+                        ? item
+                        : itemRepository.getFullItemDetails(item.getId());
                 if (fullDetails.isIsFolder() != null && fullDetails.isIsFolder()) {
                     throw new IOException(configService.getString("itemGridController", "errorFolderDoubleClick"));
                 }
@@ -498,14 +803,14 @@ public class ItemGridViewModel implements IItemGridViewModel {
                 System.err.println("Lỗi khi Phát từ Grid: " + e.getMessage());
                 Platform.runLater(() -> notificationService.showStatus(configService.getString("itemGridController", "errorPlayFile", e.getMessage())));
             }
-        }).start();
+        });
     }
 
     // (UR-13)
     @Override
     public void selectNextItem() {
         if (items.isEmpty() || loading.get()) return;
-        int currentIndex = items.indexOf(selectedItem.get());
+        int currentIndex = indexOfSelectedItem();
         if (currentIndex < items.size() - 1) {
             selectedItem.set(items.get(currentIndex + 1));
         }
@@ -515,12 +820,27 @@ public class ItemGridViewModel implements IItemGridViewModel {
     @Override
     public void selectPreviousItem() {
         if (items.isEmpty() || loading.get()) return;
-        int currentIndex = items.indexOf(selectedItem.get());
+        int currentIndex = indexOfSelectedItem();
         if (currentIndex > 0) {
             selectedItem.set(items.get(currentIndex - 1));
         }
     }
 
+    /**
+     * Vị trí của item đang chọn trong trang, tìm theo ID (DTO trong danh sách có thể đã được
+     * thay bằng bản mới khi kiểm tra lại trang, {@code equals} của DTO so sánh mọi trường).
+     *
+     * @return Vị trí, hoặc -1 nếu không có.
+     */
+    private int indexOfSelectedItem() {
+        BaseItemDto selected = selectedItem.get();
+        if (selected == null || selected.getId() == null) return -1;
+        for (int i = 0; i < items.size(); i++) {
+            if (selected.getId().equals(items.get(i).getId())) return i;
+        }
+        return -1;
+    }
+
     @Override public void selectAndPlayNextItem() { playAfterSelect.set(true); selectNextItem(); }
     @Override public void selectAndPlayPreviousItem() { playAfterSelect.set(true); selectPreviousItem(); }
     @Override public boolean isPlayAfterSelect() { return playAfterSelect.get(); }
@@ -1,5 +1,6 @@
 package com.vinhtt.embyclientsolid.viewmodel.impl;
 
+import com.vinhtt.embyclientsolid.core.IBackgroundTaskService;
 import com.vinhtt.embyclientsolid.core.INotificationService;
 import com.vinhtt.embyclientsolid.data.IItemRepository;
 import com.vinhtt.embyclientsolid.model.LibraryTreeItem;
@@ -26,6 +27,7 @@ public class LibraryTreeViewModel implements ILibraryTreeViewModel {
     private final IItemRepository itemRepository;
     private final INotificationService notificationService;
     private final IConfigurationService configService;
+    private final IBackgroundTaskService taskService;
 
     private final ReadOnlyBooleanWrapper loading = new ReadOnlyBooleanWrapper(false);
     private final ReadOnlyObjectWrapper<TreeItem<LibraryTreeItem>> rootItem = new ReadOnlyObjectWrapper<>();
@@ -38,11 +40,15 @@ public class LibraryTreeViewModel implements ILibraryTreeViewModel {
      * Khởi tạo ViewModel.
      * @param itemRepository      Repo Đọc Item (DI).
      * @param notificationService Service Thông báo (DI).
+     * @param configService       Service Cấu hình (DI).
+     * @param taskService         Service chạy tác vụ nền (DI).
      */
-    public LibraryTreeViewModel(IItemRepository itemRepository, INotificationService notificationService, IConfigurationService configService) {
+    public LibraryTreeViewModel(IItemRepository itemRepository, INotificationService notificationService, IConfigurationService configService,
+                                IBackgroundTaskService taskService) {
         this.itemRepository = itemRepository;
         this.notificationService = notificationService;
         this.configService = configService;
+        this.taskService = taskService;
 
         this.DUMMY_NODE = new TreeItem<>(new LibraryTreeItem(configService.getString("mainView", "statusLoadingLibrary")));
 
@@ -57,7 +63,7 @@ public class LibraryTreeViewModel implements ILibraryTreeViewModel {
         loading.set(true);
         notificationService.showStatus("Đang tải thư viện...");
 
-        new Thread(() -> {
+        taskService.submit(IBackgroundTaskService.Category.INTERACTIVE, "library-roots", () -> {
             try {
                 // 1. Lấy TẤT CẢ item gốc
                 List<BaseItemDto> allRootItems = itemRepository.getRootViews();
@@ -89,7 +95,7 @@ public class LibraryTreeViewModel implements ILibraryTreeViewModel {
                     notificationService.showStatus("Lỗi tải thư viện: " + e.getMessage());
                 });
             }
-        }).start();
+        });
     }
 
     /**
@@ -119,7 +125,7 @@ public class LibraryTreeViewModel implements ILibraryTreeViewModel {
         });
         // --- KẾT THÚC SỬA LỖI ---
 
-        new Thread(() -> {
+        taskService.submit(IBackgroundTaskService.Category.INTERACTIVE, "library-children", () -> {
             try {
                 List<BaseItemDto> allChildren = itemRepository.getItemsByParentId(parentId);
 
@@ -160,7 +166,7 @@ public class LibraryTreeViewModel implements ILibraryTreeViewModel {
                     // --- KẾT THÚC SỬA LỖI ---
                 });
             }
-        }).start();
+        });
     }
 
     @Override
@@ -1,13 +1,13 @@
 package com.vinhtt.embyclientsolid.viewmodel.impl;
 
 import com.vinhtt.embyclientsolid.core.IAppNavigator;
+import com.vinhtt.embyclientsolid.core.IBackgroundTaskService;
 import com.vinhtt.embyclientsolid.core.IConfigurationService;
 import com.vinhtt.embyclientsolid.core.IEmbySessionService;
 import com.vinhtt.embyclientsolid.viewmodel.ILoginViewModel;
 import embyclient.ApiException;
 import javafx.application.Platform;
 import javafx.beans.property.*;
-import javafx.concurrent.Task;
 
 import java.io.IOException;
 
@@ -23,6 +23,7 @@ public class LoginViewModel implements ILoginViewModel {
     private final IEmbySessionService sessionService;
     private final IAppNavigator appNavigator;
     private final IConfigurationService configService;
+    private final IBackgroundTaskService taskService;
 
     // Properties (Trạng thái của View)
     private final StringProperty serverUrl;
@@ -38,11 +39,14 @@ public class LoginViewModel implements ILoginViewModel {
      * @param sessionService  Service quản lý session (từ Giai đoạn 2).
      * @param appNavigator    Service điều hướng (từ Giai đoạn 5).
      * @param configService   Service đọc config (từ Giai đoạn 2).
+     * @param taskService     Service chạy tác vụ nền.
      */
-    public LoginViewModel(IEmbySessionService sessionService, IAppNavigator appNavigator, IConfigurationService configService) {
+    public LoginViewModel(IEmbySessionService sessionService, IAppNavigator appNavigator, IConfigurationService configService,
+                          IBackgroundTaskService taskService) {
         this.sessionService = sessionService;
         this.appNavigator = appNavigator;
         this.configService = configService;
+        this.taskService = taskService;
 
         // Tự động điền URL máy chủ cuối cùng (UR-2)
         //
@@ -69,35 +73,27 @@ public class LoginViewModel implements ILoginViewModel {
         statusMessage.set(configService.getString("loginViewModel", "statusLoggingIn"));
         loginSuccess.set(false);
 
-        // Chạy đăng nhập trong một luồng nền (Task)
-        Task<Void> loginTask = new Task<>() {
-            @Override
-            protected Void call() throws Exception {
-                // Ủy thác (delegate) logic đăng nhập cho sessionService
-                //
-                sessionService.login(url, user, pass);
-                return null;
-            }
-        };
-
-        // Xử lý khi Task thành công
-        loginTask.setOnSucceeded(event -> {
-            statusMessage.set(configService.getString("loginViewModel", "statusSuccess"));
-            loginInProgress.set(false);
-            loginSuccess.set(true); // Bắn tín hiệu thành công
-            // ViewModel KHÔNG gọi appNavigator.showMain().
-            // MainApp sẽ lắng nghe 'loginSuccess' và gọi navigator.
-        });
-
-        // Xử lý khi Task thất bại (UR-3)
-        loginTask.setOnFailed(event -> {
-            Throwable exception = loginTask.getException();
-            String errorMessage = parseException(exception); // Phân tích lỗi
-            statusMessage.set(errorMessage);
-            loginInProgress.set(false);
-        });
-
-        new Thread(loginTask).start();
+        // Chạy đăng nhập trong một tác vụ nền, kết quả được trả về luồng FX
+        taskService.submit(IBackgroundTaskService.Category.INTERACTIVE, "login",
+                () -> {
+                    // Ủy thác (delegate) logic đăng nhập cho sessionService
+                    sessionService.login(url, user, pass);
+                    return null;
+                },
+                // Xử lý khi thành công
+                result -> {
+                    statusMessage.set(configService.getString("loginViewModel", "statusSuccess"));
+                    loginInProgress.set(false);
+                    loginSuccess.set(true); // Bắn tín hiệu thành công
+                    // ViewModel KHÔNG gọi appNavigator.showMain().
+                    // MainApp sẽ lắng nghe 'loginSuccess' và gọi navigator.
+                },
+                // Xử lý khi thất bại (UR-3)
+                exception -> {
+                    String errorMessage = parseException(exception); // Phân tích lỗi
+                    statusMessage.set(errorMessage);
+                    loginInProgress.set(false);
+                });
     }
 
     /**
@@ -1,6 +1,7 @@
 package com.vinhtt.embyclientsolid.viewmodel.impl;
 
 import com.vinhtt.embyclientsolid.core.IAppNavigator;
+import com.vinhtt.embyclientsolid.core.IBackgroundTaskService;
 import com.vinhtt.embyclientsolid.core.IConfigurationService;
 import com.vinhtt.embyclientsolid.core.IEmbySessionService;
 import com.vinhtt.embyclientsolid.core.INotificationService;
@@ -33,6 +34,7 @@ public class MainViewModel {
     private final IAppNavigator appNavigator;
     private final IConfigurationService configService;
     private final INotificationService notificationService;
+    private final IBackgroundTaskService taskService;
     private final BooleanProperty loading = new SimpleBooleanProperty(false);
 
     // --- Properties (Trạng thái UI) ---
@@ -50,17 +52,20 @@ public class MainViewModel {
      * @param appNavigator        Service điều hướng (DI).
      * @param notificationService Service thông báo (DI).
      * @param configService       Service cấu hình (DI).
+     * @param taskService         Service chạy tác vụ nền (DI), cho số tác vụ nền trên thanh trạng thái.
      */
     public MainViewModel(
             IEmbySessionService sessionService,
             IAppNavigator appNavigator,
             INotificationService notificationService,
-            IConfigurationService configService
+            IConfigurationService configService,
+            IBackgroundTaskService taskService
     ) {
         this.sessionService = sessionService;
         this.appNavigator = appNavigator;
         this.notificationService = notificationService;
         this.configService = configService;
+        this.taskService = taskService;
 
         // Kết nối statusMessage với notificationService (UR-9)
         this.statusMessage = new SimpleStringProperty();
@@ -135,6 +140,19 @@ public class MainViewModel {
         return loading;
     }
 
+    public ReadOnlyIntegerProperty backgroundTaskCountProperty() {
+        return taskService.inFlightCountProperty();
+    }
+
+    /**
+     * Thống kê tác vụ nền (hiển thị trong tooltip của thanh trạng thái).
+     *
+     * @return Chuỗi mô tả thống kê.
+     */
+    public String getBackgroundTaskStats() {
+        return taskService.getStats();
+    }
+
     public StringProperty searchKeywordProperty() {
         return searchKeyword;
     }
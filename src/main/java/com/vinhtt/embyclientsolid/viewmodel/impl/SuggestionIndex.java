@@ -0,0 +1,168 @@
+package com.vinhtt.embyclientsolid.viewmodel.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Chỉ mục (index) bất biến dùng để lọc gợi ý của dialog "Add Tag" theo từng phím gõ.
+ *
+ * Khi xây dựng (nên chạy trên luồng nền), các phần tử được loại trùng (theo equals),
+ * sắp xếp theo tên (không phân biệt hoa/thường), và mỗi tên được tách thành các
+ * n-gram (1 đến {@link #MAX_GRAM} ký tự) -> danh sách vị trí (posting list).
+ * Một truy vấn "chứa chuỗi" chỉ cần duyệt posting list ngắn nhất của các n-gram
+ * trong truy vấn, nên không phải quét toàn bộ danh sách ở mỗi phím gõ.
+ * Kết quả luôn đã được sắp xếp và không trùng lặp.
+ *
+ * @param <T> Kiểu phần tử (String, Tag, SuggestionItem...).
+ */
+class SuggestionIndex<T> {
+
+    // Độ dài n-gram tối đa (truy vấn dài hơn sẽ được kiểm tra lại bằng contains)
+    private static final int MAX_GRAM = 3;
+    private static final int[] NO_POSTINGS = new int[0];
+
+    private final List<T> items;
+    private final String[] lowerNames;
+    private final Map<String, int[]> postingsByGram;
+    // Tên (chữ thường) -> phần tử đầu tiên có tên đó
+    private final Map<String, T> exactIndex;
+
+    /**
+     * Xây dựng chỉ mục.
+     *
+     * @param source Danh sách nguồn (có thể trùng lặp).
+     * @param nameOf Hàm lấy tên dùng để tìm kiếm và sắp xếp (phần tử có tên null bị bỏ qua).
+     */
+    SuggestionIndex(Collection<T> source, Function<T, String> nameOf) {
+        List<T> unique = new ArrayList<>();
+        for (T item : new LinkedHashSet<>(source)) {
+            if (item != null && nameOf.apply(item) != null) {
+                unique.add(item);
+            }
+        }
+        unique.sort(Comparator.comparing((T item) -> nameOf.apply(item), String.CASE_INSENSITIVE_ORDER)
+                .thenComparing(nameOf));
+
+        this.items = Collections.unmodifiableList(unique);
+        this.lowerNames = new String[unique.size()];
+        this.exactIndex = new HashMap<>();
+
+        Map<String, IntList> postings = new HashMap<>();
+        Set<String> gramsOfItem = new HashSet<>();
+        for (int i = 0; i < unique.size(); i++) {
+            String lowerName = normalize(nameOf.apply(unique.get(i)));
+            lowerNames[i] = lowerName;
+            exactIndex.putIfAbsent(lowerName, unique.get(i));
+
+            gramsOfItem.clear();
+            for (int n = 1; n <= MAX_GRAM; n++) {
+                for (int start = 0; start + n <= lowerName.length(); start++) {
+                    String gram = lowerName.substring(start, start + n);
+                    if (gramsOfItem.add(gram)) {
+                        // i tăng dần -> posting list luôn được sắp xếp
+                        postings.computeIfAbsent(gram, g -> new IntList()).add(i);
+                    }
+                }
+            }
+        }
+
+        this.postingsByGram = new HashMap<>(postings.size() * 4 / 3 + 1);
+        for (Map.Entry<String, IntList> entry : postings.entrySet()) {
+            postingsByGram.put(entry.getKey(), entry.getValue().toArray());
+        }
+    }
+
+    /**
+     * Tạo một chỉ mục rỗng (dùng trước khi dữ liệu gợi ý được tải xong).
+     */
+    static <T> SuggestionIndex<T> empty() {
+        return new SuggestionIndex<>(Collections.emptyList(), item -> null);
+    }
+
+    /**
+     * Tìm các phần tử có tên CHỨA chuỗi truy vấn (không phân biệt hoa/thường).
+     *
+     * @param query Chuỗi tìm kiếm (null hoặc rỗng -> trả về tất cả).
+     * @return Danh sách kết quả (đã sắp xếp, không trùng lặp, không thể sửa đổi).
+     */
+    List<T> search(String query) {
+        String lowerQuery = normalize(query);
+        if (lowerQuery.isEmpty()) {
+            return items;
+        }
+
+        // Chọn posting list ngắn nhất trong các n-gram của truy vấn
+        int gramLength = Math.min(lowerQuery.length(), MAX_GRAM);
+        int[] candidates = null;
+        for (int start = 0; start + gramLength <= lowerQuery.length(); start++) {
+            int[] postings = postingsByGram.getOrDefault(lowerQuery.substring(start, start + gramLength), NO_POSTINGS);
+            if (candidates == null || postings.length < candidates.length) {
+                candidates = postings;
+            }
+            if (candidates.length == 0) {
+                return Collections.emptyList();
+            }
+        }
+
+        // Truy vấn ngắn: posting list đã là kết quả chính xác
+        boolean needsVerify = lowerQuery.length() > MAX_GRAM;
+        List<T> result = new ArrayList<>(candidates.length);
+        for (int index : candidates) {
+            if (!needsVerify || lowerNames[index].contains(lowerQuery)) {
+                result.add(items.get(index));
+            }
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Tìm phần tử có tên TRÙNG KHỚP (không phân biệt hoa/thường).
+     *
+     * @param name Tên cần tìm.
+     * @return Phần tử đầu tiên (theo thứ tự sắp xếp), hoặc null.
+     */
+    T findExact(String name) {
+        return exactIndex.get(normalize(name));
+    }
+
+    /**
+     * @return Tất cả phần tử (đã sắp xếp, không trùng lặp).
+     */
+    List<T> getAll() {
+        return items;
+    }
+
+    private static String normalize(String text) {
+        return (text == null) ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Danh sách số nguyên có thể mở rộng (tránh boxing khi xây posting list).
+     */
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size = 0;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
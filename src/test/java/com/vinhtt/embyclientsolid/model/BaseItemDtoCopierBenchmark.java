@@ -0,0 +1,66 @@
+package com.vinhtt.embyclientsolid.model;
+
+import embyclient.model.BaseItemDto;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.UnaryOperator;
+
+/**
+ * Đo thời gian và bộ nhớ cấp phát của {@link BaseItemDtoCopier#copy} so với cách cũ
+ * {@code gson.fromJson(gson.toJson(dto))}, trên một item có nhiều diễn viên/tag.
+ *
+ * Không phải unit test (Surefire không chạy lớp này): chạy tay bằng {@link #main},
+ * ví dụ từ IDE, hoặc {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.vinhtt.embyclientsolid.model.BaseItemDtoCopierBenchmark}.
+ */
+public final class BaseItemDtoCopierBenchmark {
+
+    private static final int PEOPLE_COUNT = 300;
+    private static final int ITERATIONS = 2_000;
+
+    private BaseItemDtoCopierBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        BaseItemDto source = BaseItemDtoCopierTest.populatedItem(PEOPLE_COUNT);
+
+        long[] gsonPath = measure(BaseItemDtoCopierTest::gsonCopy, source);
+        long[] copierPath = measure(BaseItemDtoCopier::copy, source);
+
+        System.out.printf("gson.fromJson(gson.toJson(dto)): %,d ns/copy, %,d bytes/copy%n",
+                gsonPath[0] / ITERATIONS, perCopy(gsonPath[1]));
+        System.out.printf("BaseItemDtoCopier.copy(dto):     %,d ns/copy, %,d bytes/copy%n",
+                copierPath[0] / ITERATIONS, perCopy(copierPath[1]));
+    }
+
+    /**
+     * Chạy {@code copier} (sau một vòng làm nóng) và trả về {tổng ns, tổng byte cấp phát trên thread này}.
+     * Byte cấp phát là -1 nếu JVM không hỗ trợ đo.
+     */
+    private static long[] measure(UnaryOperator<BaseItemDto> copier, BaseItemDto source) {
+        for (int i = 0; i < ITERATIONS; i++) {
+            copier.apply(source);
+        }
+
+        long bytesBefore = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            copier.apply(source);
+        }
+        long elapsed = System.nanoTime() - start;
+        long bytesAfter = allocatedBytes();
+        return new long[]{elapsed, (bytesBefore >= 0) ? bytesAfter - bytesBefore : -1};
+    }
+
+    private static long perCopy(long total) {
+        return (total >= 0) ? total / ITERATIONS : -1;
+    }
+
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threadBean
+                && threadBean.isThreadAllocatedMemorySupported()) {
+            return threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,158 @@
+package com.vinhtt.embyclientsolid.model;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import embyclient.JSON;
+import embyclient.model.BaseItemDto;
+import embyclient.model.BaseItemPerson;
+import embyclient.model.NameLongIdPair;
+import embyclient.model.PersonType;
+import embyclient.model.UserItemDataDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Kiểm tra {@link BaseItemDtoCopier} cho kết quả giống cách cũ
+ * {@code gson.fromJson(gson.toJson(dto))} (bản sao được gửi lại server khi lưu).
+ * Đo hiệu năng của hai cách: xem {@link BaseItemDtoCopierBenchmark} (không chạy cùng unit test).
+ */
+class BaseItemDtoCopierTest {
+
+    // Cùng cấu hình Gson mà các chỗ sao chép cũ dùng
+    private static final Gson gson = new GsonBuilder()
+            .registerTypeAdapter(OffsetDateTime.class, new JSON.OffsetDateTimeTypeAdapter())
+            .create();
+
+    /**
+     * Bản sao phải serialize ra đúng JSON như bản sao tạo bằng cách cũ.
+     */
+    @Test
+    void copyMatchesGsonRoundTrip() {
+        BaseItemDto source = populatedItem(20);
+
+        BaseItemDto expected = gsonCopy(source);
+        BaseItemDto actual = BaseItemDtoCopier.copy(source);
+
+        assertEquals(gson.toJson(expected), gson.toJson(actual));
+        assertEquals(expected, actual);
+    }
+
+    /**
+     * DTO gần như trống (các danh sách null) cũng phải giống cách cũ.
+     */
+    @Test
+    void copyMatchesGsonRoundTripOnSparseItem() {
+        BaseItemDto source = new BaseItemDto();
+        source.setId("42");
+        source.setName("Sparse");
+
+        assertEquals(gson.toJson(gsonCopy(source)), gson.toJson(BaseItemDtoCopier.copy(source)));
+        assertNull(BaseItemDtoCopier.copy(null));
+    }
+
+    /**
+     * Sửa bản sao (kể cả các danh sách bên trong) không được ảnh hưởng bản gốc.
+     */
+    @Test
+    void copyIsDeep() {
+        BaseItemDto source = populatedItem(3);
+        String before = gson.toJson(source);
+
+        BaseItemDto copy = BaseItemDtoCopier.copy(source);
+        assertNotSame(source.getPeople(), copy.getPeople());
+        assertNotSame(source.getPeople().get(0), copy.getPeople().get(0));
+        assertNotSame(source.getStudios().get(0), copy.getStudios().get(0));
+        assertNotSame(source.getImageTags(), copy.getImageTags());
+        assertNotSame(source.getUserData(), copy.getUserData());
+
+        copy.setName("Changed");
+        copy.getPeople().get(0).setRole("Changed");
+        copy.getPeople().add(new BaseItemPerson().name("Added").type(PersonType.ACTOR));
+        copy.getStudios().get(0).setName("Changed");
+        copy.getTagItems().clear();
+        copy.getGenres().add("Added");
+        copy.getImageTags().put("Logo", "changed");
+        copy.getBackdropImageTags().clear();
+        copy.getUserData().setIsFavorite(false);
+
+        assertEquals(before, gson.toJson(source));
+    }
+
+    /**
+     * Cách sao chép cũ.
+     */
+    static BaseItemDto gsonCopy(BaseItemDto dto) {
+        return gson.fromJson(gson.toJson(dto), BaseItemDto.class);
+    }
+
+    /**
+     * Tạo một item đầy đủ các trường hay dùng, với {@code peopleCount} diễn viên.
+     */
+    static BaseItemDto populatedItem(int peopleCount) {
+        BaseItemDto item = new BaseItemDto();
+        item.setId("12345");
+        item.setName("Tên phim \"đặc biệt\" <b>");
+        item.setOriginalTitle("ABC-123");
+        item.setOverview("Dòng 1\nDòng 2\t{\"json\":\"trong mô tả\"}");
+        item.setPath("/media/movies/ABC-123/ABC-123.mp4");
+        item.setEtag("etag-1");
+        item.setType("Movie");
+        item.setOfficialRating("R");
+        item.setCriticRating(8.5f);
+        item.setIsFolder(false);
+        item.setProductionYear(2024);
+        item.setPremiereDate(OffsetDateTime.of(2024, 3, 15, 0, 0, 0, 0, ZoneOffset.UTC));
+        item.setDateCreated(OffsetDateTime.of(2024, 4, 1, 12, 30, 45, 123_000_000, ZoneOffset.ofHours(7)));
+
+        List<BaseItemPerson> people = new ArrayList<>();
+        for (int i = 0; i < peopleCount; i++) {
+            BaseItemPerson person = new BaseItemPerson()
+                    .name("Diễn viên " + i)
+                    .id(String.valueOf(1000 + i))
+                    .type((i % 5 == 0) ? PersonType.DIRECTOR : PersonType.ACTOR);
+            person.setRole((i % 2 == 0) ? "Vai " + i : null);
+            person.setPrimaryImageTag((i % 3 == 0) ? "img" + i : null);
+            people.add(person);
+        }
+        item.setPeople(people);
+
+        item.setStudios(pairs("Studio", 5));
+        item.setTagItems(new ArrayList<>(pairs("{\"Body\":\"Slim\"} ", 30)));
+        item.getTagItems().add(null);
+        item.setGenreItems(pairs("Genre", 8));
+        item.setGenres(new ArrayList<>(Arrays.asList("Drama", "Thriller", null)));
+        item.setTags(new ArrayList<>(List.of("a", "b")));
+
+        Map<String, String> imageTags = new LinkedHashMap<>();
+        imageTags.put("Primary", "p-tag");
+        imageTags.put("Thumb", "t-tag");
+        item.setImageTags(imageTags);
+        item.setBackdropImageTags(new ArrayList<>(List.of("bd-0", "bd-1", "bd-2")));
+
+        UserItemDataDto userData = new UserItemDataDto();
+        userData.setIsFavorite(true);
+        userData.setPlayCount(3);
+        userData.setPlayed(true);
+        item.setUserData(userData);
+        return item;
+    }
+
+    private static List<NameLongIdPair> pairs(String prefix, int count) {
+        List<NameLongIdPair> pairs = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            pairs.add(new NameLongIdPair().name(prefix + i).id((i % 4 == 0) ? null : 500L + i));
+        }
+        return pairs;
+    }
+}
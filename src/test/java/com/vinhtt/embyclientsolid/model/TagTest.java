@@ -0,0 +1,134 @@
+package com.vinhtt.embyclientsolid.model;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonSyntaxException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Kiểm tra bộ parse/serialize JSON viết tay của {@link Tag} cho kết quả giống hệt Gson
+ * (chuỗi serialize được lưu lên server, nên phải khớp từng byte với cách cũ).
+ */
+class TagTest {
+
+    private static final Gson gson = new Gson();
+
+    // Các chuỗi có ký tự cần escape: nháy, backslash, ký tự điều khiển, ký tự HTML, Unicode...
+    private static final List<String> EDGE_STRINGS = List.of(
+            "", "Body", "Slim", "Tiếng Việt có dấu", "日本語", "emoji \uD83D\uDE00",
+            "quote \" inside", "back\\slash", "slash / here",
+            "tab\there", "new\nline", "cr\rhere", "form\ffeed", "back\bspace",
+            "\u0000\u0001\u001f", "del\u007f",
+            "<b>html</b>", "a & b", "x = y", "it's", "line\u2028sep\u2029para",
+            "  leading and trailing  ", "{\"nested\":\"json\"}", "|pipe|");
+
+    /**
+     * serialize() phải giống hệt gson.toJson của một JsonObject một cặp (cách cũ).
+     */
+    @Test
+    void serializeMatchesGson() {
+        for (String key : EDGE_STRINGS) {
+            for (String value : EDGE_STRINGS) {
+                JsonObject expected = new JsonObject();
+                expected.addProperty(key, value);
+                assertEquals(gson.toJson(expected), new Tag(key, value, null).serialize(),
+                        () -> "key=" + key + ", value=" + value);
+            }
+        }
+    }
+
+    /**
+     * Serialize rồi parse lại phải cho đúng key/value ban đầu.
+     */
+    @Test
+    void serializeThenParseRoundTrips() {
+        for (String key : EDGE_STRINGS) {
+            for (String value : EDGE_STRINGS) {
+                Tag parsed = Tag.parse(new Tag(key, value, null).serialize());
+                assertTrue(parsed.isJson());
+                assertEquals(key, parsed.getKey());
+                assertEquals(value, parsed.getValue());
+            }
+        }
+    }
+
+    /**
+     * parse() phải cho kết quả giống cách cũ (luôn dùng Gson) trên các chuỗi thô
+     * có khoảng trắng, escape {@code \}u, JSON lỗi, nhiều cặp, giá trị không phải chuỗi...
+     */
+    @Test
+    void parseMatchesGson() {
+        List<String> rawNames = List.of(
+                "Beautiful Girl",
+                "{\"Body\":\"Slim\"}",
+                "{ \"Body\" : \"Slim\" }",
+                "{\n\t\"Body\":\t\"Slim\"\n}",
+                "{\"K\\u00e9y\":\"V\\u1ea1lue\"}",
+                "{\"a\\\"b\":\"c\\\\d\\/e\"}",
+                "{\"esc\":\"\\b\\f\\n\\r\\t\"}",
+                "{\"html\":\"\\u003cb\\u003e \\u0026 \\u003d \\u0027\"}",
+                "{\"upper\":\"\\u00C9\"}",
+                "{\"raw\":\"Tiếng Việt\"}",
+                "{\"empty\":\"\"}",
+                "{\"\":\"emptyKey\"}",
+                "{\"first\":\"1\",\"second\":\"2\"}",
+                "{\"number\":5}",
+                "{\"bool\":true}",
+                "{'single':'quotes'}",
+                "{unquoted:value}",
+                "{\"bad\":\"escape\\x\"}",
+                "{\"short\":\"\\u12\"}",
+                "{\"a\":\"\\u+041\"}",
+                "{\"a\":\"\\u-041\"}",
+                "{\"a\":\"\\u00g1\"}",
+                "{\"a\":\"\\u\uFF10\uFF10\uFF14\uFF11\"}",
+                "{\"unterminated\":\"value}",
+                "{not json}",
+                "{}",
+                "{ }",
+                "{\"Body\":\"Slim\"} trailing",
+                "prefix {\"Body\":\"Slim\"}");
+
+        for (String raw : rawNames) {
+            Tag expected = parseWithGson(raw);
+            Tag actual = Tag.parse(raw);
+            assertEquals(expected, actual, () -> "raw=" + raw);
+            assertEquals(expected.serialize(), actual.serialize(), () -> "raw=" + raw);
+        }
+    }
+
+    /**
+     * Các lần parse cùng chuỗi thô (và ID) dùng chung một đối tượng; ID khác cho Tag khác.
+     */
+    @Test
+    void parseInternsByRawNameAndId() {
+        assertTrue(Tag.parse("{\"Body\":\"Slim\"}", "1") == Tag.parse("{\"Body\":\"Slim\"}", "1"));
+        assertFalse(Tag.parse("{\"Body\":\"Slim\"}", "1").equals(Tag.parse("{\"Body\":\"Slim\"}", "2")));
+    }
+
+    /**
+     * Cách parse cũ (trước khi có đường nhanh viết tay): luôn dùng Gson.
+     */
+    private static Tag parseWithGson(String rawName) {
+        if (rawName.startsWith("{") && rawName.endsWith("}")) {
+            try {
+                JsonObject jsonObject = gson.fromJson(rawName, JsonObject.class);
+                Map.Entry<String, JsonElement> firstEntry = jsonObject.entrySet().stream().findFirst().orElse(null);
+                if (firstEntry != null) {
+                    return new Tag(firstEntry.getKey(), firstEntry.getValue().getAsString(), null);
+                }
+            } catch (JsonSyntaxException | IllegalStateException e) {
+                // Không phải JSON hợp lệ: chuỗi thường
+            }
+        }
+        return new Tag(rawName, null);
+    }
+}